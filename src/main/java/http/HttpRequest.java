@@ -1,31 +1,57 @@
 package http;
 
-import static utils.HttpConstant.QUERY_PARAM_SYMBOL;
-
-import java.util.Arrays;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.AsciiString;
+import utils.HttpHeaderNames;
+import utils.HttpHeaderValues;
+
+/**
+ * HTTP 요청 하나. 헤더, 파라미터, 쿠키, multipart 파트는 요청 바이트에서 바로 만들지 않고 처음 사용할 때 한 번만 파싱해 보관한다. 경로만 사용하는
+ * 정적 파일 요청은 나머지를 파싱하지 않는다. 요청을 처리하는 한 스레드에서만 사용한다.
+ */
 public class HttpRequest {
+    private static final Logger logger = LoggerFactory.getLogger(HttpRequest.class);
+    private static final HttpVersion HTTP_1_0 = new HttpVersion("HTTP/1.0");
     private final HttpMethod method;
     private final HttpRequestUri requestURI;
     private final HttpVersion httpVersion;
-    private final Map<String, String> headers;
-    private final Map<String, String> parameter;
-    private final List<Cookie> cookies;
-    private final List<MultiPart> parts;
+    private final Function<AsciiString, AsciiString> headerLookup;
+    private String path;
+    private final Lazy<Map<String, String>> parameter;
+    private final Lazy<List<Cookie>> cookies;
+    private final Lazy<List<MultiPart>> parts;
 
     protected HttpRequest(HttpMethod method, HttpRequestUri requestURI, HttpVersion httpVersion,
                           Map<String, String> headers, Map<String, String> parameter,
                           List<Cookie> cookies, List<MultiPart> parts) {
+        this(method, requestURI, httpVersion,
+                headerName -> AsciiString.of(headers.getOrDefault(headerName.toString(), "")),
+                new Evaluated<>(parameter), new Evaluated<>(cookies), new Evaluated<>(parts));
+    }
+
+    /**
+     * @param headerLookup 헤더 이름으로 값을 찾는다. 없으면 {@link AsciiString#EMPTY} 를 반환해야 한다
+     * @param parameter    처음 사용할 때 한 번만 호출한다. cookies, parts 도 같다. {@link Evaluated} 는 이미 만든 값으로 본다
+     */
+    protected HttpRequest(HttpMethod method, HttpRequestUri requestURI, HttpVersion httpVersion,
+                          Function<AsciiString, AsciiString> headerLookup, Supplier<Map<String, String>> parameter,
+                          Supplier<List<Cookie>> cookies, Supplier<List<MultiPart>> parts) {
         this.method = method;
         this.requestURI = requestURI;
         this.httpVersion = httpVersion;
-        this.headers = headers;
-        this.parameter = parameter;
-        this.cookies = cookies;
-        this.parts = parts;
+        this.headerLookup = headerLookup;
+        this.parameter = new Lazy<>(parameter);
+        this.cookies = new Lazy<>(cookies);
+        this.parts = new Lazy<>(parts);
     }
 
     public HttpMethod getMethod() {
@@ -36,8 +62,16 @@ public class HttpRequest {
         return requestURI.uri();
     }
 
+    /**
+     * 쿼리 파라미터를 제외한 부분. 처음 호출할 때 한 번만 자른다.
+     */
     public String getPath() {
-        return requestURI.uri().split(QUERY_PARAM_SYMBOL)[0]; // 쿼리 파라미터를 제외한 부분
+        if (path == null) {
+            String uri = requestURI.uri();
+            int queryStart = uri.indexOf('?');
+            path = queryStart < 0 ? uri : uri.substring(0, queryStart);
+        }
+        return path;
     }
 
     public String getHttpVersion() {
@@ -45,24 +79,105 @@ public class HttpRequest {
     }
 
     public String getHeader(String headerName) {
-        return headers.getOrDefault(headerName, "");
+        return getHeader(AsciiString.of(headerName)).toString();
+    }
+
+    /**
+     * 요청 바이트를 가리키는 헤더 값을 찾는다. {@link utils.HttpHeaderNames} 의 상수로 찾으면 문자열을 만들지 않는다.
+     */
+    public AsciiString getHeader(AsciiString headerName) {
+        return headerLookup.apply(headerName);
+    }
+
+    /**
+     * 응답 후에도 연결을 유지해야 하는지 확인한다. HTTP/1.1 은 'Connection: close' 가 없으면 유지하고, HTTP/1.0 은 'Connection:
+     * keep-alive' 가 있을 때만 유지한다.
+     */
+    public boolean isKeepAlive() {
+        AsciiString connection = getHeader(HttpHeaderNames.CONNECTION);
+        if (HTTP_1_0.equals(httpVersion)) {
+            return connection.contentEqualsIgnoreCase(HttpHeaderValues.KEEP_ALIVE);
+        }
+        return !connection.contentEqualsIgnoreCase(HttpHeaderValues.CLOSE);
     }
 
     public String getParameter(String parameterName) {
-        return parameter.getOrDefault(parameterName, "");
+        return parameter.get().getOrDefault(parameterName, "");
     }
 
     public List<Cookie> getCookie() {
-        return Collections.unmodifiableList(cookies);
+        return Collections.unmodifiableList(cookies.get());
     }
 
     public MultiPart getPart(String partName) {
-        return parts.stream()
+        return parts.get().stream()
                 .filter(part -> part.name.equals(partName))
                 .findAny()
                 .orElse(null);
     }
 
+    /**
+     * 요청 처리 후 남아 있는 multipart 임시 파일을 지운다. 처리 중에 다른 경로로 옮긴 파일은 이미 없으므로 영향이 없다. 받는 동안 나눈 파트는
+     * 처음부터 만든 값으로 보관하므로 처리기가 파트를 읽지 않았어도 지운다. 요청 바이트에서 파싱하는 파트는 임시 파일을 만들지 않으므로 아직
+     * 파싱하지 않았으면 파싱하지 않는다.
+     */
+    public void deleteTemporaryFiles() {
+        List<MultiPart> parsedParts = parts.peek();
+        if (parsedParts == null) {
+            return;
+        }
+        for (MultiPart part : parsedParts) {
+            if (part.isInFile()) {
+                try {
+                    Files.deleteIfExists(part.file());
+                } catch (IOException e) {
+                    logger.error("[HTTP REQUEST ERROR] temp file delete fail: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * 처음 get() 할 때 한 번만 값을 만들어 보관한다. 만든 뒤에는 원본(요청 바이트)을 참조하지 않도록 supplier 를 버린다.
+     */
+    private static class Lazy<T> {
+        private Supplier<T> supplier;
+        private T value;
+
+        private Lazy(Supplier<T> supplier) {
+            if (supplier instanceof Evaluated<T> evaluated) {
+                this.value = evaluated.value();
+            } else {
+                this.supplier = supplier;
+            }
+        }
+
+        private T get() {
+            if (supplier != null) {
+                value = supplier.get();
+                supplier = null;
+            }
+            return value;
+        }
+
+        /**
+         * 이미 만든 값. 아직 만들지 않았으면 null
+         */
+        private T peek() {
+            return supplier == null ? value : null;
+        }
+    }
+
+    /**
+     * 이미 만든 값. {@link Lazy} 는 이 값을 처음부터 만든 값으로 보관한다.
+     */
+    record Evaluated<T>(T value) implements Supplier<T> {
+        @Override
+        public T get() {
+            return value;
+        }
+    }
+
     public enum HttpMethod {
         GET("GET"),
         POST("POST");
@@ -80,7 +195,26 @@ public class HttpRequest {
     public record HttpVersion(String version) {
     }
 
-    public record MultiPart(String name, String submittedFileName, String contentType, byte[] partBody) {
+    /**
+     * multipart/form-data 의 파트 하나. 본문은 메모리(partBody) 또는 임시 파일(file) 중 한 곳에만 있다. 임시 파일은 요청 처리가 끝나면 지워지므로
+     * 보관하려면 처리 중에 다른 경로로 옮겨야 한다.
+     */
+    public record MultiPart(String name, String submittedFileName, String contentType, byte[] partBody, Path file) {
+
+        public MultiPart(String name, String submittedFileName, String contentType, byte[] partBody) {
+            this(name, submittedFileName, contentType, partBody, null);
+        }
+
+        public boolean isInFile() {
+            return file != null;
+        }
+
+        /**
+         * 본문이 비어 있는지 확인한다. 임시 파일은 메모리 보관 한도를 넘은 본문만 쓰므로 비어 있지 않다.
+         */
+        public boolean isEmpty() {
+            return !isInFile() && (partBody == null || partBody.length == 0);
+        }
 
         @Override
         public String toString() {
@@ -88,7 +222,8 @@ public class HttpRequest {
                     "name=" + name + ", " +
                     "submittedFileName=" + submittedFileName + ", " +
                     "contentType=" + contentType + ", " +
-                    "hasPartBody=" + (partBody.length > 0) + ']';
+                    "hasPartBody=" + !isEmpty() + ", " +
+                    "inFile=" + isInFile() + ']';
         }
     }
 }
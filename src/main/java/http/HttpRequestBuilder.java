@@ -1,5 +1,6 @@
 package http;
 
+import http.HttpRequest.Evaluated;
 import http.HttpRequest.HttpMethod;
 import http.HttpRequest.HttpRequestUri;
 import http.HttpRequest.HttpVersion;
@@ -8,19 +9,22 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import utils.AsciiString;
 
 public class HttpRequestBuilder {
     private HttpMethod method;
     private HttpRequestUri requestURI;
     private HttpVersion httpVersion;
-    private Map<String, String> headers = new HashMap<>();
-    private Map<String, String> parameter = new HashMap<>();
-    private List<Cookie> cookies = new ArrayList<>();
-    private List<MultiPart> parts = new ArrayList<>();
+    private Function<AsciiString, AsciiString> headerLookup = headerName -> AsciiString.EMPTY;
+    private Supplier<Map<String, String>> parameter = HashMap::new;
+    private Supplier<List<Cookie>> cookies = ArrayList::new;
+    private Supplier<List<MultiPart>> parts = ArrayList::new;
 
     public HttpRequest build() {
         return new HttpRequest(
-                method, requestURI, httpVersion, headers, parameter, cookies, parts
+                method, requestURI, httpVersion, headerLookup, parameter, cookies, parts
         );
     }
 
@@ -40,21 +44,44 @@ public class HttpRequestBuilder {
     }
 
     public HttpRequestBuilder setHeaders(Map<String, String> headers) {
-        this.headers = headers;
+        this.headerLookup = headerName -> AsciiString.of(headers.getOrDefault(headerName.toString(), ""));
+        return this;
+    }
+
+    /**
+     * 헤더를 맵으로 만들지 않고 필요할 때 이름으로 찾는다. 없는 헤더는 {@link AsciiString#EMPTY} 를 반환해야 한다.
+     */
+    public HttpRequestBuilder setHeaders(Function<AsciiString, AsciiString> headerLookup) {
+        this.headerLookup = headerLookup;
         return this;
     }
 
     public HttpRequestBuilder setParameter(Map<String, String> parameter) {
+        return setParameter(new Evaluated<>(parameter));
+    }
+
+    /**
+     * 파라미터를 처음 사용할 때 파싱한다. setCookies, setParts 의 Supplier 도 같다.
+     */
+    public HttpRequestBuilder setParameter(Supplier<Map<String, String>> parameter) {
         this.parameter = parameter;
         return this;
     }
 
     public HttpRequestBuilder setCookies(List<Cookie> cookies) {
+        return setCookies(new Evaluated<>(cookies));
+    }
+
+    public HttpRequestBuilder setCookies(Supplier<List<Cookie>> cookies) {
         this.cookies = cookies;
         return this;
     }
 
     public HttpRequestBuilder setParts(List<MultiPart> parts) {
+        return setParts(new Evaluated<>(parts));
+    }
+
+    public HttpRequestBuilder setParts(Supplier<List<MultiPart>> parts) {
         this.parts = parts;
         return this;
     }
@@ -1,66 +1,140 @@
 package http;
 
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static utils.HttpConstant.*;
 
-import java.io.DataOutputStream;
 import java.io.IOException;
-
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import utils.ByteRange;
+import utils.FileRegion;
+import utils.HtmlTemplate;
+import utils.MappedRegion;
+import utils.ResponseBuffer;
 
+/**
+ * 상태 줄, 헤더, 본문을 순서대로 출력 스트림에 쓴다. 서버는 {@link ResponseBuffer} 를 넘겨 응답 하나를 풀에서 빌린 버퍼 하나에 모으고, 연결에서
+ * gathering write 한 번으로 보낸다. 상태 줄, Date 헤더, 자주 쓰는 헤더 이름은 미리 만들어 둔 바이트를 그대로 쓴다.
+ */
 public class HttpResponse {
     private static final Logger logger = LoggerFactory.getLogger(HttpResponse.class);
-    private String contentType = "Content-Type: ";
-    private String charset = "charset=";
-    private String contentLength = "Content-Length: ";
-    private String lastModified = "Last-Modified: ";
-    private String location = "Location: ";
-    private final DataOutputStream dos;
+    private static final String DEFAULT_VERSION = "HTTP/1.1";
+    /* 응답마다 문자열을 만들지 않도록 미리 만들어 둔 헤더 바이트 */
+    private static final byte[] CONTENT_TYPE = ascii("Content-Type: ");
+    private static final byte[] CHARSET = ascii("charset=");
+    private static final byte[] CONTENT_LENGTH = ascii("Content-Length: ");
+    private static final byte[] LAST_MODIFIED = ascii("Last-Modified: ");
+    private static final byte[] ETAG = ascii("ETag: ");
+    private static final byte[] ACCEPT_RANGES_BYTES = ascii("Accept-Ranges: bytes" + CRLF);
+    private static final byte[] CONTENT_RANGE = ascii("Content-Range: bytes ");
+    private static final byte[] LOCATION = ascii("Location: ");
+    private static final byte[] SET_COOKIE = ascii("Set-Cookie: ");
+    private static final byte[] CONNECTION_KEEP_ALIVE = ascii("Connection: keep-alive" + CRLF);
+    private static final byte[] CONNECTION_CLOSE = ascii("Connection: close" + CRLF);
+    private static final byte[] PARAMETER_SEPARATOR = ascii(SPLITTER + SP);
+    private static final byte[] LINE_END = ascii(CRLF);
+    private static final byte[] TRANSFER_ENCODING_CHUNKED = ascii("Transfer-Encoding: chunked" + CRLF);
+    private static final byte[] LAST_CHUNK = ascii("0" + CRLF + CRLF);
+
+    private String httpVersion = DEFAULT_VERSION; // 상태 줄은 상태 코드와 함께 쓴다
+    private byte[] connection; // null 이면 Connection 헤더를 쓰지 않는다
+    private boolean contentLengthWritten = false;
+    private final OutputStream out; // DataOutputStream 으로 감싸지 않는다 (가상 스레드 고정, ExecutionMode 참고)
 
-    public HttpResponse(DataOutputStream dos) {
-        this.dos = dos;
+    public HttpResponse(OutputStream out) {
+        this.out = out;
     }
 
     public HttpResponse setHttpVersion(String httpVersion) {
-        writeString(httpVersion + SP);
+        this.httpVersion = httpVersion;
         return this;
     }
 
+    /**
+     * 상태 줄과 Date 헤더를 쓴다. HTTP/1.1 상태 줄과 Date 헤더는 {@link ResponseHeaders} 에 미리 만들어 둔 바이트를 그대로 쓴다.
+     */
     public HttpResponse setStatusCode(HttpStatus status) {
-        writeString(status.code + SP + status.message + CRLF);
+        if (DEFAULT_VERSION.equals(httpVersion)) {
+            writeBytes(ResponseHeaders.statusLine(status));
+        } else {
+            writeString(httpVersion + SP + status.code + SP + status.message + CRLF);
+        }
+        writeBytes(ResponseHeaders.dateHeader());
         return this;
     }
 
     public HttpResponse setContentType(String contentType) {
-        this.contentType += contentType;
-        writeString(this.contentType + SPLITTER + SP);
+        writeHeader(CONTENT_TYPE, contentType, PARAMETER_SEPARATOR);
         return this;
     }
 
     public HttpResponse setCharset(String charset) {
-        this.charset += charset;
-        writeString(this.charset + CRLF);
+        writeHeader(CHARSET, charset, LINE_END);
         return this;
     }
 
     public HttpResponse setContentLength(int contentLength) {
-        this.contentLength += contentLength;
-        writeString(this.contentLength + CRLF);
+        return setContentLength((long) contentLength);
+    }
+
+    public HttpResponse setContentLength(long contentLength) {
+        this.contentLengthWritten = true;
+        writeHeader(CONTENT_LENGTH, Long.toString(contentLength), LINE_END);
+        return this;
+    }
+
+    /**
+     * @param lastModified 'Sun, 06 Nov 1994 08:49:37 GMT' 형식의 HTTP 날짜 ({@link ResponseHeaders#formatHttpDate})
+     */
+    public HttpResponse setLastModified(String lastModified) {
+        writeHeader(LAST_MODIFIED, lastModified, LINE_END);
+        return this;
+    }
+
+    /**
+     * @param etag 따옴표를 포함한 엔티티 태그 (예: '"1a2b-3c4d"')
+     */
+    public HttpResponse setETag(String etag) {
+        writeHeader(ETAG, etag, LINE_END);
+        return this;
+    }
+
+    public HttpResponse setAcceptRanges() {
+        writeBytes(ACCEPT_RANGES_BYTES);
         return this;
     }
 
-    public HttpResponse setLastModified(LocalDateTime lastModified) {
-        this.lastModified += lastModified.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
-        writeString(this.lastModified + CRLF);
+    /**
+     * 'Content-Range: bytes 0-99/1000' 를 쓴다.
+     */
+    public HttpResponse setContentRange(ByteRange range, long size) {
+        writeHeader(CONTENT_RANGE, contentRange(range, size), LINE_END);
+        return this;
+    }
+
+    /**
+     * 416 응답의 Content-Range 를 쓴다. 구간 없이 파일 크기만 알린다.
+     */
+    public HttpResponse setUnsatisfiedContentRange(long size) {
+        writeHeader(CONTENT_RANGE, "*/" + size, LINE_END);
         return this;
     }
 
     public HttpResponse addCookie(Cookie cookie) {
-        writeString("Set-Cookie: " + cookie.getCookie() + CRLF);
+        writeHeader(SET_COOKIE, cookie.getCookie(), LINE_END);
         return this;
     }
 
@@ -69,51 +143,307 @@ public class HttpResponse {
                 .map(Cookie::getCookie)
                 .collect(Collectors.joining());
 
-        writeString("Set-Cookie: " + cookieString + CRLF);
+        writeHeader(SET_COOKIE, cookieString, LINE_END);
         return this;
     }
 
     public HttpResponse setLocation(String location) {
-        this.location += location;
-        writeString(this.location + CRLF);
+        writeHeader(LOCATION, location, LINE_END);
         return this;
     }
 
-    public HttpResponse setMessageBody(String stringMessageBody) {
-        writeString(CRLF);
-        writeString(stringMessageBody);
-        writeString(CRLF);
+    /**
+     * 응답 후 연결 유지 여부를 설정한다. Connection 헤더는 본문을 쓰기 직전에 함께 쓴다.
+     *
+     * @param keepAlive true 면 'Connection: keep-alive', false 면 'Connection: close'
+     */
+    public HttpResponse setKeepAlive(boolean keepAlive) {
+        this.connection = keepAlive ? CONNECTION_KEEP_ALIVE : CONNECTION_CLOSE;
         return this;
     }
 
+    public HttpResponse setMessageBody(String stringMessageBody) {
+        return setMessageBody(stringMessageBody.getBytes(UTF_8));
+    }
+
+    /**
+     * 헤더를 마치고 본문을 쓴다. Content-Length 를 설정하지 않았으면 본문 길이로 설정한다. 클라이언트가 Content-Length 만큼 읽고 다음 응답을 기다릴 수 있도록
+     * 본문 뒤에는 아무것도 쓰지 않는다. {@link ResponseBuffer} 에 쓰면 큰 본문은 복사하지 않고 헤더 뒤에 이어 붙인다.
+     *
+     * @param bytesMessageBody 응답 본문
+     */
     public HttpResponse setMessageBody(byte[] bytesMessageBody) {
-        writeString(CRLF);
+        writeHeaderEnd(bytesMessageBody.length);
+        if (out instanceof ResponseBuffer responseBuffer) {
+            responseBuffer.writeBody(bytesMessageBody);
+            return this;
+        }
         writeBytes(bytesMessageBody);
-        writeString(CRLF);
         return this;
     }
 
+    /**
+     * 컴파일한 템플릿을 렌더링해 본문으로 쓴다. 본문 길이는 템플릿과 값만으로 계산하므로, 페이지를 문자열로 만들지 않고 조각과 값을 버퍼에 바로 쓴다.
+     *
+     * @param values 자리 이름 → UTF-8 로 인코딩한 값
+     */
+    public HttpResponse setMessageBody(HtmlTemplate template, Map<String, byte[]> values) {
+        writeHeaderEnd(template.length(values));
+        template.render(values, this::writeBytes);
+        return this;
+    }
+
+    /**
+     * 파일을 본문으로 쓴다. {@link ResponseBuffer} 에 쓰면 큰 파일은 힙에 읽지 않고 전송할 때 FileChannel.transferTo 로 소켓에 바로 보낸다.
+     * 파일을 열 수 없으면 빈 본문을 쓴다.
+     *
+     * @param file 응답 본문으로 보낼 파일
+     */
+    public HttpResponse setMessageBody(Path file) {
+        FileChannel fileChannel;
+        long size;
+        try {
+            fileChannel = FileChannel.open(file, StandardOpenOption.READ);
+            size = fileChannel.size();
+        } catch (IOException e) {
+            logger.error("[RESPONSE ERROR] file open error: {}", e.getMessage());
+            return setMessageBody(new byte[0]);
+        }
+
+        writeHeaderEnd(size);
+        writeFileBody(fileChannel, 0, size);
+        return this;
+    }
+
+    /**
+     * 메모리 매핑한 파일 구간을 본문으로 쓴다. {@link ResponseBuffer} 에 쓰면 복사하지 않고 헤더 뒤에 이어 붙여 소켓으로 바로 보낸다. 구간은 응답
+     * 버퍼(또는 쓴 뒤 여기서) 반납한다.
+     */
+    public HttpResponse setMessageBody(MappedRegion region) {
+        writeHeaderEnd(region.count());
+        if (out instanceof ResponseBuffer responseBuffer) {
+            responseBuffer.writeBody(region);
+            return this;
+        }
+        try (region) {
+            ByteBuffer buffer = region.buffer();
+            WritableByteChannel channel = Channels.newChannel(out);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            logger.error("[RESPONSE ERROR]: {}", e.getMessage());
+        }
+        return this;
+    }
+
+    /**
+     * 파일의 한 구간을 본문으로 쓴다 (206 응답). 파일 위치에서 바로 transferTo 로 보낸다. 파일을 열 수 없으면 빈 본문을 쓴다.
+     */
+    public HttpResponse setMessageBody(Path file, ByteRange range) {
+        FileChannel fileChannel;
+        try {
+            fileChannel = FileChannel.open(file, StandardOpenOption.READ);
+        } catch (IOException e) {
+            logger.error("[RESPONSE ERROR] file open error: {}", e.getMessage());
+            return setMessageBody(new byte[0]);
+        }
+
+        writeHeaderEnd(range.length());
+        writeFileBody(fileChannel, range.start(), range.length());
+        return this;
+    }
+
+    /**
+     * 파일의 여러 구간을 multipart/byteranges 본문으로 쓴다 (206 응답). Content-Type 헤더도 여기서 쓴다. {@link ResponseBuffer} 에 연결이
+     * 보낼 곳을 정해 두었으면 구간마다 앞부분을 떼어 보내므로, 큰 구간도 힙에 읽지 않고 transferTo 로 보낸다. 파일을 열 수 없으면 빈 본문을 쓴다.
+     *
+     * @param contentType 각 파트의 Content-Type
+     * @param size        파일 크기
+     */
+    public HttpResponse setMessageBody(Path file, List<ByteRange> ranges, String contentType, long size) {
+        List<FileChannel> fileChannels = new ArrayList<>(ranges.size()); // 파일 구간마다 채널을 닫으므로 구간마다 연다
+        try {
+            for (int i = 0; i < ranges.size(); i++) {
+                fileChannels.add(FileChannel.open(file, StandardOpenOption.READ));
+            }
+        } catch (IOException e) {
+            logger.error("[RESPONSE ERROR] file open error: {}", e.getMessage());
+            fileChannels.forEach(HttpResponse::closeQuietly);
+            return setMessageBody(new byte[0]);
+        }
+
+        String boundary = "byteranges_" + Long.toHexString(ThreadLocalRandom.current().nextLong() | Long.MIN_VALUE);
+        byte[] closeDelimiter = ascii(CRLF + "--" + boundary + "--" + CRLF);
+        List<byte[]> partHeaders = new ArrayList<>(ranges.size());
+        long contentLength = closeDelimiter.length;
+        for (ByteRange range : ranges) {
+            byte[] partHeader = ascii(CRLF + "--" + boundary + CRLF
+                    + "Content-Type: " + contentType + CRLF
+                    + "Content-Range: bytes " + contentRange(range, size) + CRLF + CRLF);
+            partHeaders.add(partHeader);
+            contentLength += partHeader.length + range.length();
+        }
+
+        writeHeader(CONTENT_TYPE, "multipart/byteranges; boundary=" + boundary, LINE_END);
+        writeHeaderEnd(contentLength);
+        for (int i = 0; i < ranges.size(); i++) {
+            writeBytes(partHeaders.get(i));
+            writeFilePart(fileChannels.get(i), ranges.get(i));
+        }
+        writeBytes(closeDelimiter);
+        return this;
+    }
+
+    /**
+     * 본문이 없는 응답(304 Not Modified)의 헤더를 마친다. 304 는 본문이 없음이 정해져 있으므로 Content-Length 를 쓰지 않는다.
+     */
+    public HttpResponse endHeader() {
+        writeConnectionAndEnd();
+        return this;
+    }
+
+    /**
+     * 본문 길이를 미리 알 수 없는 응답의 헤더를 마친다. 'Transfer-Encoding: chunked' 를 쓰며, 본문은 {@link #writeChunk} 로 나눠 쓰고
+     * {@link #endChunked()} 로 끝낸다. HTTP/1.0 요청에는 사용하지 않는다. 보통은 {@link ResponseWriter} 를 통해 사용한다.
+     */
+    public HttpResponse startChunked() {
+        writeBytes(TRANSFER_ENCODING_CHUNKED);
+        writeConnectionAndEnd();
+        return this;
+    }
+
+    /**
+     * 청크 하나(크기 줄, 데이터, CRLF)를 쓴다. 길이가 0 이면 마지막 청크와 구분할 수 없으므로 쓰지 않는다.
+     */
+    public HttpResponse writeChunk(byte[] bytes, int offset, int length) {
+        if (length == 0) {
+            return this;
+        }
+        writeString(Integer.toHexString(length));
+        writeBytes(LINE_END);
+        writeBytes(bytes, offset, length);
+        writeBytes(LINE_END);
+        return this;
+    }
+
+    public HttpResponse endChunked() {
+        writeBytes(LAST_CHUNK);
+        return this;
+    }
+
+    /**
+     * 지금까지 쓴 응답을 본문을 마치기 전에 먼저 보낸다. {@link ResponseBuffer} 에 연결이 보낼 곳을 정해 두었을 때만 보내며, 아니면 응답을 마친 뒤
+     * 한 번에 보낸다.
+     */
+    public void stream() {
+        if (!(out instanceof ResponseBuffer responseBuffer)) {
+            flush();
+            return;
+        }
+        try {
+            responseBuffer.stream();
+        } catch (IOException e) {
+            logger.error("[RESPONSE ERROR] stream error: {}", e.getMessage());
+        }
+    }
+
     public void flush() {
         try {
-            dos.flush();
+            out.flush();
         } catch (IOException e) {
             logger.error("[RESPONSE ERROR] flush error: {}", e.getMessage());
         }
     }
 
+    /* 파일 채널은 응답 버퍼(또는 전송한 뒤 여기서) 닫는다 */
+    private void writeFileBody(FileChannel fileChannel, long offset, long count) {
+        try {
+            if (out instanceof ResponseBuffer responseBuffer) {
+                responseBuffer.writeFile(fileChannel, offset, count);
+                return;
+            }
+            try (FileRegion region = new FileRegion(fileChannel, offset, count)) {
+                region.transferAll(Channels.newChannel(out));
+            }
+        } catch (IOException e) {
+            logger.error("[RESPONSE ERROR]: {}", e.getMessage());
+        }
+    }
+
+    /* 파일 구간 뒤에 이어 쓸 수 있도록, 응답 버퍼에 붙인 파일 구간은 바로 떼어 보낸다. 떼어 보낼 수 없으면 복사해 쓴다 */
+    private void writeFilePart(FileChannel fileChannel, ByteRange range) {
+        if (out instanceof ResponseBuffer responseBuffer && responseBuffer.hasStreamSink()) {
+            writeFileBody(fileChannel, range.start(), range.length());
+            if (responseBuffer.fileRegion() != null) {
+                stream();
+            }
+            return;
+        }
+        try (FileRegion region = new FileRegion(fileChannel, range.start(), range.length())) {
+            region.transferAll(Channels.newChannel(out));
+        } catch (IOException e) {
+            logger.error("[RESPONSE ERROR]: {}", e.getMessage());
+        }
+    }
+
+    private static String contentRange(ByteRange range, long size) {
+        return range.start() + "-" + range.end() + "/" + size;
+    }
+
+    private static void closeQuietly(FileChannel fileChannel) {
+        try {
+            fileChannel.close();
+        } catch (IOException e) {
+            // 열기만 한 읽기 전용 채널이라 닫기 실패로 잃는 데이터는 없다
+        }
+    }
+
+    private void writeHeaderEnd(long bodyLength) {
+        if (!contentLengthWritten) {
+            setContentLength(bodyLength);
+        }
+        writeConnectionAndEnd();
+    }
+
+    private void writeConnectionAndEnd() {
+        if (connection != null) {
+            writeBytes(connection);
+        }
+        writeBytes(LINE_END);
+    }
+
+    private void writeHeader(byte[] name, String value, byte[] end) {
+        writeBytes(name);
+        writeString(value);
+        writeBytes(end);
+    }
+
     private void writeString(String string) {
+        if (out instanceof ResponseBuffer responseBuffer) { // 헤더 줄마다 byte[] 를 만들지 않는다
+            responseBuffer.writeString(string);
+            return;
+        }
         try {
-            dos.write(string.getBytes("UTF-8"));
+            out.write(string.getBytes(UTF_8));
         } catch (IOException e) {
             logger.error("[RESPONSE ERROR]: {}", e.getMessage());
         }
     }
 
     private void writeBytes(byte[] bytes) {
+        writeBytes(bytes, 0, bytes.length);
+    }
+
+    private void writeBytes(byte[] bytes, int offset, int length) {
         try {
-            dos.write(bytes);
+            out.write(bytes, offset, length);
         } catch (IOException e) {
             logger.error("[RESPONSE ERROR]: {}", e.getMessage());
         }
     }
+
+    private static byte[] ascii(String string) {
+        return string.getBytes(ISO_8859_1);
+    }
 }
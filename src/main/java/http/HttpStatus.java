@@ -1,13 +1,22 @@
 package http;
 
 public enum HttpStatus {
+    STATUS_CONTINUE(100, "Continue"),
     STATUS_OK(200, "OK"),
     STATUS_CREATED(201, "Created"),
+    STATUS_PARTIAL_CONTENT(206, "Partial Content"),
     STATUS_MOVED_PERMANENTLY(301, "Moved Permanently"),
     STATUS_FOUND(302, "Found"),
+    STATUS_NOT_MODIFIED(304, "Not Modified"),
+    STATUS_BAD_REQUEST(400, "Bad Request"),
+    STATUS_UNAUTHORIZED(401, "Unauthorized"),
     STATUS_FORBIDDEN(403, "Forbidden"),
     STATUS_NOT_FOUND(404, "Not Found"),
     STATUS_NOT_ALLOWED(405, "Method Not Allowed"),
+    STATUS_PAYLOAD_TOO_LARGE(413, "Payload Too Large"),
+    STATUS_URI_TOO_LONG(414, "URI Too Long"),
+    STATUS_RANGE_NOT_SATISFIABLE(416, "Range Not Satisfiable"),
+    STATUS_REQUEST_HEADER_FIELDS_TOO_LARGE(431, "Request Header Fields Too Large"),
     ;
 
     public final int code;
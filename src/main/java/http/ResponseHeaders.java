@@ -0,0 +1,76 @@
+package http;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 응답마다 새로 만들지 않고 복사만 하는 헤더 바이트. 상태 줄('HTTP/1.1 200 OK\r\n')은 상태마다 처음에 한 번 만들고, Date 헤더(RFC 7231
+ * IMF-fixdate)는 백그라운드 스레드가 1초마다 한 번 만들어 모든 응답이 같은 배열을 쓴다. 따라서 요청을 처리하는 스레드는 날짜를 포맷하거나 문자열을
+ * 이어 붙이지 않는다.
+ * <p>
+ * 반환하는 배열은 공유하므로 수정하지 않아야 한다.
+ */
+public final class ResponseHeaders {
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter
+            .ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US)
+            .withZone(ZoneOffset.UTC);
+    private static final long TICK_MILLIS = 1000;
+    private static final Map<HttpStatus, byte[]> STATUS_LINES = createStatusLines();
+    private static volatile byte[] dateHeader = formatDateHeader(Instant.now());
+
+    static {
+        ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "date-header-ticker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long untilNextSecond = TICK_MILLIS - System.currentTimeMillis() % TICK_MILLIS;
+        ticker.scheduleAtFixedRate(() -> dateHeader = formatDateHeader(Instant.now()),
+                untilNextSecond, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private ResponseHeaders() {
+    }
+
+    /**
+     * 'HTTP/1.1 200 OK\r\n' 형식의 상태 줄
+     */
+    public static byte[] statusLine(HttpStatus status) {
+        return STATUS_LINES.get(status);
+    }
+
+    /**
+     * 'Date: Sun, 06 Nov 1994 08:49:37 GMT\r\n' 형식의 현재 시각 헤더. 최대 1초 전의 시각이다.
+     */
+    public static byte[] dateHeader() {
+        return dateHeader;
+    }
+
+    /**
+     * 'Sun, 06 Nov 1994 08:49:37 GMT' 형식의 HTTP 날짜 (RFC 7231 IMF-fixdate). Last-Modified 등에 사용한다.
+     */
+    public static String formatHttpDate(Instant instant) {
+        return DATE_FORMAT.format(instant);
+    }
+
+    static byte[] formatDateHeader(Instant now) {
+        return ("Date: " + formatHttpDate(now) + "\r\n").getBytes(ISO_8859_1);
+    }
+
+    private static Map<HttpStatus, byte[]> createStatusLines() {
+        Map<HttpStatus, byte[]> statusLines = new EnumMap<>(HttpStatus.class);
+        for (HttpStatus status : HttpStatus.values()) {
+            statusLines.put(status, ("HTTP/1.1 " + status.code + " " + status.message + "\r\n").getBytes(ISO_8859_1));
+        }
+        return statusLines;
+    }
+}
@@ -0,0 +1,85 @@
+package http;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.Arrays;
+
+/**
+ * 길이를 미리 알 수 없는 본문(동적 페이지)을 만들면서 쓰는 응답 본문 writer. 헤더(상태 줄, Content-Type 등)를 쓴 뒤 만들고, 본문을 모두 쓴 뒤
+ * {@link #close()} 로 응답을 마친다.
+ * <p>
+ * 본문이 CHUNK_SIZE 보다 작게 끝나면 모아 두었다가 Content-Length 로 보낸다. CHUNK_SIZE 를 넘으면 'Transfer-Encoding: chunked' 로 바꾸고,
+ * CHUNK_SIZE 만큼 모일 때마다 청크로 써서 연결로 먼저 보낸다. 따라서 페이지가 커져도 첫 바이트를 보내는 시간과 모아 두는 메모리는 일정하다
+ * (클라이언트가 느리게 읽으면 연결이 쌓인 청크를 보낼 때까지 write 가 기다린다). HTTP/1.0
+ * 요청은 chunked 를 이해하지 못하므로 모두 모아서 Content-Length 로 보낸다.
+ */
+public class ResponseWriter implements AutoCloseable {
+    private static final int CHUNK_SIZE = Integer.getInteger("server.response.chunkSize", 8 * 1024); // 8KB
+    private final HttpResponse response;
+    private final boolean chunkedAllowed;
+    private byte[] pending = new byte[CHUNK_SIZE];
+    private int pendingLength = 0;
+    private boolean chunked = false;
+    private boolean closed = false;
+
+    /**
+     * @param response       헤더를 마치지 않은 응답
+     * @param chunkedAllowed false 면 본문 크기와 관계없이 모두 모아서 Content-Length 로 보낸다 (HTTP/1.0)
+     */
+    public ResponseWriter(HttpResponse response, boolean chunkedAllowed) {
+        this.response = response;
+        this.chunkedAllowed = chunkedAllowed;
+    }
+
+    public ResponseWriter write(String string) {
+        byte[] bytes = string.getBytes(UTF_8);
+        return write(bytes, 0, bytes.length);
+    }
+
+    public ResponseWriter write(byte[] bytes, int offset, int length) {
+        if (closed) {
+            throw new IllegalStateException("response writer is closed");
+        }
+        ensureCapacity(pendingLength + length);
+        System.arraycopy(bytes, offset, pending, pendingLength, length);
+        pendingLength += length;
+        if (chunkedAllowed && pendingLength >= CHUNK_SIZE) {
+            writeChunk();
+        }
+        return this;
+    }
+
+    /**
+     * 남은 본문을 쓰고 응답을 마친다. 여러 번 호출해도 한 번만 마친다.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (!chunked) {
+            response.setMessageBody(Arrays.copyOf(pending, pendingLength));
+        } else {
+            response.writeChunk(pending, 0, pendingLength);
+            response.endChunked();
+        }
+        response.flush();
+    }
+
+    private void writeChunk() {
+        if (!chunked) {
+            response.startChunked();
+            chunked = true;
+        }
+        response.writeChunk(pending, 0, pendingLength);
+        pendingLength = 0;
+        response.stream();
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > pending.length) {
+            pending = Arrays.copyOf(pending, Math.max(required, pending.length * 2));
+        }
+    }
+}
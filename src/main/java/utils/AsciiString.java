@@ -0,0 +1,179 @@
+package utils;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+/**
+ * 바이트 배열의 일부를 복사하지 않고 가리키는 ASCII 문자열. 요청 바이트 안의 method, 헤더 이름/값 같은 구간을 String 으로 만들지 않고 비교하기 위해
+ * 사용한다. 바이트 하나를 문자 하나로 본다(ISO-8859-1).
+ * <p>
+ * hashCode 는 대소문자를 구분하지 않고 계산해 한 번만 구한 뒤 보관하므로, 헤더 이름처럼 대소문자만 다른 값도 같은 버킷에서 찾을 수 있다. equals 는
+ * 대소문자를 구분하며, 대소문자를 무시한 비교는 {@link #contentEqualsIgnoreCase(CharSequence)} 를 사용한다. 가리키는 배열은 바뀌지 않아야 한다.
+ */
+public final class AsciiString implements CharSequence {
+    public static final AsciiString EMPTY = new AsciiString(new byte[0], 0, 0);
+
+    private final byte[] value;
+    private final int offset;
+    private final int length;
+    private int hash; // 0 이면 아직 구하지 않음
+    private String string;
+
+    public AsciiString(byte[] value, int offset, int length) {
+        this.value = value;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * 상수로 사용할 문자열을 만든다. hashCode 를 미리 구해 둔다.
+     */
+    public static AsciiString of(String string) {
+        AsciiString asciiString = new AsciiString(string.getBytes(ISO_8859_1), 0, string.length());
+        asciiString.string = string;
+        asciiString.hashCode();
+        return asciiString;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return (char) (byteAt(index) & 0xFF);
+    }
+
+    public byte byteAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return value[offset + index];
+    }
+
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    /**
+     * 같은 배열을 가리키는 부분 문자열. 복사하지 않는다.
+     */
+    @Override
+    public AsciiString subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("start=" + start + ", end=" + end + ", length=" + length);
+        }
+        if (start == 0 && end == length) {
+            return this;
+        }
+        return new AsciiString(value, offset + start, end - start);
+    }
+
+    public int indexOf(char ch, int from) {
+        for (int i = Math.max(from, 0); i < length; i++) {
+            if (value[offset + i] == (byte) ch) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public boolean contentEquals(CharSequence other) {
+        if (other == this) {
+            return true;
+        }
+        if (other == null || other.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if ((char) (value[offset + i] & 0xFF) != other.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean contentEqualsIgnoreCase(CharSequence other) {
+        if (other == this) {
+            return true;
+        }
+        if (other == null || other.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (toLowerCase((char) (value[offset + i] & 0xFF)) != toLowerCase(other.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * array[from, from + length) 와 대소문자를 무시하고 비교한다. 요청 바이트의 헤더 이름을 상수와 비교할 때 문자열을 만들지 않기 위해 사용한다.
+     */
+    public boolean contentEqualsIgnoreCase(byte[] array, int from, int length) {
+        if (length != this.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (toLowerCase((char) (value[offset + i] & 0xFF)) != toLowerCase((char) (array[from + i] & 0xFF))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean endsWithIgnoreCase(CharSequence suffix) {
+        int from = length - suffix.length();
+        if (from < 0) {
+            return false;
+        }
+        for (int i = 0; i < suffix.length(); i++) {
+            if (toLowerCase((char) (value[offset + from + i] & 0xFF)) != toLowerCase(suffix.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof AsciiString asciiString) || asciiString.length != length) {
+            return false;
+        }
+        return hashCode() == asciiString.hashCode() && contentEquals(asciiString);
+    }
+
+    /**
+     * 대소문자를 구분하지 않는 hashCode. 처음 호출할 때 한 번만 계산한다.
+     */
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0 && length > 0) {
+            for (int i = 0; i < length; i++) {
+                h = 31 * h + toLowerCase((char) (value[offset + i] & 0xFF));
+            }
+            hash = h;
+        }
+        return h;
+    }
+
+    /**
+     * String 으로 변환한다. 처음 호출할 때 한 번만 만든다.
+     */
+    @Override
+    public String toString() {
+        if (string == null) {
+            string = new String(value, offset, length, ISO_8859_1);
+        }
+        return string;
+    }
+
+    private static char toLowerCase(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+}
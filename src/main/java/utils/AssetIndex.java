@@ -0,0 +1,163 @@
+package utils;
+
+import static utils.ResourceHandler.BASE_PATH;
+import static utils.ResourceHandler.FILE_EXTENSION_MAP;
+import static utils.ResourceHandler.INDEX_HTML;
+import static utils.ResourceHandler.STATIC_PATH;
+import static utils.ResourceHandler.TEMPLATE_PATH;
+import static utils.ResourceHandler.getExtension;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 서버를 시작할 때 'static/' 과 'templates/' 를 한 번 훑어 만드는 요청 경로 → 파일 색인. 요청마다 경로 문자열을 이어 붙이거나 디렉토리인지 확인하지
+ * 않고 해시 조회 한 번으로 파일을 찾는다. 만든 뒤에는 바꾸지 않는다.
+ * <p>
+ * 정적 파일은 '/main.css' 처럼 파일 경로로, 'index.html' 이 있는 디렉토리는 '/registration', '/registration/' 처럼 디렉토리 경로로도 찾는다.
+ * 템플릿은 {@link ResourceHandler#readTemplate(String)} 에 넘기는 이름('/index.html', '/')으로 찾는다. 서버를 시작한 뒤 추가한 파일과 업로드한
+ * 파일('/media')은 색인에 없으므로 기존처럼 경로를 만들어 찾는다.
+ * <p>
+ * {@code -Dserver.assets.preload=false} 가 아니면 시작할 때 캐시할 수 있는 정적 파일을 {@link StaticFileCache} 에 미리 읽어 두고 템플릿을
+ * {@link TemplateCache} 에 컴파일해 두어, 배포 후 첫 요청도 디스크를 읽지 않는다.
+ */
+public final class AssetIndex {
+    private static final Logger logger = LoggerFactory.getLogger(AssetIndex.class);
+    private static final boolean PRELOAD = Boolean.parseBoolean(System.getProperty("server.assets.preload", "true"));
+
+    private final Map<String, Asset> assets;
+    private final Map<String, Path> templates;
+
+    /**
+     * 색인한 정적 파일. 검증자는 색인을 만들 때의 값이며, 응답할 때는 {@link StaticFileCache} 나 {@link FileValidator#of(Path)} 로 지금 값을 쓴다.
+     */
+    public record Asset(Path file, String contentType, FileValidator validator) {
+    }
+
+    private static final class Holder {
+        private static final AssetIndex INSTANCE = build(Path.of(BASE_PATH + STATIC_PATH), Path.of(BASE_PATH + TEMPLATE_PATH));
+    }
+
+    private AssetIndex(Map<String, Asset> assets, Map<String, Path> templates) {
+        this.assets = Map.copyOf(assets);
+        this.templates = Map.copyOf(templates);
+    }
+
+    /**
+     * 처음 호출할 때 색인을 만든다. 서버를 시작할 때 {@link #initialize()} 로 만들어 두면 요청을 처리하는 스레드는 만들어 둔 색인을 쓴다.
+     */
+    public static AssetIndex getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * 서버를 시작할 때 색인을 만들고, 정적 파일을 미리 읽어 두고 템플릿을 컴파일해 둔다.
+     */
+    public static void initialize() {
+        long start = System.nanoTime();
+        AssetIndex assetIndex = getInstance();
+        int preloaded = PRELOAD ? assetIndex.warmUp(StaticFileCache.getInstance()) : 0;
+        int compiled = PRELOAD ? assetIndex.compileTemplates(TemplateCache.getInstance()) : 0;
+        logger.info("asset index: {} static files, {} templates, {} preloaded, {} compiled in {} ms", assetIndex.assets.size(),
+                assetIndex.templates.size(), preloaded, compiled, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    static AssetIndex build(Path staticRoot, Path templateRoot) {
+        Map<String, Asset> assets = new HashMap<>();
+        for (Path file : listFiles(staticRoot)) {
+            FileValidator validator = FileValidator.of(file);
+            if (validator == null) { // 훑는 동안 지워졌다
+                continue;
+            }
+            String requestPath = requestPath(staticRoot, file);
+            Asset asset = new Asset(file, FILE_EXTENSION_MAP.getOrDefault(getExtension(requestPath), "text/html"), validator);
+            assets.put(requestPath, asset);
+            if (file.getFileName().toString().equals(INDEX_HTML)) { // 디렉토리 경로로도 찾는다
+                String directory = requestPath.substring(0, requestPath.length() - INDEX_HTML.length());
+                assets.put(directory, asset);
+                if (directory.length() > 1) {
+                    assets.put(directory.substring(0, directory.length() - 1), asset);
+                }
+            }
+        }
+
+        Map<String, Path> templates = new HashMap<>();
+        for (Path file : listFiles(templateRoot)) {
+            String templateName = requestPath(templateRoot, file);
+            templates.put(templateName, file);
+            if (file.getFileName().toString().equals(INDEX_HTML)) { // 디렉토리 이름 뒤에 'index.html' 을 붙여 찾으므로 '/' 로 끝나는 이름만 색인한다
+                templates.put(templateName.substring(0, templateName.length() - INDEX_HTML.length()), file);
+            }
+        }
+        return new AssetIndex(assets, templates);
+    }
+
+    /**
+     * @param requestPath 쿼리 파라미터를 제외한 요청 경로
+     * @return 색인에 없으면 null
+     */
+    public Asset find(String requestPath) {
+        return assets.get(requestPath);
+    }
+
+    /**
+     * @return 색인에 없으면 null
+     */
+    public Path findTemplate(String templateName) {
+        return templates.get(templateName);
+    }
+
+    /**
+     * 캐시할 수 있는 크기의 정적 파일을 캐시에 읽어 둔다.
+     *
+     * @return 읽어 둔 파일 수
+     */
+    public int warmUp(StaticFileCache staticFileCache) {
+        int preloaded = 0;
+        for (Asset asset : Set.copyOf(assets.values())) { // 디렉토리 경로로도 색인한 파일은 한 번만 읽는다
+            if (staticFileCache.isCacheable(asset.validator()) && staticFileCache.load(asset.file()) != null) {
+                preloaded++;
+            }
+        }
+        return preloaded;
+    }
+
+    /**
+     * 색인한 템플릿을 모두 컴파일해 {@link TemplateCache} 에 넣어 둔다.
+     *
+     * @return 캐시한 템플릿 수
+     */
+    public int compileTemplates(TemplateCache templateCache) {
+        for (Path file : Set.copyOf(templates.values())) { // 디렉토리 이름으로도 색인한 템플릿은 한 번만 컴파일한다
+            templateCache.get(file);
+        }
+        return templateCache.size();
+    }
+
+    private static List<Path> listFiles(Path root) {
+        try (Stream<Path> paths = Files.walk(root)) {
+            return paths.filter(Files::isRegularFile).collect(Collectors.toList());
+        } catch (IOException e) {
+            logger.error("[ASSET INDEX ERROR] {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    /* 'root/img/like.svg' -> '/img/like.svg' */
+    private static String requestPath(Path root, Path file) {
+        StringBuilder requestPath = new StringBuilder();
+        for (Path name : root.relativize(file)) {
+            requestPath.append('/').append(name);
+        }
+        return requestPath.toString();
+    }
+}
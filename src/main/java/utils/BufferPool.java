@@ -0,0 +1,99 @@
+package utils;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 연결의 요청 버퍼와 응답 버퍼로 빌려 쓰는 고정 크기(8KB) byte[] 풀. 요청마다 배열을 새로 만들지 않으므로 트래픽이 늘어도 요청 당 할당이 일정하다.
+ * <p>
+ * 반납한 버퍼는 먼저 반납한 스레드의 캐시(THREAD_CACHE_SIZE 개)에 넣고, 가득 차면 공유 풀에 넣는다. 공유 풀도 MAX_POOLED_BUFFERS 개를 넘으면
+ * 버린다. 빌린 버퍼는 반드시 한 번만 반납해야 하며, 반납한 뒤에는 사용하지 않아야 한다.
+ * <p>
+ * 누수 검사: 빌려 간 뒤 반납하지 않은 버퍼 수는 항상 {@link #outstanding()} 으로 확인할 수 있다. {@code -Dserver.bufferPool.leakDetection=true}
+ * 이면 버퍼를 빌려 간 위치를 기록해 {@link #leaks()} 로 보여주고, 빌려 주지 않은 버퍼나 이미 반납한 버퍼를 반납하면 예외가 발생한다.
+ */
+public final class BufferPool {
+    public static final int BUFFER_SIZE = 8192; // 8KB
+    /* 공유 풀에 보관할 최대 버퍼 수, 스레드마다 캐시할 버퍼 수 */
+    private static final int MAX_POOLED_BUFFERS = Integer.getInteger("server.bufferPool.maxBuffers", 1024);
+    private static final int THREAD_CACHE_SIZE = Integer.getInteger("server.bufferPool.threadCache", 4);
+    private static final boolean LEAK_DETECTION = Boolean.getBoolean("server.bufferPool.leakDetection");
+    private static final BufferPool INSTANCE = new BufferPool();
+
+    private final ConcurrentLinkedQueue<byte[]> pool = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooledCount = new AtomicInteger();
+    private final ThreadLocal<ArrayDeque<byte[]>> threadCache = ThreadLocal.withInitial(ArrayDeque::new);
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final Map<byte[], Throwable> borrowers = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    private BufferPool() {
+    }
+
+    public static BufferPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * BUFFER_SIZE 크기의 버퍼를 빌린다. 내용은 이전에 사용한 값이 남아 있을 수 있다.
+     */
+    public byte[] acquire() {
+        byte[] buffer = threadCache.get().pollLast();
+        if (buffer == null) {
+            buffer = pool.poll();
+            if (buffer != null) {
+                pooledCount.decrementAndGet();
+            } else {
+                buffer = new byte[BUFFER_SIZE];
+            }
+        }
+        outstanding.incrementAndGet();
+        if (LEAK_DETECTION) {
+            borrowers.put(buffer, new Throwable("buffer acquired here"));
+        }
+        return buffer;
+    }
+
+    /**
+     * 빌린 버퍼를 반납한다.
+     *
+     * @throws IllegalStateException 누수 검사 중에 빌려 주지 않은 버퍼나 이미 반납한 버퍼를 반납한 경우
+     */
+    public void release(byte[] buffer) {
+        if (LEAK_DETECTION && borrowers.remove(buffer) == null) {
+            throw new IllegalStateException("buffer is not acquired from this pool or already released");
+        }
+        outstanding.decrementAndGet();
+
+        ArrayDeque<byte[]> cache = threadCache.get();
+        if (cache.size() < THREAD_CACHE_SIZE) {
+            cache.addLast(buffer);
+            return;
+        }
+        if (pooledCount.incrementAndGet() <= MAX_POOLED_BUFFERS) {
+            pool.offer(buffer);
+            return;
+        }
+        pooledCount.decrementAndGet(); // 풀이 가득 참 -> GC 에 맡긴다
+    }
+
+    /**
+     * 빌려 간 뒤 아직 반납하지 않은 버퍼 수
+     */
+    public int outstanding() {
+        return outstanding.get();
+    }
+
+    /**
+     * 아직 반납하지 않은 버퍼를 빌려 간 위치. 누수 검사를 켜지 않았으면 빈 목록
+     */
+    public List<Throwable> leaks() {
+        synchronized (borrowers) {
+            return List.copyOf(borrowers.values());
+        }
+    }
+}
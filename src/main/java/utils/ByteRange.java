@@ -0,0 +1,99 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Range 요청 헤더('bytes=0-99,200-,-500')의 바이트 구간 하나. start, end 모두 포함한다.
+ *
+ * @param start 첫 바이트의 위치
+ * @param end   마지막 바이트의 위치
+ */
+public record ByteRange(long start, long end) {
+    private static final String BYTES_UNIT = "bytes=";
+    private static final int MAX_RANGES = 16; // 이보다 많이 나눠 요청하면 Range 를 무시하고 전체를 보낸다
+
+    public long length() {
+        return end - start + 1;
+    }
+
+    /**
+     * Range 헤더를 파일 크기에 맞춰 해석한다. 끝 위치가 파일 크기를 넘으면 파일 끝까지로 줄이고, 파일 밖에서 시작하는 구간은 뺀다.
+     * <p>
+     * 형식이 잘못되었거나 bytes 단위가 아니면 Range 를 무시해야 하므로 null 을 반환한다 (RFC 7233 3.1). 구간이 너무 많거나, 여러 구간의 합이 파일보다
+     * 커서(겹친 구간으로 같은 바이트를 여러 번 요청) 전체를 보내는 편이 나은 경우도 null 을 반환한다.
+     *
+     * @param range Range 헤더 값
+     * @param size  파일 크기
+     * @return 보낼 구간들. 파일 안의 구간이 하나도 없으면 빈 목록 (416), Range 를 무시해야 하면 null
+     */
+    public static List<ByteRange> parse(CharSequence range, long size) {
+        String value = range.toString();
+        if (!value.regionMatches(true, 0, BYTES_UNIT, 0, BYTES_UNIT.length())) {
+            return null;
+        }
+
+        String[] specs = value.substring(BYTES_UNIT.length()).split(",");
+        if (specs.length > MAX_RANGES) {
+            return null;
+        }
+        List<ByteRange> ranges = new ArrayList<>(specs.length);
+        long total = 0;
+        boolean found = false;
+        for (String spec : specs) {
+            spec = spec.trim();
+            if (spec.isEmpty()) { // 빈 항목은 건너뛴다
+                continue;
+            }
+            int dash = spec.indexOf('-');
+            if (dash < 0) {
+                return null;
+            }
+            found = true;
+
+            long start;
+            long end;
+            if (dash == 0) { // '-500': 마지막 500 바이트
+                long suffixLength = parseNumber(spec.substring(1));
+                if (suffixLength < 0) {
+                    return null;
+                }
+                start = Math.max(0, size - suffixLength);
+                end = suffixLength == 0 ? -1 : size - 1;
+            } else { // '0-99', '200-'
+                boolean openEnded = dash == spec.length() - 1;
+                start = parseNumber(spec.substring(0, dash));
+                long last = openEnded ? size - 1 : parseNumber(spec.substring(dash + 1));
+                if (start < 0 || !openEnded && (last < 0 || last < start)) {
+                    return null;
+                }
+                end = Math.min(last, size - 1);
+            }
+            if (start >= size || end < start) { // 파일 밖의 구간
+                continue;
+            }
+            ByteRange byteRange = new ByteRange(start, end);
+            ranges.add(byteRange);
+            total += byteRange.length();
+        }
+
+        if (!found || ranges.size() > 1 && total > size) {
+            return null;
+        }
+        return ranges;
+    }
+
+    /* 부호 없는 십진수. 아니면 -1 */
+    private static long parseNumber(String digits) {
+        if (digits.isEmpty() || digits.length() > 18) {
+            return -1;
+        }
+        for (int i = 0; i < digits.length(); i++) {
+            char c = digits.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+        }
+        return Long.parseLong(digits);
+    }
+}
@@ -0,0 +1,156 @@
+package utils;
+
+import static http.HttpStatus.STATUS_BAD_REQUEST;
+import static http.HttpStatus.STATUS_PAYLOAD_TOO_LARGE;
+
+/**
+ * Transfer-Encoding: chunked 본문을 받는 대로 디코딩하는 상태 기계. 청크 크기 줄, 청크 확장, 트레일러는 걷어내고 데이터만 남긴다.
+ * <p>
+ * 데이터는 원본을 읽는 위치보다 앞(또는 같은 위치)에 쓰므로 같은 버퍼 안에서 디코딩할 수 있다. 청크 헤더를 바이트 단위로 이어서 파싱하므로 판단을
+ * 미루고 남겨 두는 바이트가 없다.
+ * <p>
+ * 잘못된 청크 헤더는 클라이언트의 잘못이므로 400, 청크 크기의 합이 본문 크기 제한({@link RequestLimits#MAX_BODY_SIZE})을 넘으면 데이터를 받기 전에
+ * 413 으로 거절한다 ({@link RequestRejectedException}).
+ */
+public class ChunkedBodyDecoder {
+    private static final int MAX_CHUNK_SIZE_DIGITS = 8; // 16진수 8자리 = 약 4GB
+
+    private enum State {
+        SIZE, SIZE_EXTENSION, SIZE_LF, DATA, DATA_CR, DATA_LF, TRAILER_LINE_START, TRAILER_LINE, TRAILER_END_LF, DONE
+    }
+
+    private final long maxBodySize;
+    private State state = State.SIZE;
+    private long chunkRemaining = 0;
+    private int sizeDigits = 0;
+    private int decodedLength = 0;
+    private long declaredBodySize = 0; // 지금까지 받은 청크 크기의 합
+
+    public ChunkedBodyDecoder() {
+        this(RequestLimits.MAX_BODY_SIZE);
+    }
+
+    ChunkedBodyDecoder(long maxBodySize) {
+        this.maxBodySize = maxBodySize;
+    }
+
+    /**
+     * buffer[from, to) 의 원본 바이트를 디코딩해 데이터를 buffer[out, ...) 에 쓴다. out 은 from 보다 클 수 없다. 마지막 청크와 트레일러까지
+     * 디코딩하면 멈추고, 그 뒤의 바이트(파이프라이닝된 다음 요청)는 소비하지 않는다.
+     *
+     * @return 소비한 원본 바이트 수. 이번에 쓴 데이터의 길이는 {@link #decodedLength()} 로 확인한다.
+     * @throws RequestRejectedException 청크 헤더가 잘못되었거나(400) 청크 크기의 합이 제한을 넘은 경우(413)
+     */
+    public int decode(byte[] buffer, int from, int to, int out) throws RequestRejectedException {
+        int position = from;
+        int written = out;
+        while (position < to && state != State.DONE) {
+            if (state == State.DATA) { // 데이터는 한 번에 옮긴다
+                int length = (int) Math.min(chunkRemaining, to - position);
+                System.arraycopy(buffer, position, buffer, written, length);
+                position += length;
+                written += length;
+                chunkRemaining -= length;
+                if (chunkRemaining == 0) {
+                    state = State.DATA_CR;
+                }
+                continue;
+            }
+            decodeControl(buffer[position++]);
+        }
+        decodedLength = written - out;
+        return position - from;
+    }
+
+    /**
+     * 마지막 {@link #decode(byte[], int, int, int)} 호출에서 쓴 데이터의 길이
+     */
+    public int decodedLength() {
+        return decodedLength;
+    }
+
+    public boolean isComplete() {
+        return state == State.DONE;
+    }
+
+    private void decodeControl(byte b) throws RequestRejectedException {
+        switch (state) {
+            case SIZE -> {
+                int digit = Character.digit(b, 16);
+                if (digit >= 0) {
+                    if (++sizeDigits > MAX_CHUNK_SIZE_DIGITS) {
+                        throw new RequestRejectedException(STATUS_PAYLOAD_TOO_LARGE, "chunk size over " + maxBodySize);
+                    }
+                    chunkRemaining = chunkRemaining * 16 + digit;
+                } else if (sizeDigits == 0) {
+                    throw badRequest("invalid chunk size");
+                } else if (b == ';' || b == ' ' || b == '\t') {
+                    state = State.SIZE_EXTENSION;
+                } else if (b == '\r') {
+                    state = State.SIZE_LF;
+                } else if (b == '\n') {
+                    endOfSizeLine();
+                } else {
+                    throw badRequest("invalid chunk size");
+                }
+            }
+            case SIZE_EXTENSION -> { // 청크 확장은 무시한다
+                if (b == '\r') {
+                    state = State.SIZE_LF;
+                } else if (b == '\n') {
+                    endOfSizeLine();
+                }
+            }
+            case SIZE_LF -> {
+                if (b != '\n') {
+                    throw badRequest("invalid chunk size line");
+                }
+                endOfSizeLine();
+            }
+            case DATA_CR -> {
+                if (b == '\r') {
+                    state = State.DATA_LF;
+                } else if (b == '\n') {
+                    state = State.SIZE;
+                } else {
+                    throw badRequest("missing CRLF after chunk data");
+                }
+            }
+            case DATA_LF -> {
+                if (b != '\n') {
+                    throw badRequest("missing CRLF after chunk data");
+                }
+                state = State.SIZE;
+            }
+            case TRAILER_LINE_START -> { // 트레일러 헤더는 무시하고 빈 줄까지 넘긴다
+                if (b == '\r') {
+                    state = State.TRAILER_END_LF;
+                } else if (b == '\n') {
+                    state = State.DONE;
+                } else {
+                    state = State.TRAILER_LINE;
+                }
+            }
+            case TRAILER_LINE -> {
+                if (b == '\n') {
+                    state = State.TRAILER_LINE_START;
+                }
+            }
+            case TRAILER_END_LF -> state = b == '\n' ? State.DONE : State.TRAILER_LINE;
+            default -> throw new IllegalStateException(state.name());
+        }
+    }
+
+    private void endOfSizeLine() throws RequestRejectedException {
+        declaredBodySize += chunkRemaining;
+        if (declaredBodySize > maxBodySize) {
+            throw new RequestRejectedException(STATUS_PAYLOAD_TOO_LARGE, "chunked body over " + maxBodySize);
+        }
+        sizeDigits = 0;
+        state = chunkRemaining == 0 ? State.TRAILER_LINE_START : State.DATA;
+    }
+
+    private static RequestRejectedException badRequest(String message) {
+        return new RequestRejectedException(STATUS_BAD_REQUEST, message);
+    }
+}
@@ -0,0 +1,89 @@
+package utils;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * 응답 본문으로 보낼 파일 구간. 파일을 힙에 읽지 않고 {@link FileChannel#transferTo} 로 소켓 채널에 바로 보내므로, 커널이 sendfile 로 페이지
+ * 캐시에서 소켓으로 복사할 수 있다. 논블로킹 채널에는 한 번에 모두 보내지 못할 수 있으므로 보낸 위치를 기억했다가 이어서 보낸다.
+ * <p>
+ * 파일 채널을 소유하며, 전송이 끝나면(또는 보내지 못하고 연결을 닫으면) {@link #close()} 로 닫아야 한다. 한 스레드에서만 사용한다.
+ */
+public class FileRegion implements Closeable {
+    private final FileChannel fileChannel;
+    private final long offset; // 구간이 시작하는 파일 위치
+    private final long count;
+    private long position = 0; // 구간 안에서 보낸 바이트 수
+
+    public FileRegion(FileChannel fileChannel, long count) {
+        this(fileChannel, 0, count);
+    }
+
+    /**
+     * @param offset 구간이 시작하는 파일 위치 (Range 요청)
+     */
+    public FileRegion(FileChannel fileChannel, long offset, long count) {
+        this.fileChannel = fileChannel;
+        this.offset = offset;
+        this.count = count;
+    }
+
+    /**
+     * 남은 구간을 보낼 수 있는 만큼 보낸다.
+     *
+     * @return 이번에 보낸 바이트 수
+     * @throws EOFException 보내는 도중 파일이 줄어든 경우
+     */
+    public long transferTo(WritableByteChannel target) throws IOException {
+        long transferred = fileChannel.transferTo(offset + position, count - position, target);
+        if (transferred == 0 && offset + position >= fileChannel.size()) {
+            throw new EOFException("file is truncated while sending");
+        }
+        position += transferred;
+        return transferred;
+    }
+
+    /**
+     * 블로킹 채널에 남은 구간을 모두 보낸다.
+     */
+    public void transferAll(WritableByteChannel target) throws IOException {
+        while (!isDone()) {
+            transferTo(target);
+        }
+    }
+
+    public boolean isDone() {
+        return position >= count;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    /**
+     * 파일 구간 전체를 읽는다. 보낸 위치는 바꾸지 않는다. (테스트, 스트림으로 확인할 때 사용한다)
+     */
+    public byte[] readAll() throws IOException {
+        byte[] bytes = new byte[Math.toIntExact(count)];
+        ByteBuffer target = ByteBuffer.wrap(bytes);
+        while (target.hasRemaining()) {
+            if (fileChannel.read(target, offset + target.position()) == -1) {
+                throw new EOFException("file is truncated while reading");
+            }
+        }
+        return bytes;
+    }
+
+    @Override
+    public void close() {
+        try {
+            fileChannel.close();
+        } catch (IOException e) {
+            // 읽기 전용 채널이라 닫기 실패로 잃는 데이터는 없다
+        }
+    }
+}
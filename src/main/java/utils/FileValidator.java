@@ -0,0 +1,174 @@
+package utils;
+
+import http.ResponseHeaders;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 정적 파일의 캐시 검증자(ETag, Last-Modified). 파일의 수정 시각과 크기로 강한 ETag('"크기-수정시각"')와 RFC 7231 형식의 Last-Modified 를 한 번
+ * 만들어 파일 경로별로 캐시한다. 요청마다 파일 속성만 읽어 수정 시각이나 크기가 바뀌었을 때만 다시 만든다. 캐시는 MAX_CACHED_FILES 개를 넘으면
+ * 가장 오래 사용하지 않은 경로부터 빼고(LRU), 지워진 파일의 경로는 바로 뺀다.
+ * <p>
+ * 조건부 요청(If-None-Match, If-Modified-Since)이 이 검증자와 맞으면 본문 없이 304 로 응답할 수 있다.
+ */
+public final class FileValidator {
+    private static final int MAX_CACHED_FILES = Integer.getInteger("server.validatorCache.maxEntries", 10_000);
+    private static final ReentrantLock LOCK = new ReentrantLock();
+    private static final Map<Path, FileValidator> CACHE = new LinkedHashMap<>(64, 0.75f, true) { // 사용한 순서
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Path, FileValidator> eldest) {
+            return size() > MAX_CACHED_FILES;
+        }
+    };
+    private static final String ANY_ETAG = "*";
+    private static final String WEAK_PREFIX = "W/";
+
+    private final long lastModifiedMillis;
+    private final long size;
+    private final String etag;
+    private final String lastModified;
+
+    private FileValidator(long lastModifiedMillis, long size) {
+        this.lastModifiedMillis = lastModifiedMillis;
+        this.size = size;
+        this.etag = "\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModifiedMillis) + "\"";
+        this.lastModified = ResponseHeaders.formatHttpDate(Instant.ofEpochMilli(lastModifiedMillis));
+    }
+
+    /**
+     * 파일의 검증자를 찾는다. 캐시한 검증자가 파일의 현재 수정 시각, 크기와 같으면 그대로 반환한다.
+     *
+     * @return 파일이 없거나 속성을 읽을 수 없으면 null
+     */
+    public static FileValidator of(Path file) {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (IOException e) {
+            LOCK.lock();
+            try {
+                CACHE.remove(file);
+            } finally {
+                LOCK.unlock();
+            }
+            return null;
+        }
+        long lastModifiedMillis = attributes.lastModifiedTime().toMillis();
+        long size = attributes.size();
+
+        LOCK.lock();
+        try {
+            FileValidator cached = CACHE.get(file);
+            if (cached != null && cached.lastModifiedMillis == lastModifiedMillis && cached.size == size) {
+                return cached;
+            }
+        } finally {
+            LOCK.unlock();
+        }
+        FileValidator validator = new FileValidator(lastModifiedMillis, size); // 날짜 포맷은 잠그지 않고 만든다
+        LOCK.lock();
+        try {
+            CACHE.put(file, validator);
+        } finally {
+            LOCK.unlock();
+        }
+        return validator;
+    }
+
+    /**
+     * 캐시한 검증자 수
+     */
+    static int cachedFiles() {
+        LOCK.lock();
+        try {
+            return CACHE.size();
+        } finally {
+            LOCK.unlock();
+        }
+    }
+
+    public String etag() {
+        return etag;
+    }
+
+    public String lastModified() {
+        return lastModified;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * If-Range 의 검증자가 이 파일과 같은지 확인한다. 같지 않으면 Range 를 무시하고 전체를 보내야 한다. If-Range 는 강한 비교를 하므로 약한 ETag 는
+     * 같다고 보지 않는다. 날짜는 Last-Modified 와 정확히 같고, 그 시각이 지금보다 1초 이상 전일 때만 강한 검증자로 본다. 같은 초에 파일이 다시 바뀌면
+     * 날짜가 같아도 내용이 다를 수 있기 때문이다 (RFC 9110 13.1.5, 8.8.2.2).
+     *
+     * @param ifRange If-Range 헤더 값. 없으면 빈 문자열
+     * @return 헤더가 없거나 검증자가 같으면 true
+     */
+    public boolean matchesIfRange(CharSequence ifRange) {
+        return matchesIfRange(ifRange, System.currentTimeMillis());
+    }
+
+    boolean matchesIfRange(CharSequence ifRange, long nowMillis) {
+        if (ifRange.isEmpty()) {
+            return true;
+        }
+        String validator = ifRange.toString().trim();
+        if (validator.equals(etag)) {
+            return true;
+        }
+        return validator.equals(lastModified) && lastModifiedMillis / 1000 < nowMillis / 1000;
+    }
+
+    /**
+     * 조건부 요청의 검증자가 이 파일과 같은지 확인한다. If-None-Match 가 있으면 If-Modified-Since 는 보지 않는다 (RFC 7232 3.3).
+     *
+     * @param ifNoneMatch     If-None-Match 헤더 값. 없으면 빈 문자열
+     * @param ifModifiedSince If-Modified-Since 헤더 값. 없으면 빈 문자열
+     * @return true 면 클라이언트가 가진 파일이 최신이므로 304 로 응답할 수 있다
+     */
+    public boolean isNotModified(CharSequence ifNoneMatch, CharSequence ifModifiedSince) {
+        if (!ifNoneMatch.isEmpty()) {
+            return matchesEtag(ifNoneMatch.toString());
+        }
+        if (!ifModifiedSince.isEmpty()) {
+            return isNotModifiedSince(ifModifiedSince.toString());
+        }
+        return false;
+    }
+
+    /* If-None-Match 는 약한 비교를 한다 (RFC 7232 3.2) */
+    private boolean matchesEtag(String ifNoneMatch) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith(WEAK_PREFIX)) {
+                tag = tag.substring(WEAK_PREFIX.length());
+            }
+            if (tag.equals(ANY_ETAG) || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /* HTTP 날짜는 초 단위이므로 수정 시각도 초 단위로 비교한다. 형식이 잘못된 날짜는 무시한다 (RFC 7232 3.3) */
+    private boolean isNotModifiedSince(String ifModifiedSince) {
+        try {
+            long since = ZonedDateTime.parse(ifModifiedSince, DateTimeFormatter.RFC_1123_DATE_TIME).toEpochSecond();
+            return lastModifiedMillis / 1000 <= since;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package utils;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 한 번 파싱해 둔 HTML 템플릿. 템플릿을 '&lt;!-- target 이름 --&gt;' ~ '&lt;!-- end 이름 --&gt;' 로 감싼 자리(slot)와 그 사이의 고정된 텍스트로
+ * 나누고, 고정된 텍스트는 미리 UTF-8 로 인코딩해 둔다. 렌더링할 때는 조각과 자리의 값을 순서대로 쓰기만 하므로, 페이지 전체를 복사하거나 자리를 찾거나
+ * 다시 인코딩하지 않고 출력 크기에 비례하는 시간에 끝난다.
+ * <p>
+ * 값을 준 자리는 감싼 내용을 지우고 값을 시작 주석 앞에 쓴다 ('값&lt;!-- target 이름 --&gt;&lt;!-- end 이름 --&gt;'). 값을 주지 않은 자리는 템플릿
+ * 그대로 쓴다. 만든 뒤에는 바꾸지 않으므로 여러 스레드가 함께 사용한다.
+ */
+public final class HtmlTemplate {
+    private static final String TARGET_PREFIX = "<!-- target ";
+    private static final String END_PREFIX = "<!-- end ";
+    private static final String COMMENT_SUFFIX = " -->";
+
+    private final byte[][] texts; // texts[i] 뒤에 slots[i] 를 쓴다. 마지막 조각 뒤에는 자리가 없다
+    private final Slot[] slots;
+
+    /**
+     * 렌더링한 바이트를 받아 쓸 곳 (응답 버퍼, {@link http.ResponseWriter})
+     */
+    @FunctionalInterface
+    public interface Sink {
+        void write(byte[] bytes, int offset, int length);
+    }
+
+    /**
+     * @param markers  값 뒤에 쓸 시작, 끝 주석
+     * @param original 값을 주지 않았을 때 쓸 템플릿 그대로의 내용 (주석 포함)
+     */
+    private record Slot(String name, byte[] markers, byte[] original) {
+    }
+
+    private HtmlTemplate(byte[][] texts, Slot[] slots) {
+        this.texts = texts;
+        this.slots = slots;
+    }
+
+    /**
+     * 템플릿을 조각과 자리로 나눈다. 끝 주석이 없는 시작 주석은 고정된 텍스트로 본다.
+     */
+    public static HtmlTemplate compile(String html) {
+        List<byte[]> texts = new ArrayList<>();
+        List<Slot> slots = new ArrayList<>();
+        int textStart = 0;
+        int position = 0;
+        while (true) {
+            int target = html.indexOf(TARGET_PREFIX, position);
+            if (target < 0) {
+                break;
+            }
+            int nameEnd = html.indexOf(COMMENT_SUFFIX, target + TARGET_PREFIX.length());
+            if (nameEnd < 0) {
+                break;
+            }
+            String name = html.substring(target + TARGET_PREFIX.length(), nameEnd);
+            String targetMarker = html.substring(target, nameEnd + COMMENT_SUFFIX.length());
+            String endMarker = END_PREFIX + name + COMMENT_SUFFIX;
+            int end = html.indexOf(endMarker, nameEnd);
+            if (end < 0) {
+                position = nameEnd;
+                continue;
+            }
+            int slotEnd = end + endMarker.length();
+
+            texts.add(html.substring(textStart, target).getBytes(UTF_8));
+            slots.add(new Slot(name, (targetMarker + endMarker).getBytes(UTF_8), html.substring(target, slotEnd).getBytes(UTF_8)));
+            textStart = slotEnd;
+            position = slotEnd;
+        }
+        texts.add(html.substring(textStart).getBytes(UTF_8));
+        return new HtmlTemplate(texts.toArray(new byte[0][]), slots.toArray(new Slot[0]));
+    }
+
+    /**
+     * 렌더링한 결과의 바이트 수 (Content-Length)
+     *
+     * @param values 자리 이름 → UTF-8 로 인코딩한 값
+     */
+    public long length(Map<String, byte[]> values) {
+        long length = 0;
+        for (int i = 0; i < slots.length; i++) {
+            length += texts[i].length + slotLength(slots[i], values.get(slots[i].name()));
+        }
+        return length + texts[slots.length].length;
+    }
+
+    /**
+     * 조각과 자리의 값을 순서대로 sink 에 쓴다.
+     *
+     * @param values 자리 이름 → UTF-8 로 인코딩한 값
+     */
+    public void render(Map<String, byte[]> values, Sink sink) {
+        for (int i = 0; i < slots.length; i++) {
+            write(sink, texts[i]);
+            writeSlot(sink, slots[i], values.get(slots[i].name()));
+        }
+        write(sink, texts[slots.length]);
+    }
+
+    /**
+     * streamedSlot 자리의 값은 미리 만들지 않고, 그 자리를 쓸 차례에 slotWriter 가 sink 에 직접 쓴다 (길이를 미리 알 수 없는 표).
+     */
+    public void render(Map<String, byte[]> values, Sink sink, String streamedSlot, Runnable slotWriter) {
+        for (int i = 0; i < slots.length; i++) {
+            write(sink, texts[i]);
+            if (slots[i].name().equals(streamedSlot)) {
+                slotWriter.run();
+                write(sink, slots[i].markers());
+                continue;
+            }
+            writeSlot(sink, slots[i], values.get(slots[i].name()));
+        }
+        write(sink, texts[slots.length]);
+    }
+
+    private static long slotLength(Slot slot, byte[] value) {
+        return value == null ? slot.original().length : value.length + slot.markers().length;
+    }
+
+    private static void writeSlot(Sink sink, Slot slot, byte[] value) {
+        if (value == null) {
+            write(sink, slot.original());
+            return;
+        }
+        write(sink, value);
+        write(sink, slot.markers());
+    }
+
+    private static void write(Sink sink, byte[] bytes) {
+        if (bytes.length > 0) {
+            sink.write(bytes, 0, bytes.length);
+        }
+    }
+}
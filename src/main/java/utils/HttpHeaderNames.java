@@ -0,0 +1,49 @@
+package utils;
+
+/**
+ * 자주 사용하는 요청 헤더 이름. 요청을 파싱할 때 헤더 이름이 아래 중 하나이면 이름 문자열을 새로 만들지 않고 이 상수를 사용하므로, 이 상수로 헤더를 찾으면
+ * 바이트 비교 없이 참조만 비교한다.
+ */
+public final class HttpHeaderNames {
+    public static final AsciiString ACCEPT = AsciiString.of("Accept");
+    public static final AsciiString ACCEPT_ENCODING = AsciiString.of("Accept-Encoding");
+    public static final AsciiString ACCEPT_LANGUAGE = AsciiString.of("Accept-Language");
+    public static final AsciiString CACHE_CONTROL = AsciiString.of("Cache-Control");
+    public static final AsciiString CONNECTION = AsciiString.of("Connection");
+    public static final AsciiString CONTENT_LENGTH = AsciiString.of("Content-Length");
+    public static final AsciiString CONTENT_TYPE = AsciiString.of("Content-Type");
+    public static final AsciiString COOKIE = AsciiString.of("Cookie");
+    public static final AsciiString EXPECT = AsciiString.of("Expect");
+    public static final AsciiString HOST = AsciiString.of("Host");
+    public static final AsciiString IF_MODIFIED_SINCE = AsciiString.of("If-Modified-Since");
+    public static final AsciiString IF_NONE_MATCH = AsciiString.of("If-None-Match");
+    public static final AsciiString IF_RANGE = AsciiString.of("If-Range");
+    public static final AsciiString ORIGIN = AsciiString.of("Origin");
+    public static final AsciiString PRAGMA = AsciiString.of("Pragma");
+    public static final AsciiString RANGE = AsciiString.of("Range");
+    public static final AsciiString REFERER = AsciiString.of("Referer");
+    public static final AsciiString TRANSFER_ENCODING = AsciiString.of("Transfer-Encoding");
+    public static final AsciiString USER_AGENT = AsciiString.of("User-Agent");
+
+    private static final AsciiString[] KNOWN_NAMES = {
+            ACCEPT, ACCEPT_ENCODING, ACCEPT_LANGUAGE, CACHE_CONTROL, CONNECTION, CONTENT_LENGTH, CONTENT_TYPE, COOKIE,
+            EXPECT, HOST, IF_MODIFIED_SINCE, IF_NONE_MATCH, IF_RANGE, ORIGIN, PRAGMA, RANGE, REFERER, TRANSFER_ENCODING, USER_AGENT
+    };
+
+    private HttpHeaderNames() {
+    }
+
+    /**
+     * array[from, from + length) 와 대소문자를 무시하고 같은 상수를 찾는다.
+     *
+     * @return 같은 이름의 상수. 없으면 null
+     */
+    public static AsciiString find(byte[] array, int from, int length) {
+        for (AsciiString name : KNOWN_NAMES) {
+            if (name.length() == length && name.contentEqualsIgnoreCase(array, from, length)) {
+                return name;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,14 @@
+package utils;
+
+/**
+ * 요청을 처리할 때 비교하는 헤더 값
+ */
+public final class HttpHeaderValues {
+    public static final AsciiString CONTINUE = AsciiString.of("100-continue");
+    public static final AsciiString CHUNKED = AsciiString.of("chunked");
+    public static final AsciiString CLOSE = AsciiString.of("close");
+    public static final AsciiString KEEP_ALIVE = AsciiString.of("keep-alive");
+
+    private HttpHeaderValues() {
+    }
+}
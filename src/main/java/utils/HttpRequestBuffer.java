@@ -0,0 +1,374 @@
+package utils;
+
+import static http.HttpStatus.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import http.HttpRequest.MultiPart;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 연결 하나에서 받은 바이트를 모아 두고 HTTP 요청 단위로 잘라 준다. 요청 N 을 잘라낸 뒤 남은 바이트(파이프라이닝된 요청 N+1)는 버리지 않고 다음 요청의
+ * 시작으로 사용한다. 연결 당 하나씩 만들어 한 스레드에서만 사용한다.
+ * <p>
+ * 요청의 경계는 점진적으로 찾는다. 헤더는 이어서 파싱하고, 헤더가 끝나면 Content-Length 는 한 번만 구한 뒤 본문은 새로 받은 바이트만 확인한다.
+ * multipart/form-data 본문은 버퍼에 모으지 않고 받는 대로 {@link MultiPartStreamDecoder} 로 넘겨 소비하므로, 업로드 크기와 관계없이 버퍼에는
+ * 헤더와 마지막으로 읽은 바이트 정도만 남는다.
+ * <p>
+ * Transfer-Encoding: chunked 본문은 받는 대로 {@link ChunkedBodyDecoder} 로 청크 헤더를 걷어내며 헤더 바로 뒤에 이어 붙인다. 잘라낸 요청은
+ * 헤더와 청크를 풀어낸 본문으로 이루어지므로 폼 파라미터는 Content-Length 요청과 같은 방법으로 파싱한다. multipart 본문은 풀어낸 데이터를 바로
+ * {@link MultiPartStreamDecoder} 로 넘긴다.
+ * <p>
+ * 버퍼는 {@link BufferPool} 에서 빌리고, 받은 바이트를 모두 요청으로 잘라내면 바로 반납한다. 다음 요청을 기다리는 keep-alive 연결은 버퍼를 갖고
+ * 있지 않다. 요청이 버퍼보다 크면 더 큰 배열로 옮기고 빌린 버퍼는 반납한다. 연결을 닫을 때는 {@link #release()} 를 호출해야 한다.
+ */
+public class HttpRequestBuffer {
+    private static final Logger logger = LoggerFactory.getLogger(HttpRequestBuffer.class);
+    private static final int MIN_READ_SIZE = 1024; // 한 번 읽을 때 확보할 최소 공간
+    private static final byte[] NO_BUFFER = new byte[0];
+
+    private final BufferPool bufferPool = BufferPool.getInstance();
+    private byte[] buffer = NO_BUFFER;
+    private boolean pooled = false; // buffer 를 BufferPool 에서 빌렸는지
+    private int start = 0; // 아직 요청으로 잘라내지 않은 바이트의 시작 위치
+    private int end = 0; // 받은 바이트의 끝 위치
+
+    /* 잘라내는 중인 요청의 상태. 요청을 잘라내면 초기화한다 */
+    private HttpRequestDecoder decoder = new HttpRequestDecoder();
+    private MultiPartStreamDecoder multiPartDecoder; // multipart 요청이 아니면 null
+    private long bodyRemaining = -1; // 아직 소비하지 않은 multipart 본문 크기. Content-Length 가 없으면 -1
+    private ChunkedBodyDecoder chunkedDecoder; // chunked 요청이 아니면 null
+    private int decodedLength = 0; // 헤더 뒤에 풀어 놓은 chunked 본문의 길이
+    private long bodyReceived = 0; // Content-Length 없이 받은 본문 크기 (chunked 는 풀어낸 크기)
+    private boolean expectationChecked = false; // 'Expect: 100-continue' 를 이미 확인했는지
+
+    /**
+     * 스트림에서 한 번 읽어 버퍼에 추가한다.
+     *
+     * @return 읽은 바이트 수. 스트림이 끝났으면 -1
+     * @throws IOException 읽기 실패, 또는 multipart 파트를 임시 파일에 쓰지 못한 경우
+     */
+    public int readFrom(InputStream in) throws IOException {
+        ensureCapacity(MIN_READ_SIZE);
+        int read = in.read(buffer, end, buffer.length - end);
+        return afterRead(read);
+    }
+
+    /**
+     * 채널에서 한 번 읽어 버퍼에 바로 추가한다. 논블로킹 채널이면 읽을 바이트가 없을 때 0 을 반환한다.
+     *
+     * @return 읽은 바이트 수. 스트림이 끝났으면 -1
+     */
+    public int readFrom(ReadableByteChannel channel) throws IOException {
+        ensureCapacity(MIN_READ_SIZE);
+        int read = channel.read(ByteBuffer.wrap(buffer, end, buffer.length - end));
+        return afterRead(read);
+    }
+
+    public void append(byte[] bytes, int offset, int length) throws IOException {
+        ensureCapacity(length);
+        System.arraycopy(bytes, offset, buffer, end, length);
+        end += length;
+        frameLength();
+        releaseIfEmpty();
+    }
+
+    /**
+     * 버퍼에 완전한 요청이 있으면 잘라서 반환한다. 잘라낸 바이트는 버퍼에서 제거된다.
+     *
+     * @return 요청 하나. 아직 요청을 모두 받지 못했으면 빈 Optional
+     */
+    public Optional<HttpRequestFrame> nextRequest() throws IOException {
+        int length = frameLength();
+        if (length < 0) {
+            return Optional.empty();
+        }
+        byte[] request = Arrays.copyOfRange(buffer, start, start + length);
+        List<MultiPart> parts = multiPartDecoder == null ? null : multiPartDecoder.abort();
+        start += length;
+        resetFrame();
+        releaseIfEmpty();
+        return Optional.of(new HttpRequestFrame(request, parts));
+    }
+
+    /**
+     * 헤더까지 받은 요청이 'Expect: 100-continue' 로 본문을 보내기 전에 응답을 기다리면, 헤더만 잘라 한 번만 반환한다. 요청은 버퍼에서 제거하지
+     * 않으므로 본문을 받으면 {@link #nextRequest()} 로 잘라낸다. 클라이언트가 기다리지 않고 본문을 모두 보냈으면 반환하지 않는다.
+     *
+     * @return 본문을 받기 전에 확인할 요청의 헤더. 확인할 요청이 없으면 빈 Optional
+     */
+    public Optional<HttpRequestFrame> nextExpectation() throws IOException {
+        if (expectationChecked || frameLength() >= 0 || !decoder.isHeaderComplete()) {
+            return Optional.empty();
+        }
+        expectationChecked = true; // 헤더를 모두 받은 뒤 한 번만 확인한다
+        if (!decoder.expectsContinue()) {
+            return Optional.empty();
+        }
+        byte[] header = Arrays.copyOfRange(buffer, start, start + decoder.bodyStart());
+        return Optional.of(new HttpRequestFrame(header, List.of()));
+    }
+
+    public boolean hasCompleteRequest() throws IOException {
+        return frameLength() >= 0;
+    }
+
+    public boolean isEmpty() {
+        return start == end;
+    }
+
+    /**
+     * 남은 바이트를 모두 꺼낸다. 요청 도중 스트림이 끝났을 때 받은 만큼이라도 처리하기 위해 사용한다. multipart 본문은 끝까지 받은 파트만 포함하고,
+     * chunked 본문은 풀어낸 데이터까지만 포함한다.
+     */
+    public HttpRequestFrame drain() {
+        int remainingEnd = chunkedDecoder == null ? end : start + decoder.bodyStart() + decodedLength;
+        byte[] remaining = Arrays.copyOfRange(buffer, start, remainingEnd);
+        List<MultiPart> parts = multiPartDecoder == null ? null : multiPartDecoder.abort();
+        start = end;
+        resetFrame();
+        releaseIfEmpty();
+        return new HttpRequestFrame(remaining, parts);
+    }
+
+    /**
+     * 연결을 닫을 때 호출한다. 남은 바이트를 버리고 버퍼를 반납하며, 받는 중이던 multipart 파트의 임시 파일을 지운다.
+     */
+    public void release() {
+        if (multiPartDecoder != null) {
+            for (MultiPart part : multiPartDecoder.abort()) {
+                deleteTemporaryFile(part);
+            }
+        }
+        start = end;
+        resetFrame();
+        releaseIfEmpty();
+    }
+
+    private int afterRead(int read) throws IOException {
+        if (read > 0) {
+            end += read;
+            frameLength(); // multipart 본문은 받은 즉시 소비한다
+        }
+        releaseIfEmpty(); // multipart 본문을 모두 소비했거나 아무것도 읽지 못한 경우
+        return read;
+    }
+
+    /**
+     * 남은 바이트가 없으면 버퍼를 반납하고, 다음에 받을 때 처음부터 다시 채운다.
+     */
+    private void releaseIfEmpty() {
+        if (start != end) {
+            return;
+        }
+        start = 0;
+        end = 0;
+        if (pooled) {
+            bufferPool.release(buffer);
+            pooled = false;
+        }
+        buffer = NO_BUFFER;
+    }
+
+    private void deleteTemporaryFile(MultiPart part) {
+        if (!part.isInFile()) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(part.file());
+        } catch (IOException e) {
+            logger.error("[HTTP REQUEST BUFFER ERROR] temp file delete fail: {}", e.getMessage());
+        }
+    }
+
+    private void resetFrame() {
+        decoder = new HttpRequestDecoder();
+        multiPartDecoder = null;
+        bodyRemaining = -1;
+        chunkedDecoder = null;
+        decodedLength = 0;
+        bodyReceived = 0;
+        expectationChecked = false;
+    }
+
+    /**
+     * 버퍼 앞부분의 요청 하나의 길이를 구한다. 헤더의 끝(빈 줄)을 찾은 뒤 Content-Length 만큼의 본문이 있는지 확인한다. multipart 요청은 본문을
+     * 받는 대로 소비하고, 본문을 모두 소비하면 헤더의 길이를 반환한다. chunked 요청은 마지막 청크까지 받으면 헤더와 풀어낸 본문의 길이를 반환한다.
+     * 이전 호출에서 확인한 바이트는 다시 훑지 않는다.
+     *
+     * @return 요청 하나의 바이트 길이. 아직 요청을 모두 받지 못했으면 -1
+     * @throws RequestRejectedException 요청이 {@link RequestLimits} 의 제한을 넘은 경우
+     */
+    private int frameLength() throws IOException {
+        boolean headerAlreadyComplete = decoder.isHeaderComplete();
+        boolean headerComplete = decoder.decode(buffer, start, end);
+        if (!headerAlreadyComplete) {
+            checkHeaderSize(headerComplete ? decoder.bodyStart() : end - start);
+        }
+        if (!headerComplete) {
+            return -1;
+        }
+        int bodyStart = decoder.bodyStart();
+        int contentLength = decoder.contentLength();
+
+        if (!headerAlreadyComplete) { // 헤더가 방금 끝났으면 본문을 어떻게 받을지 한 번만 확인한다
+            if (contentLength > RequestLimits.MAX_BODY_SIZE) { // 본문을 받기 전에 거절한다
+                throw new RequestRejectedException(STATUS_PAYLOAD_TOO_LARGE, "Content-Length " + contentLength);
+            }
+            String boundary = decoder.boundary();
+            if (boundary != null) {
+                multiPartDecoder = new MultiPartStreamDecoder(boundary);
+                bodyRemaining = contentLength > 0 ? contentLength : -1;
+            }
+            if (decoder.isChunked()) { // Content-Length 보다 우선한다 (RFC 9112 6.3)
+                chunkedDecoder = new ChunkedBodyDecoder();
+                bodyRemaining = -1;
+            }
+        }
+        if (chunkedDecoder != null) {
+            return decodeChunkedBody(bodyStart) ? bodyStart + decodedLength : -1;
+        }
+        if (multiPartDecoder != null) {
+            return consumeMultiPartBody(bodyStart) ? bodyStart : -1;
+        }
+
+        if (contentLength > 0) {
+            return end - start - bodyStart >= contentLength ? bodyStart + contentLength : -1;
+        }
+        return bodyStart;
+    }
+
+    /**
+     * 새로 받은 chunked 본문을 풀어서 지금까지 풀어낸 본문 뒤에 붙이고, 걷어낸 청크 헤더만큼 뒤의 바이트를 앞으로 당긴다. multipart 요청이면 풀어낸
+     * 데이터를 바로 디코더에 넘겨 소비한다.
+     *
+     * @return 마지막 청크와 트레일러까지 받았으면 true
+     */
+    private boolean decodeChunkedBody(int bodyStart) throws IOException {
+        int decodedEnd = start + bodyStart + decodedLength;
+        int consumed = chunkedDecoder.decode(buffer, decodedEnd, end, decodedEnd);
+        int decoded = chunkedDecoder.decodedLength();
+        remove(decodedEnd + decoded, consumed - decoded);
+        decodedLength += decoded;
+        checkBodySize(decoded);
+
+        if (multiPartDecoder != null) {
+            int bodyOffset = start + bodyStart;
+            int multiPartConsumed = decodedLength; // 종료 경계 뒤의 바이트는 버린다
+            if (!multiPartDecoder.isComplete()) {
+                multiPartConsumed = multiPartDecoder.decode(buffer, bodyOffset, decodedLength);
+            }
+            if (chunkedDecoder.isComplete()) { // 종료 경계 없이 끝난 본문의 나머지도 버린다
+                multiPartConsumed = decodedLength;
+            }
+            remove(bodyOffset, multiPartConsumed);
+            decodedLength -= multiPartConsumed;
+        }
+        return chunkedDecoder.isComplete();
+    }
+
+    /**
+     * 받은 multipart 본문을 디코더에 넘기고, 소비한 바이트를 버퍼에서 지운다. 헤더는 그대로 두므로 디코더가 기록한 헤더 위치는 바뀌지 않는다.
+     *
+     * @return 본문을 모두 소비했으면 true
+     */
+    private boolean consumeMultiPartBody(int bodyStart) throws IOException {
+        int bodyOffset = start + bodyStart;
+        int available = end - bodyOffset;
+        int limit = bodyRemaining >= 0 ? (int) Math.min(available, bodyRemaining) : available;
+
+        int consumed = 0;
+        if (!multiPartDecoder.isComplete()) {
+            consumed = multiPartDecoder.decode(buffer, bodyOffset, limit);
+        }
+        /* Content-Length 가 있으면 종료 경계 뒤의 바이트나, 종료 경계 없이 끝난 본문의 나머지도 이 요청의 본문으로 버린다 */
+        if (bodyRemaining >= 0 && (multiPartDecoder.isComplete() || limit == bodyRemaining)) {
+            consumed = limit;
+        }
+
+        remove(bodyOffset, consumed);
+        if (bodyRemaining < 0) {
+            checkBodySize(consumed);
+        }
+        if (bodyRemaining >= 0) {
+            bodyRemaining -= consumed;
+            return bodyRemaining == 0;
+        }
+        return multiPartDecoder.isComplete();
+    }
+
+    /**
+     * 헤더를 받는 동안 요청 라인, 헤더 영역, 헤더 수가 제한을 넘는지 확인한다. 제한을 넘으면 헤더를 끝까지 받기 전에 거절한다.
+     *
+     * @param headerLength 지금까지 받은 헤더(요청 라인 포함)의 길이
+     */
+    private void checkHeaderSize(int headerLength) throws RequestRejectedException {
+        int requestLineEnd = decoder.requestLineEnd();
+        int requestLineLength = requestLineEnd < 0 ? headerLength : requestLineEnd;
+        if (requestLineLength > RequestLimits.MAX_REQUEST_LINE_SIZE) {
+            throw new RequestRejectedException(STATUS_URI_TOO_LONG, "request line " + requestLineLength + " bytes");
+        }
+        if (headerLength - requestLineLength > RequestLimits.MAX_HEADER_SIZE) {
+            throw new RequestRejectedException(STATUS_REQUEST_HEADER_FIELDS_TOO_LARGE,
+                    "header " + (headerLength - requestLineLength) + " bytes");
+        }
+        if (decoder.headerCount() > RequestLimits.MAX_HEADER_COUNT) {
+            throw new RequestRejectedException(STATUS_REQUEST_HEADER_FIELDS_TOO_LARGE,
+                    decoder.headerCount() + " headers");
+        }
+    }
+
+    /**
+     * Content-Length 없이 받는 본문(chunked, multipart)이 제한을 넘는지 확인한다.
+     */
+    private void checkBodySize(int received) throws RequestRejectedException {
+        bodyReceived += received;
+        if (bodyReceived > RequestLimits.MAX_BODY_SIZE) {
+            throw new RequestRejectedException(STATUS_PAYLOAD_TOO_LARGE, "body over " + RequestLimits.MAX_BODY_SIZE);
+        }
+    }
+
+    /**
+     * buffer[from, from + length) 를 지우고 뒤의 바이트를 앞으로 당긴다.
+     */
+    private void remove(int from, int length) {
+        if (length == 0) {
+            return;
+        }
+        System.arraycopy(buffer, from + length, buffer, from, end - from - length);
+        end -= length;
+    }
+
+    private void ensureCapacity(int required) {
+        if (buffer.length - end >= required) {
+            return;
+        }
+        if (buffer == NO_BUFFER && required <= BufferPool.BUFFER_SIZE) {
+            buffer = bufferPool.acquire();
+            pooled = true;
+            return;
+        }
+        /* 앞쪽의 이미 잘라낸 공간을 재사용하고, 그래도 부족하면 늘린다 */
+        int remaining = end - start;
+        if (remaining + required <= buffer.length) {
+            System.arraycopy(buffer, start, buffer, 0, remaining);
+        } else {
+            byte[] target = new byte[Math.max(buffer.length * 2, remaining + required)];
+            System.arraycopy(buffer, start, target, 0, remaining);
+            if (pooled) {
+                bufferPool.release(buffer);
+                pooled = false;
+            }
+            buffer = target;
+        }
+        start = 0;
+        end = remaining;
+    }
+}
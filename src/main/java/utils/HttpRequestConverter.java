@@ -1,129 +1,211 @@
 package utils;
 
-import static java.nio.charset.StandardCharsets.ISO_8859_1;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static http.HttpRequest.*;
-import static utils.HttpConstant.*;
-import static utils.HttpRequestParser.*;
 
 import http.Cookie;
 import http.HttpRequest;
 import http.HttpRequestBuilder;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URLDecoder;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.function.Predicate;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class HttpRequestConverter {
     private static final Logger logger = LoggerFactory.getLogger(HttpRequestConverter.class);
-    private static final Predicate<String> CHECK_ALL_CONTENT_RECEIVED = request -> parseRequestBody(request).length()
-            == parseContentLength(request);
-    private static final Predicate<String> CHECK_END_OF_BOUNDARY = request -> request.endsWith("--" + CRLF);
-    private static final HttpRequestBuilder REQUEST_BUILDER = new HttpRequestBuilder();
+    private static final String DEFAULT_URI = "/";
+    private static final String DEFAULT_VERSION = "HTTP/1.1";
+    private static final HttpVersion[] VERSIONS = {new HttpVersion(DEFAULT_VERSION), new HttpVersion("HTTP/1.0")};
+    private static final HttpMethod[] METHODS = HttpMethod.values();
+    /* 큰 multipart 본문을 나눠 파싱할 공유 스레드 수(0 이면 사용하지 않음), 나눠 파싱할 최소 요청 크기, 대기 작업 수 */
+    private static final int PARSE_THREADS = Integer.getInteger("server.parse.threads", 2);
+    private static final int PARSE_OFFLOAD_THRESHOLD = Integer.getInteger("server.parse.offloadThreshold", 1024 * 1024);
+    private static final int PARSE_QUEUE_SIZE = 64;
 
     public static HttpRequest convertToHttpRequest(InputStream in) {
-        try (ByteArrayOutputStream bos = new ByteArrayOutputStream()) {
+        HttpRequestBuffer requestBuffer = new HttpRequestBuffer();
+        try {
             /* request 전부 읽기 */
-            readBytes(in, bos);
-
-            /* 4가지 파싱 작업을 시킬 스레드 풀 생성 */
-            ExecutorService executorPool = Executors.newFixedThreadPool(4);
-
-            /* 비동기 파싱 객체 생성 */
-            CompletableFuture<String> requestLineFuture = CompletableFuture.supplyAsync(
-                    () -> decode(parseRequestLine(bos.toString(UTF_8))), executorPool);
-
-            CompletableFuture<Map<String, String>> requestHeaderFuture = CompletableFuture.supplyAsync(
-                    () -> parseHeader(bos.toString(UTF_8)), executorPool);
-
-            CompletableFuture<String> requestBodyFuture = CompletableFuture.supplyAsync(
-                    () -> decode(parseRequestBody(bos.toString(UTF_8))), executorPool);
-
-            CompletableFuture<List<MultiPart>> multiPartFuture = CompletableFuture.supplyAsync(
-                    () -> parseMultiPart(bos.toString(ISO_8859_1)), executorPool);
-
-            /* 비동기 파싱 실행 */
-            CompletableFuture.allOf(requestLineFuture, requestHeaderFuture, requestBodyFuture, multiPartFuture).join();
-
-            /* 파싱 결과 -> 비동기 빌드 */
-            CompletableFuture<Void> buildFuture = buildHttpRequest(requestLineFuture, requestBodyFuture,
-                    requestHeaderFuture, multiPartFuture);
-
-            buildFuture.join();
-
-            buildFuture.thenRun(executorPool::shutdown);
+            Optional<HttpRequest> request = readHttpRequest(in, requestBuffer);
+            if (request.isPresent()) {
+                requestBuffer.release(); // 요청 하나만 변환하므로 뒤에 이어서 받은 바이트는 버린다
+                return request.get();
+            }
         } catch (IOException e) {
             logger.error("[REQUEST CONVERTER ERROR] {}", e.getMessage());
         }
 
-        return REQUEST_BUILDER.build();
+        try {
+            return convertToHttpRequest(requestBuffer.drain());
+        } finally {
+            requestBuffer.release();
+        }
     }
 
-    private static CompletableFuture<Void> buildHttpRequest(CompletableFuture<String> requestLineFuture,
-                                                            CompletableFuture<String> requestBodyFuture,
-                                                            CompletableFuture<Map<String, String>> requestHeaderFuture,
-                                                            CompletableFuture<List<MultiPart>> multiPartFuture) {
-        /* 파싱 후 HttpRequestBuilder 작업 생성 */
-        CompletableFuture<Void> methodBuilder = requestLineFuture.thenAccept(
-                requestLine -> REQUEST_BUILDER.setMethod(parseMethod(requestLine)));
-
-        CompletableFuture<Void> uriBuilder = requestLineFuture.thenAccept(
-                requestLine -> REQUEST_BUILDER.setRequestURI(parseUri(requestLine)));
-
-        CompletableFuture<Void> versionBuilder = requestLineFuture.thenAccept(
-                requestLine -> REQUEST_BUILDER.setHttpVersion(parseVersion(requestLine)));
+    /**
+     * 연결의 요청 버퍼에서 HTTP 요청 하나를 꺼내 HttpRequest 로 변환한다. 버퍼에 완전한 요청이 없으면 스트림에서 더 읽는다. 요청 뒤에 이어서 받은
+     * 바이트(파이프라이닝된 다음 요청)는 버퍼에 남겨 둔다.
+     *
+     * @param in            소켓 입력 스트림
+     * @param requestBuffer 연결 당 하나인 요청 버퍼
+     * @return 변환한 HttpRequest. 요청을 읽기 전에 스트림이 끝나면(클라이언트가 연결을 닫으면) 빈 Optional 을 반환한다.
+     * @throws IOException 읽기 실패 또는 유휴 시간 초과(SocketTimeoutException)
+     * @throws RequestRejectedException 요청이 {@link RequestLimits} 의 제한을 넘은 경우
+     */
+    public static Optional<HttpRequest> readHttpRequest(InputStream in, HttpRequestBuffer requestBuffer)
+            throws IOException {
+        return readHttpRequest(in, requestBuffer, header -> {
+        });
+    }
 
-        CompletableFuture<Void> paramsBuilder = requestLineFuture.thenAcceptBoth(requestBodyFuture,
-                (requestLine, requestBody) -> REQUEST_BUILDER.setParameter(
-                        parseParams(requestLine + NEWLINE + requestBody)));
+    /**
+     * {@link #readHttpRequest(InputStream, HttpRequestBuffer)} 와 같지만, 'Expect: 100-continue' 요청은 본문을 읽기 전에 헤더만 변환한
+     * HttpRequest 로 expectationHandler 를 먼저 호출한다.
+     *
+     * @param expectationHandler 100 Continue 를 보내거나, RequestRejectedException 을 던져 본문을 받기 전에 거절한다
+     */
+    public static Optional<HttpRequest> readHttpRequest(InputStream in, HttpRequestBuffer requestBuffer,
+                                                        ExpectationHandler expectationHandler) throws IOException {
+        Optional<HttpRequestFrame> rawRequest;
+        while ((rawRequest = requestBuffer.nextRequest()).isEmpty()) {
+            Optional<HttpRequestFrame> expectation = requestBuffer.nextExpectation();
+            if (expectation.isPresent()) {
+                expectationHandler.handle(convertToHttpRequest(expectation.get()));
+            }
+            if (requestBuffer.readFrom(in) == -1) {
+                /* 요청 도중 스트림이 끝나면 받은 만큼만 변환한다 */
+                return requestBuffer.isEmpty() ? Optional.empty()
+                        : Optional.of(convertToHttpRequest(requestBuffer.drain()));
+            }
+        }
+        return rawRequest.map(HttpRequestConverter::convertToHttpRequest);
+    }
 
-        CompletableFuture<Void> headerBuilder = requestHeaderFuture.thenAccept(REQUEST_BUILDER::setHeaders);
+    /**
+     * 연결에서 잘라낸 요청 하나를 HttpRequest 로 변환한다. 받는 동안 이미 나눈 multipart 파트가 있으면 본문을 다시 파싱하지 않는다.
+     */
+    public static HttpRequest convertToHttpRequest(HttpRequestFrame frame) {
+        return convert(frame.bytes(), frame.parts());
+    }
 
-        CompletableFuture<Void> cookieBuilder = requestHeaderFuture.thenAccept(
-                header -> REQUEST_BUILDER.setCookies(extractCookies(header)));
+    /**
+     * 요청 바이트 하나를 HttpRequest 로 변환한다. 빌더는 요청마다 새로 만들어 호출한 스레드에서만 사용한다. PARSE_OFFLOAD_THRESHOLD 이상인
+     * multipart 요청은 공유 파싱 스레드 풀에서 파트를 나누는 동안 호출한 스레드가 요청을 처리하다 파트를 처음 사용할 때 기다린다.
+     */
+    public static HttpRequest convertToHttpRequest(byte[] rawRequest) {
+        return convert(rawRequest, null);
+    }
 
-        CompletableFuture<Void> partsBuilder = multiPartFuture.thenAccept(REQUEST_BUILDER::setParts);
+    private static HttpRequest convert(byte[] rawRequest, List<MultiPart> streamedParts) {
+        /* 요청 바이트를 한 번 훑어 각 요소의 위치만 기록한다 */
+        HttpRequestDecoder decoder = new HttpRequestDecoder();
+        decoder.decode(rawRequest, 0, rawRequest.length);
+        int end = rawRequest.length;
+
+        /* 큰 multipart 본문은 파싱 스레드 풀에 먼저 넘긴다 */
+        CompletableFuture<List<MultiPart>> partsFuture = null;
+        if (streamedParts == null && PARSE_THREADS > 0 && end >= PARSE_OFFLOAD_THRESHOLD
+                && decoder.boundary() != null) {
+            partsFuture = CompletableFuture.supplyAsync(() -> decoder.parts(end), ParseExecutorHolder.EXECUTOR);
+        }
 
-        /* 비동기 빌드 Future 객체 전체 반환 */
-        return CompletableFuture.allOf(methodBuilder, uriBuilder, versionBuilder, paramsBuilder, headerBuilder,
-                cookieBuilder, partsBuilder);
+        /* 요청 라인의 uri 만 바로 문자열로 만든다. 헤더는 요청 바이트를 가리키는 값으로 찾고, 나머지는 처음 사용할 때 파싱한다 */
+        HttpRequestBuilder requestBuilder = new HttpRequestBuilder()
+                .setMethod(toMethod(decoder.methodView()))
+                .setRequestURI(new HttpRequestUri(decode(decoder.uri())))
+                .setHttpVersion(toVersion(decoder.versionView()))
+                .setHeaders(decoder::header)
+                .setParameter(() -> decoder.parameters(end))
+                .setCookies(() -> extractCookies(decoder));
+
+        if (streamedParts != null) { // 받는 동안 나눈 파트는 만든 값으로 넘겨 읽지 않아도 임시 파일을 지운다
+            return requestBuilder.setParts(streamedParts).build();
+        }
+        if (partsFuture != null) {
+            return requestBuilder.setParts(partsFuture::join).build();
+        }
+        return requestBuilder.setParts(() -> decoder.parts(end)).build();
     }
 
-    private static void readBytes(InputStream in, ByteArrayOutputStream bos) throws IOException {
-        byte[] buffer = new byte[8192]; // 8KB (InputStream 의 DEFAULT_BUFFER_SIZE)
-        int bytesRead;
-        while ((bytesRead = in.read(buffer)) != -1) {
-            /* 버퍼 만큼 읽기 */
-            bos.write(buffer, 0, bytesRead);
-
-            /* 읽은 만큼 문자열로 변환 */
-            String request = bos.toString(UTF_8);
+    /**
+     * 'Expect: 100-continue' 요청의 본문을 받기 전에 헤더만으로 요청을 받을지 정한다.
+     */
+    @FunctionalInterface
+    public interface ExpectationHandler {
+        /**
+         * @param header 헤더만 변환한 요청 (본문, 파라미터, 파트는 비어 있다)
+         * @throws RequestRejectedException 본문을 받지 않고 거절하는 경우
+         */
+        void handle(HttpRequest header) throws IOException;
+    }
 
-            /* 탈출 조건: multipart/form-data EOL 확인 -> Content-Length 만큼 읽었는지 확인 */
-            if (CHECK_END_OF_BOUNDARY.or(CHECK_ALL_CONTENT_RECEIVED).test(request)) {
-                break;
+    /**
+     * 요청 라인의 method 를 HttpMethod 로 변환한다. 지원하지 않는 method 는 GET 으로 처리한다.
+     */
+    private static HttpMethod toMethod(AsciiString method) {
+        for (HttpMethod httpMethod : METHODS) {
+            if (method.contentEquals(httpMethod.name)) {
+                return httpMethod;
             }
         }
+        return HttpMethod.GET;
     }
 
-    private static String decode(String request) {
-        return URLDecoder.decode(request, UTF_8);
+    /**
+     * 자주 사용하는 버전은 상수를 사용한다. 요청 라인에 버전이 없으면 HTTP/1.1 로 처리한다.
+     */
+    private static HttpVersion toVersion(AsciiString version) {
+        if (version.isEmpty()) {
+            return VERSIONS[0];
+        }
+        for (HttpVersion httpVersion : VERSIONS) {
+            if (version.contentEquals(httpVersion.version())) {
+                return httpVersion;
+            }
+        }
+        return new HttpVersion(version.toString());
     }
 
-    private static List<Cookie> extractCookies(Map<String, String> headers) {
-        String cookies = headers.get("Cookie");
-        Map<String, String> cookieMap = parseParams(cookies);
+    private static String decode(String uri) {
+        if (uri.isEmpty()) {
+            return DEFAULT_URI;
+        }
+        return URLDecoder.decode(uri, UTF_8);
+    }
 
-        return cookieMap.entrySet().stream()
+    private static List<Cookie> extractCookies(HttpRequestDecoder decoder) {
+        return decoder.cookies().entrySet().stream()
                 .map(entry -> new Cookie(entry.getKey(), entry.getValue()))
                 .toList();
     }
+
+    /**
+     * 큰 요청 본문 파싱용 공유 스레드 풀. 처음 사용할 때 만들며, 작업 큐가 가득 차면 호출한 스레드가 직접 파싱한다.
+     */
+    private static class ParseExecutorHolder {
+        private static final ExecutorService EXECUTOR = createParseExecutor();
+
+        private static ExecutorService createParseExecutor() {
+            AtomicInteger threadNumber = new AtomicInteger();
+            ThreadFactory threadFactory = runnable -> {
+                Thread thread = new Thread(runnable, "request-parser-" + threadNumber.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            };
+            return new ThreadPoolExecutor(PARSE_THREADS, PARSE_THREADS, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(PARSE_QUEUE_SIZE), threadFactory, new CallerRunsPolicy());
+        }
+    }
 }
@@ -0,0 +1,571 @@
+package utils;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import http.HttpRequest.MultiPart;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * HTTP 요청 바이트를 처음부터 끝까지 한 번만 훑는 상태 기계 파서. 파싱 결과(method, uri, version, 헤더 이름/값, 본문 시작)는 문자열이 아니라 요청
+ * 시작 위치 기준 offset 으로 보관하고, 값이 필요할 때 해당 구간만 문자열로 만든다.
+ * <p>
+ * 요청을 나눠 받는 경우 같은 버퍼로 {@link #decode(byte[], int, int)} 를 다시 호출하면 마지막으로 훑은 위치부터 이어서 파싱한다. 줄 끝은 CRLF 와
+ * LF 를 모두 허용하며, 헤더 영역은 CRLF 로 된 빈 줄에서 끝난다 (LF 만 있는 빈 줄은 무시한다).
+ */
+public class HttpRequestDecoder {
+    private static final byte SP = ' ';
+    private static final byte HTAB = '\t';
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+    private static final byte COLON = ':';
+    private static final byte QUESTION = '?';
+    private static final byte[] CONTENT_TYPE = "content-type".getBytes(ISO_8859_1);
+    private static final byte[] CONTENT_DISPOSITION = "content-disposition".getBytes(ISO_8859_1);
+    private static final byte[] BOUNDARY = "boundary=".getBytes(ISO_8859_1);
+    private static final byte[] NAME = "name=\"".getBytes(ISO_8859_1);
+    private static final byte[] FILENAME = "filename=\"".getBytes(ISO_8859_1);
+
+    private enum State {
+        METHOD, URI, VERSION, LINE_CR, HEADER_LINE_START, HEADER_NAME, HEADER_VALUE_START, HEADER_VALUE, HEADER_END_CR,
+        BODY
+    }
+
+    private byte[] buffer;
+    private int start; // 요청의 시작 위치. 아래의 모든 offset 은 start 기준
+    private State state = State.METHOD;
+    private int position = 0; // 다음에 훑을 위치
+
+    private int methodStart = 0;
+    private int methodEnd = -1;
+    private int uriStart = -1;
+    private int uriEnd = -1;
+    private int queryStart = -1; // '?' 다음 위치
+    private int versionStart = -1;
+    private int versionEnd = -1;
+
+    private int[] headerOffsets = new int[16 * 4]; // 헤더 하나 당 nameStart, nameEnd, valueStart, valueEnd
+    private AsciiString[] headerNames = new AsciiString[16]; // 자주 사용하는 헤더 이름이면 HttpHeaderNames 의 상수
+    private AsciiString[] headerValues = new AsciiString[16]; // 찾아 본 헤더 값. 배열을 옮기면 버린다
+    private int headerCount = 0;
+    private int nameStart;
+    private int nameEnd;
+    private int valueStart;
+    private int contentTypeIndex = -1;
+    private int cookieIndex = -1;
+    private int contentLength = 0;
+    private boolean chunked = false;
+    private int bodyStart = -1;
+
+    /**
+     * buffer[start, end) 를 요청 하나로 보고 이전에 훑은 위치부터 이어서 파싱한다. 헤더 영역을 모두 파싱하면 멈추며 본문은 훑지 않는다.
+     *
+     * @return 헤더 영역의 끝(빈 줄)까지 파싱했으면 true
+     */
+    public boolean decode(byte[] buffer, int start, int end) {
+        if (buffer != this.buffer || start != this.start) { // 찾아 둔 헤더 값은 옮기기 전의 배열을 가리킨다
+            Arrays.fill(headerValues, 0, headerCount, null);
+        }
+        this.buffer = buffer;
+        this.start = start;
+
+        int length = end - start;
+        while (position < length && state != State.BODY) {
+            byte b = buffer[start + position];
+            switch (state) {
+                case METHOD -> {
+                    if (b == SP) {
+                        methodEnd = position;
+                        uriStart = position + 1;
+                        state = State.URI;
+                    } else if ((b == CR || b == LF) && position == methodStart) {
+                        methodStart++; // 요청 앞의 빈 줄은 무시한다
+                    }
+                }
+                case URI -> {
+                    if (b == SP) {
+                        uriEnd = position;
+                        versionStart = position + 1;
+                        state = State.VERSION;
+                    } else if (b == QUESTION && queryStart < 0) {
+                        queryStart = position + 1;
+                    } else if (b == CR || b == LF) {
+                        uriEnd = position;
+                        versionStart = position;
+                        versionEnd = position;
+                        state = endOfLine(b);
+                    }
+                }
+                case VERSION -> {
+                    if (b == CR || b == LF) {
+                        versionEnd = position;
+                        state = endOfLine(b);
+                    }
+                }
+                case LINE_CR -> {
+                    state = State.HEADER_LINE_START;
+                    if (b != LF) {
+                        continue; // CR 만 있는 줄 끝: 현재 바이트를 다음 줄의 시작으로 다시 처리한다
+                    }
+                }
+                case HEADER_LINE_START -> {
+                    if (b == CR) {
+                        state = State.HEADER_END_CR;
+                    } else if (b != LF) {
+                        nameStart = position;
+                        state = State.HEADER_NAME;
+                    }
+                }
+                case HEADER_NAME -> {
+                    if (b == COLON) {
+                        nameEnd = position;
+                        state = State.HEADER_VALUE_START;
+                    } else if (b == CR || b == LF) {
+                        state = endOfLine(b); // ':' 가 없는 줄은 무시한다
+                    }
+                }
+                case HEADER_VALUE_START -> {
+                    if (b == CR || b == LF) {
+                        addHeader(position, position);
+                        state = endOfLine(b);
+                    } else if (b != SP && b != HTAB) {
+                        valueStart = position;
+                        state = State.HEADER_VALUE;
+                    }
+                }
+                case HEADER_VALUE -> {
+                    if (b == CR || b == LF) {
+                        addHeader(valueStart, trimEnd(valueStart, position));
+                        state = endOfLine(b);
+                    }
+                }
+                case HEADER_END_CR -> {
+                    if (b == LF) {
+                        bodyStart = position + 1;
+                        state = State.BODY;
+                    } else {
+                        nameStart = position;
+                        state = State.HEADER_NAME;
+                    }
+                }
+                default -> throw new IllegalStateException(state.name());
+            }
+            position++;
+        }
+        return state == State.BODY;
+    }
+
+    public boolean isHeaderComplete() {
+        return state == State.BODY;
+    }
+
+    /**
+     * 요청 시작 위치 기준 요청 라인의 끝(줄 끝 문자 앞). 요청 라인을 끝까지 받지 못했으면 -1
+     */
+    public int requestLineEnd() {
+        return versionEnd;
+    }
+
+    /**
+     * 요청 시작 위치 기준 본문의 시작 위치. 헤더 영역을 모두 파싱하지 못했으면 -1
+     */
+    public int bodyStart() {
+        return bodyStart;
+    }
+
+    /**
+     * Content-Length 헤더의 값. 없거나 숫자가 아니면 0
+     */
+    public int contentLength() {
+        return contentLength;
+    }
+
+    /**
+     * Transfer-Encoding 의 마지막 코딩이 chunked 이면 true. 이 경우 Content-Length 는 무시한다
+     */
+    public boolean isChunked() {
+        return chunked;
+    }
+
+    public String method() {
+        return methodEnd < 0 ? "" : ascii(methodStart, methodEnd);
+    }
+
+    /**
+     * 디코딩하지 않은 요청 URI (쿼리 포함). 요청 라인을 끝까지 받지 못했으면 빈 문자열
+     */
+    public String uri() {
+        return uriEnd < 0 ? "" : ascii(uriStart, uriEnd);
+    }
+
+    public String version() {
+        return versionEnd < 0 ? "" : ascii(versionStart, versionEnd);
+    }
+
+    public int headerCount() {
+        return headerCount;
+    }
+
+    public String headerName(int index) {
+        return ascii(headerOffsets[index * 4], headerOffsets[index * 4 + 1]);
+    }
+
+    public String headerValue(int index) {
+        return utf8(headerOffsets[index * 4 + 2], headerOffsets[index * 4 + 3]);
+    }
+
+    /**
+     * 이름이 같은(대소문자 무시) 첫 번째 헤더의 값을 찾는다. 헤더 맵이나 문자열을 만들지 않고, 요청 바이트를 가리키는 값을 처음 찾을 때 한 번만
+     * 만든다. {@link HttpHeaderNames} 의 상수로 찾으면 참조만 비교한다.
+     *
+     * @return 헤더 값. 없으면 {@link AsciiString#EMPTY}
+     */
+    public AsciiString header(AsciiString headerName) {
+        for (int i = 0; i < headerCount; i++) {
+            AsciiString knownName = headerNames[i];
+            boolean matches = knownName != null ? knownName.contentEqualsIgnoreCase(headerName)
+                    : headerName.contentEqualsIgnoreCase(buffer, start + headerOffsets[i * 4],
+                            headerOffsets[i * 4 + 1] - headerOffsets[i * 4]);
+            if (matches) {
+                if (headerValues[i] == null) {
+                    headerValues[i] = view(headerOffsets[i * 4 + 2], headerOffsets[i * 4 + 3]);
+                }
+                return headerValues[i];
+            }
+        }
+        return AsciiString.EMPTY;
+    }
+
+    /**
+     * 'Expect: 100-continue' 요청인지 확인한다. HTTP/1.0 클라이언트에는 100 Continue 를 보내지 않으므로 false
+     */
+    public boolean expectsContinue() {
+        return header(HttpHeaderNames.EXPECT).contentEqualsIgnoreCase(HttpHeaderValues.CONTINUE)
+                && !versionView().contentEquals("HTTP/1.0");
+    }
+
+    /**
+     * 요청 라인의 method 를 가리킨다. 문자열을 만들지 않고 비교할 때 사용한다.
+     */
+    public AsciiString methodView() {
+        return methodEnd < 0 ? AsciiString.EMPTY : view(methodStart, methodEnd);
+    }
+
+    public AsciiString versionView() {
+        return versionEnd < 0 ? AsciiString.EMPTY : view(versionStart, versionEnd);
+    }
+
+    public Map<String, String> headers() {
+        Map<String, String> headers = new HashMap<>();
+        for (int i = 0; i < headerCount; i++) {
+            headers.put(headerName(i), headerValue(i));
+        }
+        return Collections.unmodifiableMap(headers);
+    }
+
+    /**
+     * Content-Type 헤더의 multipart boundary. multipart 요청이 아니면 null
+     */
+    public String boundary() {
+        if (contentTypeIndex < 0) {
+            return null;
+        }
+        int contentTypeStart = headerOffsets[contentTypeIndex * 4 + 2];
+        int contentTypeEnd = headerOffsets[contentTypeIndex * 4 + 3];
+        int boundaryStart = indexOfIgnoreCase(BOUNDARY, contentTypeStart, contentTypeEnd);
+        if (boundaryStart < 0) {
+            return null;
+        }
+        int from = boundaryStart + BOUNDARY.length;
+        int to = from;
+        while (to < contentTypeEnd && byteAt(to) != ';' && byteAt(to) != SP) {
+            to++;
+        }
+        if (to - from >= 2 && byteAt(from) == '"' && byteAt(to - 1) == '"') { // boundary="..."
+            from++;
+            to--;
+        }
+        return to > from ? ascii(from, to) : null;
+    }
+
+    /**
+     * 쿼리 파라미터와 (multipart 가 아닌) 본문의 폼 파라미터를 key/value 로 나눈 뒤 각각 URL 디코딩한다.
+     *
+     * @param end 요청 시작 위치 기준 요청의 끝 위치
+     */
+    public Map<String, String> parameters(int end) {
+        Map<String, String> parameters = new HashMap<>();
+        if (queryStart >= 0 && uriEnd >= queryStart) {
+            splitPairs(queryStart, uriEnd, (byte) '&', parameters);
+        }
+        if (bodyStart >= 0 && end > bodyStart && boundary() == null) {
+            splitPairs(bodyStart, end, (byte) '&', parameters);
+        }
+        return Collections.unmodifiableMap(parameters);
+    }
+
+    /**
+     * Cookie 헤더를 ';' 로 나눠 쿠키 이름/값으로 반환한다.
+     */
+    public Map<String, String> cookies() {
+        Map<String, String> cookies = new HashMap<>();
+        if (cookieIndex >= 0) {
+            splitPairs(headerOffsets[cookieIndex * 4 + 2], headerOffsets[cookieIndex * 4 + 3], (byte) ';', cookies);
+        }
+        return Collections.unmodifiableMap(cookies);
+    }
+
+    /**
+     * multipart/form-data 본문을 boundary 로 나눠 MultiPart 리스트로 반환한다. 파일 파트(filename 이 있는 파트)만 submittedFileName 과
+     * contentType 을 가진다.
+     *
+     * @param end 요청 시작 위치 기준 요청의 끝 위치
+     * @return 파싱된 MultiPart 리스트. multipart 요청이 아니면 빈 리스트
+     */
+    public List<MultiPart> parts(int end) {
+        String boundary = boundary();
+        if (boundary == null || bodyStart < 0) {
+            return Collections.emptyList();
+        }
+        byte[] delimiter = ("--" + boundary).getBytes(ISO_8859_1);
+        byte[] nextDelimiter = ("\r\n--" + boundary).getBytes(ISO_8859_1);
+
+        List<MultiPart> parts = new ArrayList<>();
+        int cursor = indexOf(delimiter, bodyStart, end);
+        while (cursor >= 0) {
+            cursor += delimiter.length;
+            if (cursor + 1 < end && byteAt(cursor) == '-' && byteAt(cursor + 1) == '-') { // 종료 경계
+                break;
+            }
+            cursor = nextLine(cursor, end);
+
+            /* 파트 헤더 */
+            String name = null;
+            String submittedFileName = null;
+            String contentType = null;
+            while (cursor < end && byteAt(cursor) != CR && byteAt(cursor) != LF) {
+                int lineEnd = lineEnd(cursor, end);
+                if (startsWithHeader(CONTENT_DISPOSITION, cursor, lineEnd)) {
+                    name = quotedParameter(NAME, cursor, lineEnd);
+                    submittedFileName = quotedParameter(FILENAME, cursor, lineEnd);
+                } else if (startsWithHeader(CONTENT_TYPE, cursor, lineEnd)) {
+                    contentType = ascii(skipSpaces(cursor + CONTENT_TYPE.length + 1, lineEnd), lineEnd);
+                }
+                cursor = nextLine(lineEnd, end);
+            }
+            int partBodyStart = nextLine(cursor, end);
+
+            /* 파트 본문: 다음 경계 앞의 CRLF 까지 */
+            int partBodyEnd = indexOf(nextDelimiter, partBodyStart, end);
+            if (partBodyEnd < 0) { // 본문을 끝까지 받지 못함
+                break;
+            }
+            if (submittedFileName != null && submittedFileName.isEmpty()) {
+                submittedFileName = null; // 파일을 선택하지 않은 파일 파트
+            }
+            parts.add(new MultiPart(name, submittedFileName, submittedFileName == null ? null : contentType,
+                    Arrays.copyOfRange(buffer, start + partBodyStart, start + partBodyEnd)));
+            cursor = partBodyEnd + 2;
+        }
+        return Collections.unmodifiableList(parts);
+    }
+
+    private State endOfLine(byte b) {
+        return b == CR ? State.LINE_CR : State.HEADER_LINE_START;
+    }
+
+    private void addHeader(int valueStart, int valueEnd) {
+        if (headerCount == headerNames.length) {
+            headerOffsets = Arrays.copyOf(headerOffsets, headerOffsets.length * 2);
+            headerNames = Arrays.copyOf(headerNames, headerNames.length * 2);
+            headerValues = Arrays.copyOf(headerValues, headerValues.length * 2);
+        }
+        int base = headerCount * 4;
+        headerOffsets[base] = nameStart;
+        headerOffsets[base + 1] = nameEnd;
+        headerOffsets[base + 2] = valueStart;
+        headerOffsets[base + 3] = valueEnd;
+        AsciiString knownName = HttpHeaderNames.find(buffer, start + nameStart, nameEnd - nameStart);
+        headerNames[headerCount] = knownName;
+
+        /* 파싱 과정에서 바로 필요한 헤더는 위치를 기억해 둔다 */
+        if (knownName == HttpHeaderNames.CONTENT_LENGTH) {
+            contentLength = parseDigits(valueStart, valueEnd);
+        } else if (knownName == HttpHeaderNames.CONTENT_TYPE) {
+            contentTypeIndex = headerCount;
+        } else if (knownName == HttpHeaderNames.COOKIE) {
+            cookieIndex = headerCount;
+        } else if (knownName == HttpHeaderNames.TRANSFER_ENCODING) {
+            int chunkedLength = HttpHeaderValues.CHUNKED.length();
+            chunked = valueEnd - valueStart >= chunkedLength && HttpHeaderValues.CHUNKED.contentEqualsIgnoreCase(
+                    buffer, start + valueEnd - chunkedLength, chunkedLength);
+        }
+        headerCount++;
+    }
+
+    private int parseDigits(int from, int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            byte b = byteAt(i);
+            if (b < '0' || b > '9') {
+                break;
+            }
+            value = Math.min(value * 10 + (b - '0'), Integer.MAX_VALUE);
+        }
+        return (int) value;
+    }
+
+    private int trimEnd(int from, int to) {
+        while (to > from && (byteAt(to - 1) == SP || byteAt(to - 1) == HTAB)) {
+            to--;
+        }
+        return to;
+    }
+
+    private int skipSpaces(int from, int to) {
+        while (from < to && (byteAt(from) == SP || byteAt(from) == HTAB)) {
+            from++;
+        }
+        return from;
+    }
+
+    /**
+     * [from, to) 구간을 separator 로 나누고 각 조각을 첫 '=' 기준으로 key/value 로 나눠 URL 디코딩한 뒤 map 에 넣는다. 빈 key 는 무시한다.
+     */
+    private void splitPairs(int from, int to, byte separator, Map<String, String> pairs) {
+        int pairStart = from;
+        for (int i = from; i <= to; i++) {
+            if (i < to && byteAt(i) != separator) {
+                continue;
+            }
+            int keyStart = skipSpaces(pairStart, i);
+            int equal = keyStart;
+            while (equal < i && byteAt(equal) != '=') {
+                equal++;
+            }
+            int keyEnd = trimEnd(keyStart, equal);
+            if (keyEnd > keyStart) {
+                String value = equal < i ? urlDecode(equal + 1, trimEnd(equal + 1, i)) : "";
+                pairs.put(urlDecode(keyStart, keyEnd), value);
+            }
+            pairStart = i + 1;
+        }
+    }
+
+    private String urlDecode(int from, int to) {
+        String value = utf8(from, to);
+        if (value.indexOf('%') < 0 && value.indexOf('+') < 0) {
+            return value;
+        }
+        try {
+            return URLDecoder.decode(value, UTF_8);
+        } catch (IllegalArgumentException e) { // 잘못된 % 인코딩은 그대로 둔다
+            return value;
+        }
+    }
+
+    private boolean startsWithHeader(byte[] lowerCaseName, int from, int to) {
+        return to - from > lowerCaseName.length && byteAt(from + lowerCaseName.length) == COLON
+                && regionMatchesIgnoreCase(lowerCaseName, from);
+    }
+
+    /**
+     * name="value" 형태의 값을 찾는다. 'filename=' 안의 'name=' 을 잘못 찾지 않도록 공백이나 ';' 뒤에 오는 경우만 인정한다.
+     */
+    private String quotedParameter(byte[] parameterPrefix, int from, int to) {
+        int cursor = from;
+        while ((cursor = indexOfIgnoreCase(parameterPrefix, cursor, to)) >= 0) {
+            byte before = byteAt(cursor - 1);
+            if (before == SP || before == ';') {
+                int valueStart = cursor + parameterPrefix.length;
+                int valueEnd = valueStart;
+                while (valueEnd < to && byteAt(valueEnd) != '"') {
+                    valueEnd++;
+                }
+                return utf8(valueStart, valueEnd);
+            }
+            cursor += parameterPrefix.length;
+        }
+        return null;
+    }
+
+    private int lineEnd(int from, int to) {
+        int i = from;
+        while (i < to && byteAt(i) != CR && byteAt(i) != LF) {
+            i++;
+        }
+        return i;
+    }
+
+    private int nextLine(int from, int to) {
+        int i = lineEnd(from, to);
+        if (i < to && byteAt(i) == CR) {
+            i++;
+        }
+        if (i < to && byteAt(i) == LF) {
+            i++;
+        }
+        return i;
+    }
+
+    private int indexOf(byte[] target, int from, int to) {
+        byte first = target[0];
+        for (int i = from; i <= to - target.length; i++) {
+            if (byteAt(i) != first) {
+                continue;
+            }
+            int j = 1;
+            while (j < target.length && byteAt(i + j) == target[j]) {
+                j++;
+            }
+            if (j == target.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int indexOfIgnoreCase(byte[] lowerCaseTarget, int from, int to) {
+        for (int i = from; i <= to - lowerCaseTarget.length; i++) {
+            if (regionMatchesIgnoreCase(lowerCaseTarget, i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean regionMatchesIgnoreCase(byte[] lowerCaseTarget, int from) {
+        for (int j = 0; j < lowerCaseTarget.length; j++) {
+            byte b = byteAt(from + j);
+            if (b >= 'A' && b <= 'Z') {
+                b += 'a' - 'A';
+            }
+            if (b != lowerCaseTarget[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private byte byteAt(int offset) {
+        return buffer[start + offset];
+    }
+
+    private AsciiString view(int from, int to) {
+        return new AsciiString(buffer, start + from, to - from);
+    }
+
+    private String ascii(int from, int to) {
+        return new String(buffer, start + from, to - from, ISO_8859_1);
+    }
+
+    private String utf8(int from, int to) {
+        return new String(buffer, start + from, to - from, UTF_8);
+    }
+}
@@ -0,0 +1,14 @@
+package utils;
+
+import http.HttpRequest.MultiPart;
+import java.util.List;
+
+/**
+ * 연결에서 잘라낸 요청 하나. multipart 요청은 본문을 받는 동안 이미 파트로 나눴으므로 bytes 에는 헤더만 있고 parts 에 파트가 들어 있다. multipart
+ * 요청이 아니면 parts 는 null 이고 본문은 bytes 에 있다.
+ *
+ * @param bytes 요청 바이트 (multipart 요청이면 헤더까지)
+ * @param parts 받는 동안 나눈 multipart 파트. multipart 요청이 아니면 null
+ */
+public record HttpRequestFrame(byte[] bytes, List<MultiPart> parts) {
+}
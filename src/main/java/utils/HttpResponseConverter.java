@@ -1,7 +1,6 @@
 package utils;
 
 import http.HttpResponse;
-import java.io.DataOutputStream;
 import java.io.OutputStream;
 import java.util.Optional;
 import org.slf4j.Logger;
@@ -11,7 +10,7 @@ public class HttpResponseConverter {
     private static final Logger logger = LoggerFactory.getLogger(HttpResponseConverter.class);
 
     public static HttpResponse convertToHttpResponse(OutputStream out) {
-        Optional<HttpResponse> response = Optional.of(new HttpResponse(new DataOutputStream(out)));
+        Optional<HttpResponse> response = Optional.of(new HttpResponse(out));
 
         return response.orElseThrow(() -> new IllegalStateException("[RESPONSE CONVERTER ERROR] convert fail"));
     }
@@ -0,0 +1,244 @@
+package utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 큰 파일(업로드한 이미지 등)을 메모리에 매핑해 두는 저장소. 매핑한 페이지는 힙 밖의 페이지 캐시이므로 GC 대상이 아니며, 구간({@link MappedRegion})을
+ * 복사하지 않고 gathering write 로 소켓에 바로 보낸다.
+ * <p>
+ * MIN_FILE_BYTES 이상인 파일만 매핑한다 (작은 파일은 {@link StaticFileCache} 가 맡는다). 매핑한 전체 크기가 MAX_BYTES 를 넘으면 가장 오래 사용하지
+ * 않은 파일부터 뺀다 (LRU). 파일이 바뀌거나(검증자가 다르면) 지워지면 뺀다.
+ * <p>
+ * 매핑마다 참조 수를 센다. 저장소가 하나, 빌려 간 구간마다 하나씩 가지며, 저장소에서 빠진 뒤 마지막 구간까지 반납하면 매핑을 해제한다. 따라서 보내는 중인
+ * 구간의 매핑은 해제되지 않는다.
+ * <p>
+ * 매핑한 파일이 줄어들면 줄어든 뒤의 페이지를 읽을 때 JVM 이 비정상 종료되거나 쓰기가 실패할 수 있다. 업로드는
+ * {@link ResourceHandler#saveImage} 가 같은 디렉토리의 임시 파일에 쓴 뒤 rename 으로 바꾸고 이 저장소에서 빼므로, 매핑한 이전 파일(inode)은
+ * 줄어들지 않는다. 서버 밖에서 '/static', '/media' 의 파일을 제자리에서 줄이는 경우는 막지 못하므로, 파일은 rename 으로 바꿔야 한다.
+ */
+public final class MappedFileStore implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(MappedFileStore.class);
+    /* 매핑할 파일의 최소 크기, 매핑할 전체 크기 */
+    private static final long MIN_FILE_BYTES = Long.getLong("server.mappedStore.minFileBytes", 1024 * 1024); // 1MB
+    private static final long MAX_BYTES = Long.getLong("server.mappedStore.maxBytes", 256 * 1024 * 1024); // 256MB
+    private static final MappedFileStore INSTANCE = new MappedFileStore(MIN_FILE_BYTES, MAX_BYTES);
+    /* Java 17 에는 매핑을 바로 해제하는 공개 API 가 없으므로 sun.misc.Unsafe.invokeCleaner 를 사용한다. 사용할 수 없으면 GC 가 해제한다 */
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafe = theUnsafe.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.debug("[MAPPED STORE] unmap is not supported. mapped files are released by GC: {}", e.getMessage());
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private final long minFileBytes;
+    private final long maxBytes;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Path, MappedFile> entries = new LinkedHashMap<>(16, 0.75f, true); // 사용한 순서
+    private long totalBytes = 0;
+
+    MappedFileStore(long minFileBytes, long maxBytes) {
+        this.minFileBytes = minFileBytes;
+        this.maxBytes = maxBytes;
+    }
+
+    public static MappedFileStore getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 매핑할 크기의 파일인지 확인한다.
+     */
+    public boolean isMappable(FileValidator validator) {
+        return validator.size() >= minFileBytes && validator.size() <= Math.min(maxBytes, Integer.MAX_VALUE);
+    }
+
+    public MappedRegion acquire(Path file, FileValidator validator) {
+        return acquire(file, validator, 0, validator.size());
+    }
+
+    /**
+     * 파일의 [offset, offset + length) 구간을 빌린다. 매핑하지 않았거나 검증자가 다르면(파일이 바뀌었으면) 새로 매핑한다.
+     *
+     * @param validator 지금 파일의 검증자
+     * @return 빌린 구간. 매핑할 크기가 아니거나 매핑할 수 없으면 null
+     */
+    public MappedRegion acquire(Path file, FileValidator validator, long offset, long length) {
+        if (!isMappable(validator)) {
+            return null;
+        }
+        Path key = key(file);
+        lock.lock();
+        try {
+            MappedFile mapped = entries.get(key);
+            if (mapped != null && mapped.validator.etag().equals(validator.etag())) {
+                return mapped.region(offset, length);
+            }
+            remove(key); // 바뀐 파일
+        } finally {
+            lock.unlock();
+        }
+
+        MappedFile mapped = map(key, validator); // 매핑하는 동안 잠그지 않는다
+        if (mapped == null) {
+            return null;
+        }
+        lock.lock();
+        try {
+            MappedFile existing = entries.get(key);
+            if (existing != null && existing.validator.etag().equals(validator.etag())) { // 다른 스레드가 먼저 매핑했다
+                mapped.release();
+                return existing.region(offset, length);
+            }
+            remove(key);
+            entries.put(key, mapped);
+            totalBytes += mapped.size();
+            evict();
+            return mapped.region(offset, length);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 지워진 파일을 뺀다. 빌려 간 구간이 없으면 바로 매핑을 해제한다.
+     */
+    public void invalidate(Path file) {
+        lock.lock();
+        try {
+            remove(key(file));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 저장소에 매핑해 둔 전체 크기
+     */
+    public long size() {
+        lock.lock();
+        try {
+            return totalBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 매핑한 파일을 모두 뺀다. 빌려 간 구간의 매핑은 반납할 때 해제한다.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            entries.values().forEach(MappedFile::release);
+            entries.clear();
+            totalBytes = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static Path key(Path file) {
+        return file.toAbsolutePath().normalize();
+    }
+
+    private static MappedFile map(Path file, FileValidator validator) {
+        try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.READ)) { // 채널을 닫아도 매핑은 남는다
+            if (fileChannel.size() != validator.size()) { // 검증자를 만든 뒤 바뀌었다
+                return null;
+            }
+            return new MappedFile(fileChannel.map(MapMode.READ_ONLY, 0, validator.size()), validator);
+        } catch (IOException e) {
+            logger.error("[MAPPED STORE ERROR] {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void remove(Path key) {
+        MappedFile removed = entries.remove(key);
+        if (removed != null) {
+            totalBytes -= removed.size();
+            removed.release();
+        }
+    }
+
+    /* 가장 오래 사용하지 않은 파일부터 뺀다 */
+    private void evict() {
+        Iterator<MappedFile> iterator = entries.values().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            MappedFile evicted = iterator.next();
+            iterator.remove();
+            totalBytes -= evicted.size();
+            evicted.release();
+        }
+    }
+
+    private static void unmap(MappedByteBuffer buffer) {
+        if (INVOKE_CLEANER == null) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.debug("[MAPPED STORE] unmap fail: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 매핑 하나와 참조 수. 저장소가 참조 하나를 가지고 시작한다.
+     */
+    private static final class MappedFile {
+        private final MappedByteBuffer buffer;
+        private final FileValidator validator;
+        private final AtomicInteger references = new AtomicInteger(1);
+
+        private MappedFile(MappedByteBuffer buffer, FileValidator validator) {
+            this.buffer = buffer;
+            this.validator = validator;
+        }
+
+        /* 저장소에 있는 동안(저장소의 참조가 남아 있는 동안) 잠금 안에서만 호출한다 */
+        private MappedRegion region(long offset, long length) {
+            references.incrementAndGet();
+            ByteBuffer slice = buffer.slice(Math.toIntExact(offset), Math.toIntExact(length));
+            return new MappedRegion(slice, this::release);
+        }
+
+        private long size() {
+            return buffer.capacity();
+        }
+
+        private void release() {
+            if (references.decrementAndGet() == 0) {
+                unmap(buffer);
+            }
+        }
+    }
+}
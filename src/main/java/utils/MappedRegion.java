@@ -0,0 +1,42 @@
+package utils;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link MappedFileStore} 에서 빌린 메모리 매핑 파일의 구간. 힙 밖의 페이지 캐시를 가리키므로 gathering write 로 소켓에 바로 보낼 수 있다.
+ * <p>
+ * 빌린 동안에는 매핑을 해제하지 않는다. 전송이 끝나면(또는 보내지 못하고 연결을 닫으면) 반드시 {@link #close()} 로 반납해야 한다.
+ */
+public final class MappedRegion implements Closeable {
+    private final ByteBuffer slice;
+    private final Runnable release;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    MappedRegion(ByteBuffer slice, Runnable release) {
+        this.slice = slice;
+        this.release = release;
+    }
+
+    /**
+     * 구간 전체를 가리키는 새 ByteBuffer. 호출할 때마다 위치가 처음인 새 뷰를 반환한다.
+     */
+    public ByteBuffer buffer() {
+        return slice.duplicate();
+    }
+
+    public long count() {
+        return slice.remaining();
+    }
+
+    /**
+     * 구간을 반납한다. 여러 번 호출해도 한 번만 반납한다.
+     */
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            release.run();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 없는 파일을 요청한 경로를 잠시 기억해 두는 캐시. 같은 경로를 다시 요청하면 파일 시스템에 접근하거나 로그를 남기지 않고 바로 404 로 응답한다 (크롤러가 없는
+ * 경로를 반복해서 요청하는 경우).
+ * <p>
+ * 기억한 경로는 TTL_MILLIS 가 지나면 잊으므로, 나중에 추가한 파일도 늦어도 TTL 뒤에는 찾는다. 업로드로 만든 파일은 {@link #invalidate(String)} 로
+ * 바로 잊는다. 경로가 MAX_ENTRIES 개를 넘으면 가장 먼저 기억한 경로부터 잊는다.
+ */
+public final class MissingFileCache {
+    /* 기억할 최대 경로 수, 기억하는 시간 */
+    private static final int MAX_ENTRIES = Integer.getInteger("server.missingCache.maxEntries", 10_000);
+    private static final long TTL_MILLIS = Long.getLong("server.missingCache.ttlMillis", 10_000); // 10초
+    private static final MissingFileCache INSTANCE = new MissingFileCache(MAX_ENTRIES, TTL_MILLIS);
+
+    private final long ttlNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, Long> expirations; // 요청 경로 -> 잊을 시각 (System.nanoTime)
+
+    MissingFileCache(int maxEntries, long ttlMillis) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.expirations = new LinkedHashMap<>(64, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public static MissingFileCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param requestPath 쿼리 파라미터를 제외한 요청 경로
+     * @return 최근에 없었던 경로이면 true
+     */
+    public boolean isMissing(String requestPath) {
+        lock.lock();
+        try {
+            Long expiration = expirations.get(requestPath);
+            if (expiration == null) {
+                return false;
+            }
+            if (System.nanoTime() - expiration >= 0) { // 만료
+                expirations.remove(requestPath);
+                return false;
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 파일이 없는 경로를 기억한다. 이미 기억한 경로는 다시 TTL 동안 기억한다.
+     */
+    public void add(String requestPath) {
+        lock.lock();
+        try {
+            expirations.remove(requestPath); // 가장 최근에 기억한 경로로 옮긴다
+            expirations.put(requestPath, System.nanoTime() + ttlNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 파일을 만들었으므로 경로를 잊는다.
+     */
+    public void invalidate(String requestPath) {
+        lock.lock();
+        try {
+            expirations.remove(requestPath);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return expirations.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
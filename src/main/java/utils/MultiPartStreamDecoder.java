@@ -0,0 +1,310 @@
+package utils;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static utils.ResourceHandler.BASE_PATH;
+import static utils.ResourceHandler.MEDIA_PATH;
+
+import http.HttpRequest.MultiPart;
+import http.HttpStatus;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * multipart/form-data 본문을 받는 대로 파트 단위로 나누는 디코더. 본문 전체를 메모리에 모으지 않고, 받은 바이트 중 경계의 일부일 수 있는 마지막 몇
+ * 바이트만 남기고 바로 소비한다.
+ * <p>
+ * 텍스트 파트(filename 이 없는 파트)는 메모리에 보관한다. 파일 파트는 MEMORY_THRESHOLD 까지는 메모리에 모으다가 넘으면 '/media' 아래 임시 파일로
+ * 옮겨 이어 쓰므로, 업로드 크기와 관계없이 사용하는 힙은 버퍼 크기 정도로 일정하다. 파트 하나가 maxPartSize 를 넘으면 413 으로, 파트 헤더가 8KB 를 넘으면 431 로 거절한다.
+ */
+public class MultiPartStreamDecoder {
+    private static final Logger logger = LoggerFactory.getLogger(MultiPartStreamDecoder.class);
+    /* 파일 파트를 메모리에 보관할 최대 크기. 넘으면 임시 파일에 쓴다 */
+    private static final int MEMORY_THRESHOLD = Integer.getInteger("server.multipart.memoryThreshold", 64 * 1024);
+    private static final int MAX_PART_HEADER_SIZE = 8192; // 8KB
+    private static final Path TEMP_DIRECTORY = Path.of(BASE_PATH, MEDIA_PATH);
+    private static final byte[] CRLF = {'\r', '\n'};
+    private static final byte[] END_OF_PART_HEADER = {'\r', '\n', '\r', '\n'};
+
+    private enum State {
+        PREAMBLE, DELIMITER_SUFFIX, PART_HEADER, PART_BODY, CLOSE_DELIMITER_END, EPILOGUE
+    }
+
+    private final byte[] firstDelimiter; // 본문 처음의 "--boundary"
+    private final byte[] delimiter; // 파트 본문 뒤의 "\r\n--boundary"
+    private final Path tempDirectory;
+    private final int memoryThreshold;
+    private final long maxPartSize;
+    private final List<MultiPart> parts = new ArrayList<>();
+    private State state = State.PREAMBLE;
+    private PartSink currentPart;
+
+    public MultiPartStreamDecoder(String boundary) {
+        this(boundary, TEMP_DIRECTORY, MEMORY_THRESHOLD);
+    }
+
+    public MultiPartStreamDecoder(String boundary, Path tempDirectory, int memoryThreshold) {
+        this(boundary, tempDirectory, memoryThreshold, RequestLimits.MAX_PART_SIZE);
+    }
+
+    public MultiPartStreamDecoder(String boundary, Path tempDirectory, int memoryThreshold, long maxPartSize) {
+        this.maxPartSize = maxPartSize;
+        this.firstDelimiter = ("--" + boundary).getBytes(ISO_8859_1);
+        this.delimiter = ("\r\n--" + boundary).getBytes(ISO_8859_1);
+        this.tempDirectory = tempDirectory;
+        this.memoryThreshold = memoryThreshold;
+    }
+
+    /**
+     * buffer[offset, offset + length) 를 이어서 디코딩한다. 경계의 일부일 수 있어 판단을 미룬 바이트는 소비하지 않으므로, 호출한 쪽은 소비하지 않은
+     * 바이트를 남겨 두었다가 다음에 받은 바이트와 함께 다시 넘겨야 한다. 종료 경계("--boundary--\r\n") 뒤의 바이트는 소비하지 않는다.
+     *
+     * @return 소비한 바이트 수
+     * @throws IOException 임시 파일 쓰기 실패
+     * @throws RequestRejectedException 파트 하나의 크기가 제한을 넘은 경우(413), 또는 파트 헤더가 너무 긴 경우(431)
+     */
+    public int decode(byte[] buffer, int offset, int length) throws IOException {
+        int position = offset;
+        int end = offset + length;
+        while (state != State.EPILOGUE) {
+            int consumed = switch (state) {
+                case PREAMBLE -> decodePreamble(buffer, position, end);
+                case DELIMITER_SUFFIX -> decodeDelimiterSuffix(buffer, position, end);
+                case PART_HEADER -> decodePartHeader(buffer, position, end);
+                case PART_BODY -> decodePartBody(buffer, position, end);
+                case CLOSE_DELIMITER_END -> decodeCloseDelimiterEnd(buffer, position, end);
+                default -> throw new IllegalStateException(state.name());
+            };
+            if (consumed < 0) { // 더 받아야 판단할 수 있음
+                break;
+            }
+            position += consumed;
+        }
+        return position - offset;
+    }
+
+    public boolean isComplete() {
+        return state == State.EPILOGUE;
+    }
+
+    /**
+     * 지금까지 끝까지 받은 파트 목록
+     */
+    public List<MultiPart> parts() {
+        return Collections.unmodifiableList(parts);
+    }
+
+    /**
+     * 본문을 끝까지 받지 못하고 멈출 때 호출한다. 쓰던 파트의 임시 파일을 지우고, 끝까지 받은 파트만 반환한다.
+     */
+    public List<MultiPart> abort() {
+        if (currentPart != null) {
+            currentPart.discard();
+            currentPart = null;
+        }
+        return parts();
+    }
+
+    private int decodePreamble(byte[] buffer, int position, int end) {
+        int found = indexOf(buffer, firstDelimiter, position, end);
+        if (found < 0) { // 경계 앞의 내용은 버리되, 경계의 앞부분일 수 있는 바이트는 남긴다
+            int safe = end - position - (firstDelimiter.length - 1);
+            return safe > 0 ? safe : -1;
+        }
+        state = State.DELIMITER_SUFFIX;
+        return found - position + firstDelimiter.length;
+    }
+
+    /**
+     * 경계 바로 뒤의 "--"(종료 경계) 또는 줄 끝을 확인한다.
+     */
+    private int decodeDelimiterSuffix(byte[] buffer, int position, int end) {
+        if (end - position < 2) {
+            return -1;
+        }
+        if (buffer[position] == '-' && buffer[position + 1] == '-') {
+            state = State.CLOSE_DELIMITER_END;
+            return 2;
+        }
+        int lineEnd = indexOf(buffer, CRLF, position, end);
+        if (lineEnd < 0) {
+            return -1;
+        }
+        state = State.PART_HEADER;
+        return lineEnd - position + CRLF.length;
+    }
+
+    /**
+     * 종료 경계 뒤의 줄 끝(CRLF)까지 소비한다.
+     */
+    private int decodeCloseDelimiterEnd(byte[] buffer, int position, int end) {
+        if (end - position < 2) {
+            return -1;
+        }
+        state = State.EPILOGUE;
+        return buffer[position] == '\r' && buffer[position + 1] == '\n' ? 2 : 0;
+    }
+
+    private int decodePartHeader(byte[] buffer, int position, int end) throws IOException {
+        int headerEnd;
+        if (end - position >= 2 && buffer[position] == '\r' && buffer[position + 1] == '\n') {
+            headerEnd = position; // 헤더가 없는 파트
+        } else {
+            headerEnd = indexOf(buffer, END_OF_PART_HEADER, position, end);
+            if (headerEnd < 0) {
+                if (end - position > MAX_PART_HEADER_SIZE) {
+                    throw new RequestRejectedException(HttpStatus.STATUS_REQUEST_HEADER_FIELDS_TOO_LARGE,
+                            "multipart header over " + MAX_PART_HEADER_SIZE);
+                }
+                return -1;
+            }
+            headerEnd += CRLF.length;
+        }
+        currentPart = createPart(new String(buffer, position, headerEnd - position, ISO_8859_1));
+        state = State.PART_BODY;
+        return headerEnd - position + CRLF.length;
+    }
+
+    private int decodePartBody(byte[] buffer, int position, int end) throws IOException {
+        int found = indexOf(buffer, delimiter, position, end);
+        if (found < 0) { // 경계의 앞부분일 수 있는 바이트만 남기고 쓴다
+            int safe = end - position - (delimiter.length - 1);
+            if (safe <= 0) {
+                return -1;
+            }
+            currentPart.write(buffer, position, safe);
+            return safe;
+        }
+        currentPart.write(buffer, position, found - position);
+        parts.add(currentPart.finish());
+        currentPart = null;
+        state = State.DELIMITER_SUFFIX;
+        return found - position + delimiter.length;
+    }
+
+    /**
+     * 파트 헤더(Content-Disposition, Content-Type)에서 name, filename, Content-Type 을 읽는다. 파일을 선택하지 않은 파일 파트(filename="")는
+     * 텍스트 파트처럼 처리한다.
+     */
+    private PartSink createPart(String partHeader) {
+        String name = null;
+        String submittedFileName = null;
+        String contentType = null;
+        for (String line : partHeader.split("\r\n")) {
+            int colon = line.indexOf(':');
+            if (colon < 0) {
+                continue;
+            }
+            String headerName = line.substring(0, colon).trim();
+            String headerValue = line.substring(colon + 1).trim();
+            if (headerName.equalsIgnoreCase("Content-Disposition")) {
+                name = quotedParameter(headerValue, "name");
+                submittedFileName = quotedParameter(headerValue, "filename");
+            } else if (headerName.equalsIgnoreCase("Content-Type")) {
+                contentType = headerValue;
+            }
+        }
+        if (submittedFileName != null && submittedFileName.isEmpty()) {
+            submittedFileName = null;
+        }
+        return new PartSink(name, submittedFileName, submittedFileName == null ? null : contentType);
+    }
+
+    /**
+     * 'form-data; name="photo"; filename="a.png"' 에서 parameter="..." 의 값을 찾는다. 값은 UTF-8 로 디코딩한다.
+     */
+    private static String quotedParameter(String headerValue, String parameter) {
+        for (String token : headerValue.split(";")) {
+            String trimmed = token.trim();
+            if (trimmed.regionMatches(true, 0, parameter + "=\"", 0, parameter.length() + 2)
+                    && trimmed.endsWith("\"")) {
+                String value = trimmed.substring(parameter.length() + 2, trimmed.length() - 1);
+                return new String(value.getBytes(ISO_8859_1), UTF_8);
+            }
+        }
+        return null;
+    }
+
+    private static int indexOf(byte[] buffer, byte[] target, int from, int to) {
+        byte first = target[0];
+        for (int i = from; i <= to - target.length; i++) {
+            if (buffer[i] != first) {
+                continue;
+            }
+            int j = 1;
+            while (j < target.length && buffer[i + j] == target[j]) {
+                j++;
+            }
+            if (j == target.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 받는 중인 파트 하나의 본문을 모은다. 파일 파트가 memoryThreshold 를 넘으면 임시 파일로 옮긴다.
+     */
+    private class PartSink {
+        private final String name;
+        private final String submittedFileName;
+        private final String contentType;
+        private ByteArrayOutputStream memory = new ByteArrayOutputStream();
+        private Path file;
+        private OutputStream fileOut;
+        private long size = 0;
+
+        private PartSink(String name, String submittedFileName, String contentType) {
+            this.name = name;
+            this.submittedFileName = submittedFileName;
+            this.contentType = contentType;
+        }
+
+        private void write(byte[] buffer, int offset, int length) throws IOException {
+            size += length;
+            if (size > maxPartSize) { // 디스크를 채우기 전에 거절한다
+                throw new RequestRejectedException(HttpStatus.STATUS_PAYLOAD_TOO_LARGE, "part " + name + " over " + maxPartSize);
+            }
+            if (fileOut == null && submittedFileName != null && memory.size() + length > memoryThreshold) {
+                Files.createDirectories(tempDirectory);
+                file = Files.createTempFile(tempDirectory, "upload-", ".part");
+                fileOut = Files.newOutputStream(file);
+                memory.writeTo(fileOut);
+                memory = null;
+            }
+            if (fileOut != null) {
+                fileOut.write(buffer, offset, length);
+                return;
+            }
+            memory.write(buffer, offset, length);
+        }
+
+        private MultiPart finish() throws IOException {
+            if (fileOut == null) {
+                return new MultiPart(name, submittedFileName, contentType, memory.toByteArray());
+            }
+            fileOut.close();
+            return new MultiPart(name, submittedFileName, contentType, null, file);
+        }
+
+        private void discard() {
+            if (fileOut == null) {
+                return;
+            }
+            try {
+                fileOut.close();
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                logger.error("[MULTIPART DECODER ERROR] temp file delete fail: {}", e.getMessage());
+            }
+        }
+    }
+}
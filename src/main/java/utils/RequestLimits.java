@@ -0,0 +1,18 @@
+package utils;
+
+/**
+ * 요청 크기 제한. 넘는 요청은 본문을 받기 전에(본문이 넘으면 넘는 순간) 414/431/413 으로 거절하고 연결을 닫으므로, 연결 하나가 사용하는 메모리는 이 제한
+ * 안에 머문다. JVM 시스템 프로퍼티로 바꿀 수 있다. (ex. {@code -Dserver.limit.bodySize=1048576})
+ */
+public final class RequestLimits {
+    /* 요청 라인(414), 헤더 영역 전체 크기와 헤더 수(431) */
+    public static final int MAX_REQUEST_LINE_SIZE = Integer.getInteger("server.limit.requestLine", 8 * 1024);
+    public static final int MAX_HEADER_SIZE = Integer.getInteger("server.limit.headerSize", 16 * 1024);
+    public static final int MAX_HEADER_COUNT = Integer.getInteger("server.limit.headerCount", 100);
+    /* 본문 크기(Content-Length 또는 chunked 로 받은 크기), multipart 파트 하나의 크기(413) */
+    public static final long MAX_BODY_SIZE = Long.getLong("server.limit.bodySize", 10 * 1024 * 1024);
+    public static final long MAX_PART_SIZE = Long.getLong("server.limit.partSize", 10 * 1024 * 1024);
+
+    private RequestLimits() {
+    }
+}
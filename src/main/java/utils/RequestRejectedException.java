@@ -0,0 +1,22 @@
+package utils;
+
+import http.HttpStatus;
+import java.io.IOException;
+
+/**
+ * 요청을 끝까지 받지 않고 거절할 때 발생한다. 거절한 요청의 나머지 바이트는 읽지 않으므로 같은 연결에서 다음 요청을 찾을 수 없다. 응답을 보낸 뒤 연결을
+ * 닫아야 한다.
+ */
+public class RequestRejectedException extends IOException {
+    private static final long serialVersionUID = 1L;
+    private final HttpStatus status;
+
+    public RequestRejectedException(HttpStatus status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
@@ -3,14 +3,13 @@ package utils;
 import static utils.HttpConstant.CRLF;
 
 import http.HttpRequest.MultiPart;
-import java.io.BufferedReader;
-import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
-import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.Map;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
@@ -57,15 +56,11 @@ public class ResourceHandler {
      * @return 템플릿 파일의 내용을 문자열로 반환하며, 파일이 존재하지 않거나 읽을 수 없는 경우 빈 문자열("")을 반환한다.
      */
     public static String readTemplate(String templateName) {
-        // 디렉토리인 경우 인덱스 파일 추가
-        if (new File(BASE_PATH + TEMPLATE_PATH + templateName).isDirectory()) {
-            templateName += INDEX_HTML;
-        }
+        Path path = templatePath(templateName);
 
-        File file = new File(BASE_PATH + TEMPLATE_PATH + templateName);
-
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            return reader.lines().collect(Collectors.joining(CRLF));
+        // BufferedReader 로 줄마다 읽지 않고 한 번에 읽은 뒤 줄을 나눈다 (가상 스레드 고정, ExecutionMode 참고)
+        try {
+            return Files.readString(path).lines().collect(Collectors.joining(CRLF));
         } catch (IOException e) {
             logger.error("[RESOURCE HANDLER ERROR] {}", e.getMessage());
         }
@@ -73,6 +68,21 @@ public class ResourceHandler {
         return ""; // 파일이 존재하지 않거나 읽을 수 없는 경우 빈 문자열 반환
     }
 
+    /**
+     * 템플릿 이름에 해당하는 파일 경로. 디렉토리인 경우 해당 디렉토리의 'index.html' 경로를 반환한다. 파일이 있는지는 확인하지 않는다.
+     */
+    public static Path templatePath(String templateName) {
+        Path path = AssetIndex.getInstance().findTemplate(templateName); // 시작할 때 만든 색인에 없으면 경로를 만들어 찾는다
+        if (path != null) {
+            return path;
+        }
+        // 디렉토리인 경우 인덱스 파일 추가
+        if (new File(BASE_PATH + TEMPLATE_PATH + templateName).isDirectory()) {
+            templateName += INDEX_HTML;
+        }
+        return Path.of(BASE_PATH + TEMPLATE_PATH + templateName);
+    }
+
     public static String getExtension(String uri) {
         if (uri.contains(".")) {
             return uri.substring(uri.lastIndexOf(".") + 1);
@@ -80,26 +90,50 @@ public class ResourceHandler {
         return uri;
     }
 
+    /**
+     * 업로드한 이미지를 저장한다. 본문을 같은 디렉토리의 임시 파일에 모두 쓴 뒤 rename 으로 바꾸므로, 같은 이름의 파일을 다시 올려도 기존 파일을
+     * 제자리에서 덮어쓰거나 줄이지 않는다. 기존 파일을 보내는 중인 응답(매핑한 구간, transferTo)은 rename 전의 파일을 끝까지 읽는다.
+     */
     public static void saveImage(MultiPart multiPart, String savePath) {
         /* 출력 결과물 경로 : '/BASE_PATH/media/userId/filename' */
-        File outputFile = new File(BASE_PATH, savePath);
-
-        /* 파일 저장 로직 */
-        byte[] imageBytes = multiPart.partBody(); // image 정보가 담긴 bytes
-        byte[] buffer = new byte[DEFAULT_BUFFER]; // 기본 버퍼 1Kb
-
-        try (
-                ByteArrayInputStream bis = new ByteArrayInputStream(imageBytes);
-                FileOutputStream fos = new FileOutputStream(outputFile)
-        ) {
-            int read;
-            while ((read = bis.read(buffer)) != -1) {
-                fos.write(buffer, 0, read);
+        Path outputFile = new File(BASE_PATH, savePath).toPath();
+
+        /* 임시 파일에 받은 파트는 복사하지 않고 옮긴다 (같은 '/media' 아래이므로 이름만 바뀐다). 메모리에 받은 파트는 임시 파일에 쓴 뒤 옮긴다 */
+        Path source = multiPart.isInFile() ? multiPart.file() : null;
+        try {
+            if (source == null) {
+                source = Files.createTempFile(outputFile.getParent(), "upload-", ".part");
+                Files.write(source, multiPart.partBody());
             }
-        } catch (FileNotFoundException e) {
-            logger.error("[RESOURCE HANDLER ERROR] FILE NOT FOUND {}", e.getMessage());
+            moveReplacing(source, outputFile);
         } catch (IOException e) {
             logger.error("[RESOURCE HANDLER ERROR] IO EXCEPTION {}", e.getMessage());
+            deleteQuietly(multiPart.isInFile() ? null : source);
+            return;
+        }
+
+        /* 같은 경로로 캐시한 이전 파일과 없다고 기억한 경로를 잊는다 */
+        MissingFileCache.getInstance().invalidate(savePath);
+        StaticFileCache.getInstance().invalidate(outputFile);
+        MappedFileStore.getInstance().invalidate(outputFile);
+    }
+
+    private static void moveReplacing(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) { // 다른 파일 시스템이면 복사한 뒤 지운다
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("[RESOURCE HANDLER] cannot delete {}: {}", file, e.getMessage());
         }
     }
 
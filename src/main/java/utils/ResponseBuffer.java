@@ -0,0 +1,297 @@
+package utils;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 응답 하나를 {@link BufferPool} 에서 빌린 버퍼들에 이어 쓰는 OutputStream. ByteArrayOutputStream 과 달리 커질 때 배열을 복사하지 않고 버퍼를 하나씩
+ * 더 빌리며, 전송할 때도 복사하지 않고 {@link #toByteBuffers()} 로 버퍼들을 그대로 gathering write 한다.
+ * <p>
+ * 응답 본문은 {@link #writeBody(byte[])} 로 쓴다. 작은 본문은 헤더와 같은 버퍼에 복사해 버퍼 하나로 보내고, 큰 본문은 복사하지 않고 헤더 뒤에
+ * 이어 붙여 헤더 버퍼와 본문 배열을 gathering write 한 번으로 보낸다. 파일 본문은 {@link #writeFile(FileChannel)} 로 쓰며, 큰 파일은 힙에 읽지
+ * 않고 {@link #fileRegion()} 으로 꺼내 헤더를 보낸 뒤 transferTo 로 보낸다. 메모리 매핑한 파일 구간은 {@link #writeBody(MappedRegion)} 로
+ * 붙여 헤더 버퍼와 함께 gathering write 한다.
+ * <p>
+ * 연결이 {@link #setStreamSink(StreamSink)} 로 보낼 곳을 정해 두면, 응답을 마치기 전에도 {@link #stream()} 으로 지금까지 쓴 내용을 떼어 먼저
+ * 보낼 수 있다 (chunked 응답). 붙인 본문이나 파일도 함께 떼어 내므로, 파일 구간 뒤에 이어 쓸 수 있다 (multipart/byteranges 응답).
+ * <p>
+ * 전송이 끝나면(또는 전송하지 못하고 연결을 닫으면) 반드시 {@link #release()} 로 버퍼를 반납해야 한다. 한 스레드에서만 사용한다.
+ */
+public class ResponseBuffer extends OutputStream {
+    private final BufferPool bufferPool = BufferPool.getInstance();
+    private final List<byte[]> buffers = new ArrayList<>(2);
+    private byte[] current; // 마지막 버퍼
+    private int position = BufferPool.BUFFER_SIZE; // 마지막 버퍼에 쓸 위치. 버퍼가 없으면 가득 찬 것으로 본다
+    private long size = 0;
+    private byte[] body; // 복사하지 않고 이어 붙인 본문. 이어 붙인 뒤에는 더 쓸 수 없다
+    private FileRegion file; // 헤더 뒤에 transferTo 로 보낼 파일 본문. 붙인 뒤에는 더 쓸 수 없다
+    private MappedRegion mapped; // 헤더 뒤에 이어 붙인 메모리 매핑 본문. 붙인 뒤에는 더 쓸 수 없다
+    private StreamSink streamSink; // null 이면 응답을 마친 뒤 한 번에 보낸다
+
+    /**
+     * 응답을 마치기 전에 떼어 낸 앞부분을 연결로 보낸다. 받은 버퍼는 보낸 뒤 반납해야 한다.
+     */
+    @FunctionalInterface
+    public interface StreamSink {
+        void send(ResponseBuffer segment) throws IOException;
+    }
+
+    public void setStreamSink(StreamSink streamSink) {
+        this.streamSink = streamSink;
+    }
+
+    public boolean hasStreamSink() {
+        return streamSink != null;
+    }
+
+    /**
+     * 지금까지 쓴 내용(붙인 본문, 파일 포함)을 새 ResponseBuffer 로 떼어 내 StreamSink 로 보낸다. 이 버퍼는 비워진 채로 이어서 쓸 수 있다.
+     * StreamSink 가 없거나 쓴 내용이 없으면 아무것도 하지 않는다.
+     */
+    public void stream() throws IOException {
+        if (streamSink == null || size == 0) {
+            return;
+        }
+        ResponseBuffer segment = new ResponseBuffer();
+        segment.buffers.addAll(buffers);
+        segment.current = current;
+        segment.position = position;
+        segment.size = size;
+        segment.body = body;
+        segment.file = file;
+        segment.mapped = mapped;
+        buffers.clear();
+        current = null;
+        position = BufferPool.BUFFER_SIZE;
+        size = 0;
+        body = null;
+        file = null;
+        mapped = null;
+        streamSink.send(segment);
+    }
+
+    @Override
+    public void write(int b) {
+        checkWritable();
+        if (position == BufferPool.BUFFER_SIZE) {
+            nextBuffer();
+        }
+        current[position++] = (byte) b;
+        size++;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) {
+        checkWritable();
+        while (length > 0) {
+            if (position == BufferPool.BUFFER_SIZE) {
+                nextBuffer();
+            }
+            int count = Math.min(length, BufferPool.BUFFER_SIZE - position);
+            System.arraycopy(bytes, offset, current, position, count);
+            position += count;
+            offset += count;
+            length -= count;
+            size += count;
+        }
+    }
+
+    /**
+     * 문자열을 UTF-8 로 쓴다. 헤더처럼 ASCII 로만 이루어진 문자열은 byte[] 를 만들지 않고 바로 쓴다.
+     */
+    public void writeString(String string) {
+        int length = string.length();
+        for (int i = 0; i < length; i++) {
+            if (string.charAt(i) >= 0x80) {
+                byte[] bytes = string.getBytes(UTF_8);
+                write(bytes, 0, bytes.length);
+                return;
+            }
+        }
+        for (int i = 0; i < length; i++) {
+            write(string.charAt(i));
+        }
+    }
+
+    /**
+     * 응답 본문을 쓴다. 마지막 버퍼의 남은 공간에 들어가면 복사하고, 들어가지 않으면 복사하지 않고 이어 붙인다. 이어 붙인 배열은 전송이 끝날 때까지
+     * 수정하지 않아야 하며, 본문 뒤에는 더 쓸 수 없다.
+     */
+    public void writeBody(byte[] bytes) {
+        checkWritable();
+        if (bytes.length <= BufferPool.BUFFER_SIZE - position) {
+            write(bytes, 0, bytes.length);
+            return;
+        }
+        body = bytes;
+        size += bytes.length;
+    }
+
+    /**
+     * 메모리 매핑한 파일 구간을 복사하지 않고 응답 본문으로 이어 붙인다. 구간은 이 버퍼가 반납한다.
+     */
+    public void writeBody(MappedRegion region) {
+        checkWritable();
+        mapped = region;
+        size += region.count();
+    }
+
+    /**
+     * 파일 전체를 응답 본문으로 쓴다. 마지막 버퍼의 남은 공간에 들어가는 작은 파일은 버퍼로 바로 읽어 들이고 채널을 닫는다. 큰 파일은 읽지 않고
+     * 붙여 두었다가 보낼 때 transferTo 로 보낸다. 어느 경우든 파일 채널은 이 버퍼가 닫는다.
+     */
+    public void writeFile(FileChannel fileChannel) throws IOException {
+        long count;
+        try {
+            count = fileChannel.size();
+        } catch (IOException e) {
+            fileChannel.close();
+            throw e;
+        }
+        writeFile(fileChannel, 0, count);
+    }
+
+    /**
+     * 파일의 [offset, offset + count) 구간을 응답 본문으로 쓴다 (Range 요청). 작은 구간은 버퍼로 바로 읽어 들이고, 큰 구간은 보낼 때 transferTo 로
+     * 보낸다. 어느 경우든 파일 채널은 이 버퍼가 닫는다.
+     */
+    public void writeFile(FileChannel fileChannel, long offset, long count) throws IOException {
+        checkWritable();
+        if (count <= BufferPool.BUFFER_SIZE - position) {
+            try (fileChannel) {
+                readFully(fileChannel, offset, (int) count);
+            }
+            return;
+        }
+        file = new FileRegion(fileChannel, offset, count);
+        size += count;
+    }
+
+    /**
+     * 헤더 뒤에 보낼 파일 본문. 없으면 null
+     */
+    public FileRegion fileRegion() {
+        return file;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * 쓴 내용을 가리키는 ByteBuffer 들. 복사하지 않으므로 release 하기 전까지만 사용해야 한다.
+     */
+    public ByteBuffer[] toByteBuffers() {
+        ByteBuffer[] byteBuffers = new ByteBuffer[buffers.size() + (body == null ? 0 : 1) + (mapped == null ? 0 : 1)];
+        for (int i = 0; i < buffers.size(); i++) {
+            byteBuffers[i] = ByteBuffer.wrap(buffers.get(i), 0, lengthOf(i));
+        }
+        if (body != null) {
+            byteBuffers[buffers.size()] = ByteBuffer.wrap(body);
+        }
+        if (mapped != null) {
+            byteBuffers[byteBuffers.length - 1] = mapped.buffer();
+        }
+        return byteBuffers;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        for (int i = 0; i < buffers.size(); i++) {
+            out.write(buffers.get(i), 0, lengthOf(i));
+        }
+        if (body != null) {
+            out.write(body);
+        }
+        if (mapped != null) {
+            WritableByteChannel channel = Channels.newChannel(out);
+            ByteBuffer buffer = mapped.buffer();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        if (file != null) {
+            file.transferAll(Channels.newChannel(out));
+        }
+    }
+
+    public byte[] toByteArray() throws IOException {
+        byte[] bytes = new byte[Math.toIntExact(size)];
+        int offset = 0;
+        for (int i = 0; i < buffers.size(); i++) {
+            System.arraycopy(buffers.get(i), 0, bytes, offset, lengthOf(i));
+            offset += lengthOf(i);
+        }
+        if (body != null) {
+            System.arraycopy(body, 0, bytes, offset, body.length);
+        }
+        if (mapped != null) {
+            mapped.buffer().get(bytes, offset, Math.toIntExact(mapped.count()));
+        }
+        if (file != null) {
+            byte[] fileBytes = file.readAll();
+            System.arraycopy(fileBytes, 0, bytes, offset, fileBytes.length);
+        }
+        return bytes;
+    }
+
+    /**
+     * 빌린 버퍼를 모두 반납한다. 여러 번 호출해도 한 번만 반납한다.
+     */
+    public void release() {
+        for (byte[] buffer : buffers) {
+            bufferPool.release(buffer);
+        }
+        buffers.clear();
+        current = null;
+        position = BufferPool.BUFFER_SIZE;
+        size = 0;
+        body = null;
+        if (mapped != null) {
+            mapped.close();
+            mapped = null;
+        }
+        if (file != null) {
+            file.close();
+            file = null;
+        }
+    }
+
+    private int lengthOf(int index) {
+        return index == buffers.size() - 1 ? position : BufferPool.BUFFER_SIZE;
+    }
+
+    private void readFully(FileChannel fileChannel, long offset, int count) throws IOException {
+        if (count == 0) {
+            return;
+        }
+        ByteBuffer target = ByteBuffer.wrap(current, position, count);
+        while (target.hasRemaining()) {
+            if (fileChannel.read(target, offset + target.position() - position) == -1) {
+                throw new EOFException("file is truncated while reading");
+            }
+        }
+        position += count;
+        size += count;
+    }
+
+    private void checkWritable() {
+        if (body != null || file != null || mapped != null) {
+            throw new IllegalStateException("response body is already written");
+        }
+    }
+
+    private void nextBuffer() {
+        current = bufferPool.acquire();
+        buffers.add(current);
+        position = 0;
+    }
+}
@@ -0,0 +1,271 @@
+package utils;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+import static utils.ResourceHandler.FILE_EXTENSION_MAP;
+import static utils.ResourceHandler.getExtension;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 자주 요청하는 정적 파일의 내용, Content-Type, 검증자(ETag, Last-Modified)를 메모리에 보관하는 캐시. 캐시에 있는 파일은 파일을 열거나 속성을 읽지
+ * 않고(시스템 콜 없이) 응답한다.
+ * <p>
+ * 전체 크기가 MAX_BYTES 를 넘으면 가장 오래 사용하지 않은 파일부터 뺀다 (LRU). MAX_ENTRY_BYTES 보다 큰 파일은 캐시하지 않고 transferTo 로 보낸다.
+ * <p>
+ * 파일이 바뀌면 캐시에서 뺀다. 캐시한 파일의 디렉토리를 {@link WatchService} 에 등록해 두고, 백그라운드 스레드가 생성, 수정, 삭제 이벤트를 받으면 그
+ * 파일을 뺀다. WatchService 를 사용할 수 없는 파일 시스템의 파일은 캐시하지 않는다.
+ */
+public final class StaticFileCache implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(StaticFileCache.class);
+    /* 캐시할 전체 크기, 파일 하나의 최대 크기 */
+    private static final long MAX_BYTES = Long.getLong("server.staticCache.maxBytes", 32 * 1024 * 1024); // 32MB
+    private static final long MAX_ENTRY_BYTES = Long.getLong("server.staticCache.maxEntryBytes", 1024 * 1024); // 1MB
+    private static final StaticFileCache INSTANCE = new StaticFileCache(MAX_BYTES, MAX_ENTRY_BYTES);
+
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Path, Entry> entries = new LinkedHashMap<>(64, 0.75f, true); // 사용한 순서
+    private long totalBytes = 0;
+    private final WatchService watchService; // null 이면 캐시하지 않는다
+    private final Set<Path> watchedDirectories = ConcurrentHashMap.newKeySet();
+    private final AtomicLong changes = new AtomicLong(); // 받은 파일 변경 이벤트 수
+
+    /**
+     * 캐시한 파일. 내용 배열은 여러 응답이 함께 쓰므로 수정하지 않아야 한다.
+     */
+    public record Entry(byte[] content, String contentType, FileValidator validator) {
+    }
+
+    StaticFileCache(long maxBytes, long maxEntryBytes) {
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = maxEntryBytes;
+        this.watchService = newWatchService();
+        if (watchService != null) {
+            Thread watcher = new Thread(this::watch, "static-cache-watcher");
+            watcher.setDaemon(true);
+            watcher.start();
+        }
+    }
+
+    public static StaticFileCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 캐시한 파일을 찾는다. 파일 시스템에 접근하지 않는다.
+     *
+     * @return 캐시에 없으면 null
+     */
+    public Entry get(Path file) {
+        Path key = key(file);
+        lock.lock();
+        try {
+            return entries.get(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 캐시할 수 있는 크기의 파일인지 확인한다.
+     */
+    public boolean isCacheable(FileValidator validator) {
+        return watchService != null && validator.size() <= Math.min(maxEntryBytes, maxBytes);
+    }
+
+    /**
+     * 파일을 읽어 캐시에 넣는다. 디렉토리를 먼저 감시한 뒤 속성과 내용을 읽으므로, 읽은 뒤의 변경은 이벤트로 알 수 있다. 읽는 동안 변경 이벤트를 받았으면
+     * 읽은 내용이 검증자와 다를 수 있으므로 캐시하지 않는다.
+     *
+     * @return 캐시한 파일. 파일이 없거나, 너무 크거나, 감시할 수 없으면 null
+     */
+    public Entry load(Path file) {
+        if (watchService == null) {
+            return null;
+        }
+        Path key = key(file);
+        if (!watch(key.getParent())) {
+            return null;
+        }
+
+        long changesBefore = changes.get();
+        FileValidator validator = FileValidator.of(key);
+        if (validator == null || !isCacheable(validator)) {
+            return null;
+        }
+        byte[] content;
+        try {
+            content = Files.readAllBytes(key);
+        } catch (IOException e) {
+            logger.error("[STATIC CACHE ERROR] {}", e.getMessage());
+            return null;
+        }
+        if (content.length != validator.size()) { // 읽는 동안 바뀌었다
+            return null;
+        }
+
+        Entry entry = new Entry(content, FILE_EXTENSION_MAP.getOrDefault(getExtension(key.toString()), "text/html"),
+                validator);
+        lock.lock();
+        try {
+            if (changes.get() != changesBefore) {
+                return null;
+            }
+            remove(key);
+            entries.put(key, entry);
+            totalBytes += content.length;
+            evict();
+        } finally {
+            lock.unlock();
+        }
+        return entry;
+    }
+
+    /**
+     * 캐시한 파일들의 전체 크기
+     */
+    public long size() {
+        lock.lock();
+        try {
+            return totalBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 파일 감시를 멈추고 캐시를 비운다.
+     */
+    @Override
+    public void close() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                logger.error("[STATIC CACHE ERROR] {}", e.getMessage());
+            }
+        }
+        invalidate(path -> true);
+    }
+
+    private static Path key(Path file) {
+        return file.toAbsolutePath().normalize();
+    }
+
+    private static WatchService newWatchService() {
+        try {
+            return FileSystems.getDefault().newWatchService();
+        } catch (IOException | UnsupportedOperationException e) {
+            logger.warn("[STATIC CACHE] file watch is not supported. static files are not cached: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean watch(Path directory) {
+        if (watchedDirectories.contains(directory)) {
+            return true;
+        }
+        try {
+            directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+            watchedDirectories.add(directory);
+            return true;
+        } catch (IOException | ClosedWatchServiceException | UnsupportedOperationException e) {
+            logger.debug("[STATIC CACHE] cannot watch {}: {}", directory, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 감시 스레드. 파일 변경 이벤트를 받으면 그 파일을 캐시에서 뺀다. 이벤트를 놓쳤거나(OVERFLOW) 디렉토리를 더 감시할 수 없으면 그 디렉토리의 파일을
+     * 모두 뺀다.
+     */
+    private void watch() {
+        while (true) {
+            WatchKey watchKey;
+            try {
+                watchKey = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            Path directory = (Path) watchKey.watchable();
+            for (WatchEvent<?> event : watchKey.pollEvents()) {
+                changes.incrementAndGet();
+                if (event.kind() == OVERFLOW) {
+                    invalidate(path -> directory.equals(path.getParent()));
+                    continue;
+                }
+                invalidate(directory.resolve((Path) event.context()));
+            }
+            if (!watchKey.reset()) { // 디렉토리가 지워졌다
+                watchedDirectories.remove(directory);
+                invalidate(path -> directory.equals(path.getParent()));
+            }
+        }
+    }
+
+    private void invalidate(Predicate<Path> matches) {
+        lock.lock();
+        try {
+            Iterator<Map.Entry<Path, Entry>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Path, Entry> entry = iterator.next();
+                if (matches.test(entry.getKey())) {
+                    totalBytes -= entry.getValue().content().length;
+                    iterator.remove();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 파일을 캐시에서 뺀다. 감시 스레드가 이벤트를 받기 전에 바꾼 파일(업로드)을 바로 빼야 할 때 사용한다.
+     */
+    public void invalidate(Path file) {
+        lock.lock();
+        try {
+            remove(key(file));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void remove(Path key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            totalBytes -= removed.content().length;
+        }
+    }
+
+    /* 가장 오래 사용하지 않은 파일부터 뺀다 */
+    private void evict() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            totalBytes -= iterator.next().content().length;
+            iterator.remove();
+        }
+    }
+}
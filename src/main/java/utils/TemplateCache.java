@@ -0,0 +1,63 @@
+package utils;
+
+import static utils.HttpConstant.CRLF;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 템플릿 파일 경로 → {@link HtmlTemplate} 캐시. 템플릿은 처음 요청할 때 한 번 읽어 컴파일하고, 이후 요청은 디스크를 읽거나 다시 파싱하지 않는다.
+ * <p>
+ * 템플릿은 배포할 때 정해지므로 {@link AssetIndex} 처럼 서버가 실행되는 동안 바뀌지 않는다고 보고 무효화하지 않는다. 읽지 못한 템플릿은 캐시하지
+ * 않는다.
+ */
+public final class TemplateCache {
+    private static final Logger logger = LoggerFactory.getLogger(TemplateCache.class);
+    private static final HtmlTemplate EMPTY = HtmlTemplate.compile("");
+    private static final TemplateCache INSTANCE = new TemplateCache();
+
+    // computeIfAbsent 는 파일을 읽고 컴파일하는 동안 같은 bin 의 다른 템플릿 조회까지 막으므로 get/putIfAbsent 로 나눈다
+    private final Map<Path, HtmlTemplate> templates = new ConcurrentHashMap<>();
+
+    TemplateCache() {
+    }
+
+    public static TemplateCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param templateName {@link ResourceHandler#readTemplate(String)} 에 넘기는 이름 ('/index.html', '/')
+     * @return 컴파일한 템플릿. 파일이 없거나 읽을 수 없으면 빈 템플릿
+     */
+    public HtmlTemplate get(String templateName) {
+        return get(ResourceHandler.templatePath(templateName));
+    }
+
+    public HtmlTemplate get(Path path) {
+        HtmlTemplate template = templates.get(path);
+        if (template != null) {
+            return template;
+        }
+
+        // ResourceHandler.readTemplate 과 같이 줄바꿈을 CRLF 로 맞춘다
+        try {
+            template = HtmlTemplate.compile(Files.readString(path).lines().collect(Collectors.joining(CRLF)));
+        } catch (IOException e) {
+            logger.error("[TEMPLATE CACHE ERROR] {}", e.getMessage());
+            return EMPTY;
+        }
+        HtmlTemplate previous = templates.putIfAbsent(path, template); // 동시에 컴파일했으면 먼저 넣은 것을 쓴다
+        return previous != null ? previous : template;
+    }
+
+    public int size() {
+        return templates.size();
+    }
+}
@@ -10,13 +10,12 @@ import http.HttpRequest;
 import http.HttpRequest.HttpMethod;
 import http.HttpRequest.MultiPart;
 import http.HttpResponse;
+import http.HttpStatus;
 import java.io.File;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import model.Article;
 import session.SessionManager;
 import session.SessionManager.SessionUser;
@@ -43,16 +42,12 @@ public class ArticleWrite extends DynamicHtmlProcessor {
         SessionUser sessionUser = session.get(); // 세션 유저 가져오기
 
         if (request.getMethod().equals(HttpMethod.GET)) {
-            /* 기본 html 생성 */
-            String template = readTemplate("/article/write.html");
-            htmlBuilder.append(template);
-
             /* 로그인 유저 동적 페이지 생성 */
-            changeHtml("<!-- target user -->", "<!-- end user -->", sessionUser.name());
+            Map<String, byte[]> values = Map.of("user", sessionUser.name().getBytes(UTF_8));
 
             /* 200 응답, html 출력 */
             responseHeader200(response, getContentType(request));
-            responseMessage(response, htmlBuilder);
+            response.setMessageBody(template("/article/write.html"), values);
 
             response.flush();
             return;
@@ -68,16 +63,28 @@ public class ArticleWrite extends DynamicHtmlProcessor {
         response.flush();
     }
 
+    /**
+     * 로그인하지 않은 사용자의 게시글 업로드는 사진을 받기 전에 401 로 거절한다.
+     */
+    @Override
+    public HttpStatus checkExpectation(HttpRequest request) {
+        String sessionId = sessionManager.findSessionId(request.getCookie(), "SID");
+        if (request.getMethod().equals(HttpMethod.POST) && sessionManager.getSession(sessionId).isEmpty()) {
+            return HttpStatus.STATUS_UNAUTHORIZED;
+        }
+        return HttpStatus.STATUS_CONTINUE;
+    }
+
     private Article createArticle(HttpRequest request, String userId) {
         MultiPart articlePart = request.getPart("article-body");
         MultiPart photoPart = request.getPart("photo");
 
         String savePath = makeSavePath(photoPart, userId); // 이미지 저장 경로 '/media/userId/finaName.jpg'
 
-        if (photoPart.partBody() != null && photoPart.partBody().length > 0) {
+        if (!photoPart.isEmpty()) {
             createDirectory(BASE_PATH + MEDIA_PATH, userId); // '/media' 경로에 '/userId' 폴더 생성
-            ExecutorService imageExecutor = Executors.newSingleThreadExecutor();
-            CompletableFuture.runAsync(() -> saveImage(photoPart, savePath), imageExecutor); // '/media/userId' 폴더에 이미지 저장
+            // '/media/userId' 폴더에 이미지 저장. 임시 파일은 요청 처리가 끝나면 지워지므로 처리 중에 옮긴다 (임시 파일은 이름만 바꾼다)
+            saveImage(photoPart, savePath);
         }
 
 
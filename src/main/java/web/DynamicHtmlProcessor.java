@@ -1,20 +1,25 @@
 package web;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 import db.ArticleDatabase;
 import http.Cookie;
 import http.HttpRequest;
 import http.HttpResponse;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import model.Article;
 import session.SessionManager;
 import session.SessionManager.SessionUser;
-import utils.ResourceHandler;
+import utils.HtmlTemplate;
+import utils.TemplateCache;
 
 public class DynamicHtmlProcessor extends HttpProcessor {
 
     private final SessionManager sessionManager = new SessionManager();
-    public final StringBuilder htmlBuilder = new StringBuilder();
+    private final TemplateCache templateCache = TemplateCache.getInstance();
 
     @Override
     public void process(HttpRequest request, HttpResponse response) {
@@ -26,43 +31,33 @@ public class DynamicHtmlProcessor extends HttpProcessor {
         /* 세션 아이디로부터 세션 유저(Optional) 가져오기 */
         Optional<SessionUser> sessionUser = sessionManager.getSession(sessionId);
 
-        /* 기본 HTML 작성 */
-        String htmlTemplate = readTemplate(request.getPath());
-        htmlBuilder.append(htmlTemplate);
+        /* 기본 HTML 작성 (요청마다 만든 값만 자리에 넣는다) */
+        HtmlTemplate template = template(request.getPath());
+        Map<String, byte[]> values = new HashMap<>();
 
         /* 세션 유저가 존재하면 user id 표시 */
         if (sessionUser.isPresent()) {
             SessionUser user = sessionUser.get();
-            String userProfile = createUserProfile(user.id());
-            changeHtml("<!-- target user -->", "<!-- end user -->", userProfile);
+            values.put("user", createUserProfile(user.id()).getBytes(UTF_8));
 
             /* 작성한 게시글이 있으면 게시글 내용 입력 */
             Optional<Article> optionalArticle = ArticleDatabase.findLatest(user.id());
-            optionalArticle.ifPresent(this::createImage);
-            optionalArticle.ifPresent(this::createArticleBody);
+            optionalArticle.ifPresent(article -> createImage(article, values));
+            optionalArticle.ifPresent(article -> createArticleBody(article, values));
         }
 
         /* http response 작성 */
         responseHeader200(response, getContentType(request));
-        responseMessage(response, htmlBuilder);
+        response.setMessageBody(template, values);
 
         response.flush();
     }
 
-    public String readTemplate(String templateName) {
-        return ResourceHandler.readTemplate(templateName);
-    }
-
     /**
-     * HTML 문자열에서 주어진 시작 문자열(start)과 끝 문자열(end) 사이의 내용을 지우고, 대체할 새로운 템플릿(template)을 삽입한다.
-     *
-     * @param start    대체할 문자열의 시작 부분
-     * @param end      대체할 문자열의 마지막 부분
-     * @param template 대체할 새로운 템플릿 문자열
+     * 컴파일해 둔 템플릿. 처음 요청할 때만 파일을 읽는다. 템플릿은 여러 요청이 함께 쓰므로, 요청마다 바뀌는 값은 렌더링할 때 넘긴다.
      */
-    public void changeHtml(String start, String end, String template) {
-        htmlBuilder.replace(htmlBuilder.indexOf(start) + start.length(), htmlBuilder.indexOf(end), "");
-        htmlBuilder.insert(htmlBuilder.indexOf(start), template);
+    public HtmlTemplate template(String templateName) {
+        return templateCache.get(templateName);
     }
 
     private String createUserProfile(String userId) {
@@ -82,13 +77,13 @@ public class DynamicHtmlProcessor extends HttpProcessor {
                 """, userId);
     }
 
-    private void createImage(Article article) {
+    private void createImage(Article article, Map<String, byte[]> values) {
         if (article.isImageExist()) {
-            changeHtml("<!-- target photo -->", "<!-- end photo -->", "<img class=\"post__img\" src=\"" + article.imagePath() + "\"/>");
+            values.put("photo", ("<img class=\"post__img\" src=\"" + article.imagePath() + "\"/>").getBytes(UTF_8));
         }
     }
 
-    private void createArticleBody(Article article) {
-        changeHtml("<!-- target article -->", "<!-- end article -->", article.body());
+    private void createArticleBody(Article article, Map<String, byte[]> values) {
+        values.put("article", article.body().getBytes(UTF_8));
     }
 }
@@ -1,14 +1,17 @@
 package web;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static utils.ResourceHandler.*;
 
 import http.HttpRequest;
 import http.HttpResponse;
 import http.HttpStatus;
+import http.ResponseWriter;
 
 public abstract class HttpProcessor implements Processor {
     public static final String BASIC_HTTP_VERSION = "HTTP/1.1";
     public static final String BASIC_CHAR_SET = "utf-8";
+    private static final byte[] NOT_FOUND_BODY = "not found".getBytes(UTF_8);
 
     @Override
     public void process(HttpRequest request, HttpResponse response) {
@@ -28,20 +31,31 @@ public abstract class HttpProcessor implements Processor {
                 .setCharset(BASIC_CHAR_SET);
     }
 
+    /**
+     * 처리할 수 있지만 대상이 없는 요청(없는 정적 파일)의 404 응답
+     */
+    public void responseNotFound(HttpResponse response) {
+        response.setHttpVersion(BASIC_HTTP_VERSION)
+                .setStatusCode(HttpStatus.STATUS_NOT_FOUND)
+                .setContentType("text/plain")
+                .setCharset(BASIC_CHAR_SET)
+                .setMessageBody(NOT_FOUND_BODY);
+    }
+
     public void responseMessage(HttpResponse response, byte[] resource) {
         response.setContentLength(resource.length)
                 .setMessageBody(resource);
     }
 
-    public void responseMessage(HttpResponse response, StringBuilder builder) {
-        response.setContentLength(builder.toString().getBytes().length)
-                .setMessageBody(builder.toString());
-
-        builder.setLength(0); // StringBuilder 초기화
+    /**
+     * 길이를 미리 알 수 없는 본문을 만들면서 쓸 writer. 헤더를 쓴 뒤 만들고, 본문을 모두 쓴 뒤 close 한다. HTTP/1.0 요청은 chunked 로 보내지 않는다.
+     */
+    public ResponseWriter responseWriter(HttpRequest request, HttpResponse response) {
+        return new ResponseWriter(response, !"HTTP/1.0".equals(request.getHttpVersion()));
     }
 
     public String getContentType(HttpRequest request) {
-        String extension = getExtension(request.getRequestURI());
+        String extension = getExtension(request.getPath());
         return FILE_EXTENSION_MAP.getOrDefault(extension, "text/html");
     }
 }
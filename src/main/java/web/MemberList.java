@@ -1,13 +1,16 @@
 package web;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static utils.HttpConstant.CRLF;
 
 import db.Database;
 import http.Cookie;
 import http.HttpRequest;
 import http.HttpResponse;
+import http.ResponseWriter;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import model.User;
 import session.SessionManager;
@@ -34,33 +37,28 @@ public class MemberList extends DynamicHtmlProcessor {
         SessionUser sessionUser = optionalSession.get();
         String userName = sessionUser.id();
 
-        /* 기본 html 생성 */
-        String template = readTemplate("/user/user-list.html");
-        htmlBuilder.append(template);
+        /* 기본 html 생성 (유저 이름을 넣고, 유저 테이블은 그 자리를 쓸 차례에 만든다) */
+        Map<String, byte[]> values = Map.of("user", userName.getBytes(UTF_8));
 
-        /* 가입된 User List 테이블 추가 */
-        changeHtml("<!-- target user -->", "<!-- end user -->", userName);
-        changeHtml("<!-- target list -->", "<!-- end list -->", createUserTable(Database.findAll()));
-
-        /* http response 작성 */
+        /* http response 작성: 유저 수와 관계없이 테이블을 만드는 동안 먼저 보낸다 */
         responseHeader200(response, getContentType(request));
-        responseMessage(response, htmlBuilder);
-
-        response.flush();
+        try (ResponseWriter writer = responseWriter(request, response)) {
+            template("/user/user-list.html").render(values, writer::write, "list",
+                    () -> writeUserTable(writer, Database.findAll()));
+        }
     }
 
-    private String createUserTable(Collection<User> users) {
-        StringBuilder htmlBuilder = new StringBuilder();
-
+    private void writeUserTable(ResponseWriter writer, Collection<User> users) {
         /* User List 작성 */
+        StringBuilder row = new StringBuilder();
         for (User user : users) {
-            htmlBuilder.append("<tr>");
-            htmlBuilder.append("<td>" + user.getUserId() + "</td>");
-            htmlBuilder.append("<td>" + user.getName() + "</td>");
-            htmlBuilder.append("<td>" + user.getEmail() + "</td>");
-            htmlBuilder.append("</tr>");
+            row.setLength(0);
+            row.append("<tr>");
+            row.append("<td>").append(user.getUserId()).append("</td>");
+            row.append("<td>").append(user.getName()).append("</td>");
+            row.append("<td>").append(user.getEmail()).append("</td>");
+            row.append("</tr>");
+            writer.write(row.toString());
         }
-
-        return htmlBuilder.toString();
     }
 }
@@ -2,7 +2,18 @@ package web;
 
 import http.HttpRequest;
 import http.HttpResponse;
+import http.HttpStatus;
 
 public interface Processor {
     void process(HttpRequest request, HttpResponse response);
+
+    /**
+     * 'Expect: 100-continue' 요청의 본문을 받기 전에 헤더만으로 요청을 받을지 확인한다. 거절하면 클라이언트는 본문을 보내지 않는다.
+     *
+     * @param request 헤더만 변환한 요청
+     * @return 본문을 받아도 되면 STATUS_CONTINUE, 아니면 거절할 응답 상태
+     */
+    default HttpStatus checkExpectation(HttpRequest request) {
+        return HttpStatus.STATUS_CONTINUE;
+    }
 }
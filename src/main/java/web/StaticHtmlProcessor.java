@@ -4,31 +4,152 @@ import static utils.ResourceHandler.*;
 
 import http.HttpRequest;
 import http.HttpResponse;
+import http.HttpStatus;
 import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+import utils.AsciiString;
+import utils.AssetIndex;
+import utils.ByteRange;
+import utils.FileValidator;
+import utils.HttpHeaderNames;
+import utils.MappedFileStore;
+import utils.MappedRegion;
+import utils.MissingFileCache;
+import utils.StaticFileCache;
 
 public class StaticHtmlProcessor extends HttpProcessor {
+    private final AssetIndex assetIndex = AssetIndex.getInstance();
+    private final StaticFileCache staticFileCache = StaticFileCache.getInstance();
+    private final MappedFileStore mappedFileStore = MappedFileStore.getInstance();
+    private final MissingFileCache missingFileCache = MissingFileCache.getInstance();
+
     @Override
     public void process(HttpRequest request, HttpResponse response) {
-        byte[] resource = getBytes(request);
+        if (missingFileCache.isMissing(request.getPath())) { // 최근에 없었던 파일은 파일 시스템에 접근하지 않는다
+            responseNotFound(response);
+            response.flush();
+            return;
+        }
+
+        AssetIndex.Asset asset = assetIndex.find(request.getPath()); // 시작할 때 만든 색인에 없으면 경로를 만들어 찾는다
+        Path file = asset != null ? asset.file() : Path.of(getFilePath(request));
+        String contentType = asset != null ? asset.contentType() : getContentType(request);
+        StaticFileCache.Entry cached = staticFileCache.get(file); // 캐시한 파일은 파일 시스템에 접근하지 않는다
+        FileValidator validator = cached != null ? cached.validator() : FileValidator.of(file);
+        if (validator == null) { // 없는 파일. 지워진 파일이면 매핑을 해제한다
+            mappedFileStore.invalidate(file);
+            missingFileCache.add(request.getPath());
+            responseNotFound(response);
+            response.flush();
+            return;
+        }
+
+        /* 클라이언트가 가진 파일이 최신이면 본문 없이 304 로 응답한다 */
+        if (validator.isNotModified(
+                request.getHeader(HttpHeaderNames.IF_NONE_MATCH), request.getHeader(HttpHeaderNames.IF_MODIFIED_SINCE))) {
+            responseHeader304(response, validator);
+            response.flush();
+            return;
+        }
+
+        /* 검증자가 같으면(If-Range) 요청한 구간만 206 으로 보낸다. 해석할 수 없는 Range 는 무시하고 전체를 보낸다 */
+        AsciiString range = request.getHeader(HttpHeaderNames.RANGE);
+        if (!range.isEmpty() && validator.matchesIfRange(request.getHeader(HttpHeaderNames.IF_RANGE))) {
+            List<ByteRange> ranges = ByteRange.parse(range, validator.size());
+            if (ranges != null) {
+                processRange(response, file, contentType, validator, ranges);
+                response.flush();
+                return;
+            }
+        }
+
+        if (cached == null && staticFileCache.isCacheable(validator)) {
+            cached = staticFileCache.load(file);
+        }
+        if (cached != null) {
+            responseHeader200(response, cached.contentType());
+            response.setETag(cached.validator().etag())
+                    .setLastModified(cached.validator().lastModified())
+                    .setAcceptRanges()
+                    .setMessageBody(cached.content());
+
+            response.flush();
+            return;
+        }
 
-        responseHeader200(response, getContentType(request));
-        responseMessage(response, resource);
+        responseHeader200(response, contentType);
+        response.setETag(validator.etag())
+                .setLastModified(validator.lastModified())
+                .setAcceptRanges();
+        MappedRegion mapped = mappedFileStore.acquire(file, validator); // 큰 파일은 매핑한 페이지를 소켓으로 바로 보낸다
+        if (mapped != null) {
+            response.setMessageBody(mapped);
+        } else {
+            response.setMessageBody(file); // 파일을 힙에 읽지 않고 transferTo 로 보낸다
+        }
 
         response.flush();
     }
 
+    private void processRange(HttpResponse response, Path file, String contentType, FileValidator validator,
+                              List<ByteRange> ranges) {
+        if (ranges.isEmpty()) { // 파일 안의 구간이 없다
+            response.setHttpVersion(BASIC_HTTP_VERSION)
+                    .setStatusCode(HttpStatus.STATUS_RANGE_NOT_SATISFIABLE)
+                    .setUnsatisfiedContentRange(validator.size())
+                    .setMessageBody(new byte[0]);
+            return;
+        }
+
+        response.setHttpVersion(BASIC_HTTP_VERSION)
+                .setStatusCode(HttpStatus.STATUS_PARTIAL_CONTENT)
+                .setETag(validator.etag())
+                .setLastModified(validator.lastModified());
+        if (ranges.size() == 1) {
+            ByteRange byteRange = ranges.get(0);
+            response.setContentType(contentType)
+                    .setCharset(BASIC_CHAR_SET)
+                    .setContentRange(byteRange, validator.size());
+            MappedRegion mapped = mappedFileStore.acquire(file, validator, byteRange.start(), byteRange.length());
+            if (mapped != null) {
+                response.setMessageBody(mapped);
+            } else {
+                response.setMessageBody(file, byteRange);
+            }
+            return;
+        }
+        response.setMessageBody(file, ranges, contentType, validator.size());
+    }
+
+    private void responseHeader304(HttpResponse response, FileValidator validator) {
+        response.setHttpVersion(BASIC_HTTP_VERSION)
+                .setStatusCode(HttpStatus.STATUS_NOT_MODIFIED)
+                .setETag(validator.etag())
+                .setLastModified(validator.lastModified())
+                .endHeader();
+    }
+
     public byte[] getBytes(HttpRequest request) {
-        String extension = getExtension(request.getRequestURI());
+        return read(getFilePath(request));
+    }
+
+    /**
+     * 쿼리를 제외한 경로로 파일을 찾는다. 없는 파일도 같은 경로로 기억하므로 쿼리가 다른 요청이 서로의 결과에 영향을 주지 않는다.
+     */
+    public String getFilePath(HttpRequest request) {
+        String path = request.getPath();
+        String extension = getExtension(path);
 
         if (FILE_EXTENSION_MAP.containsKey(extension)) { // 파일 확장자가 존재하면
-            if (request.getRequestURI().startsWith(MEDIA_PATH)) {
-                return read(BASE_PATH + request.getRequestURI());
+            if (path.startsWith(MEDIA_PATH)) {
+                return BASE_PATH + path;
             }
-            return read(BASE_PATH + STATIC_PATH + request.getRequestURI());
+            return BASE_PATH + STATIC_PATH + path;
         }
-        if (request.getPath().equals("/")) { // localhost:8080/
-            return read(BASE_PATH + STATIC_PATH + File.separator + INDEX_HTML);
+        if (path.equals("/")) { // localhost:8080/
+            return BASE_PATH + STATIC_PATH + File.separator + INDEX_HTML;
         }
-        return read(BASE_PATH + STATIC_PATH + request.getPath() + File.separator + INDEX_HTML); // /registration
+        return BASE_PATH + STATIC_PATH + path + File.separator + INDEX_HTML; // /registration
     }
 }
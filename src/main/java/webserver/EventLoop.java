@@ -0,0 +1,179 @@
+package webserver;
+
+import java.io.IOException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 하나의 Selector 를 소유하는 이벤트 루프 스레드. 자신에게 등록된 채널의 accept/read/write 이벤트만 처리하고, 블로킹이 발생할 수 있는 Processor
+ * 실행은 processorExecutor 에 넘긴다. 다른 스레드에서 채널 상태를 바꾸고 싶으면 {@link #execute(Runnable)} 로 작업을 넘겨야 한다.
+ */
+public class EventLoop implements Runnable {
+    private static final Logger logger = LoggerFactory.getLogger(EventLoop.class);
+    private static final long IDLE_CHECK_INTERVAL_MILLIS = 1_000;
+    private final Selector selector;
+    private final Executor processorExecutor;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private volatile boolean running = true;
+    private long lastIdleCheckMillis = System.currentTimeMillis();
+
+    public EventLoop(Executor processorExecutor) throws IOException {
+        this.selector = Selector.open();
+        this.processorExecutor = processorExecutor;
+    }
+
+    /**
+     * 이벤트 루프 스레드에서 실행할 작업을 등록하고 select() 대기 중인 루프를 깨운다.
+     */
+    public void execute(Runnable task) {
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    /**
+     * 서버 소켓 채널의 accept 이벤트를 이 루프에 등록한다. 새 연결은 nextLoop 가 골라준 루프에 분배된다.
+     */
+    public void registerAcceptor(ServerSocketChannel serverChannel, Supplier<EventLoop> nextLoop) {
+        execute(() -> {
+            try {
+                serverChannel.register(selector, SelectionKey.OP_ACCEPT, nextLoop);
+            } catch (IOException e) {
+                logger.error("[EVENT LOOP ERROR] acceptor register fail: {}", e.getMessage());
+            }
+        });
+    }
+
+    public void register(SocketChannel channel) {
+        execute(() -> {
+            try {
+                channel.configureBlocking(false);
+                NioConnection connection = new NioConnection(channel, this);
+                connection.setKey(channel.register(selector, SelectionKey.OP_READ, connection));
+            } catch (IOException e) {
+                logger.error("[EVENT LOOP ERROR] channel register fail: {}", e.getMessage());
+                closeQuietly(channel);
+            }
+        });
+    }
+
+    /**
+     * 파싱이 끝난 요청 처리를 Processor 실행용 스레드 풀에 넘긴다.
+     */
+    public void dispatch(Runnable processing) {
+        processorExecutor.execute(processing);
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                selector.select(IDLE_CHECK_INTERVAL_MILLIS);
+                runTasks();
+                processSelectedKeys();
+                closeIdleConnections();
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            logger.error("[EVENT LOOP ERROR] {}", e.getMessage());
+        } finally {
+            closeAll();
+        }
+    }
+
+    public void shutdown() {
+        running = false;
+        selector.wakeup();
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private void processSelectedKeys() {
+        Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+            SelectionKey key = keys.next();
+            keys.remove();
+
+            if (!key.isValid()) {
+                continue;
+            }
+            if (key.isAcceptable()) {
+                accept(key);
+                continue;
+            }
+
+            NioConnection connection = (NioConnection) key.attachment();
+            try {
+                if (key.isReadable()) {
+                    connection.onReadable();
+                }
+                if (key.isValid() && key.isWritable()) {
+                    connection.onWritable();
+                }
+            } catch (IOException e) {
+                logger.debug("[EVENT LOOP] connection closed: {}", e.getMessage());
+                connection.close();
+            }
+        }
+    }
+
+    /**
+     * keep-alive 유휴 시간을 넘긴 연결을 닫는다. 연결이 많아도 부담이 없도록 IDLE_CHECK_INTERVAL_MILLIS 마다 한 번만 검사한다.
+     */
+    private void closeIdleConnections() {
+        long now = System.currentTimeMillis();
+        if (now - lastIdleCheckMillis < IDLE_CHECK_INTERVAL_MILLIS) {
+            return;
+        }
+        lastIdleCheckMillis = now;
+
+        for (SelectionKey key : selector.keys()) {
+            if (key.isValid() && key.attachment() instanceof NioConnection connection) {
+                connection.closeIfIdle(now);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void accept(SelectionKey key) {
+        ServerSocketChannel serverChannel = (ServerSocketChannel) key.channel();
+        Supplier<EventLoop> nextLoop = (Supplier<EventLoop>) key.attachment();
+        try {
+            SocketChannel channel;
+            while ((channel = serverChannel.accept()) != null) { // 대기 중인 연결을 한 번에 모두 받는다
+                logger.debug("New Client Connect! Connected : {}", channel.getRemoteAddress());
+                nextLoop.get().register(channel);
+            }
+        } catch (IOException e) {
+            logger.error("[EVENT LOOP ERROR] accept fail: {}", e.getMessage());
+        }
+    }
+
+    private void closeAll() {
+        for (SelectionKey key : selector.keys()) {
+            closeQuietly(key.channel());
+        }
+        closeQuietly(selector);
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            logger.debug("[EVENT LOOP] close fail: {}", e.getMessage());
+        }
+    }
+}
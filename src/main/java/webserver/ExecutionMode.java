@@ -0,0 +1,30 @@
+package webserver;
+
+import java.util.Arrays;
+
+/**
+ * 웹 서버의 연결 처리 방식. 실행 인자의 두 번째 값(ex. {@code 8080 nio})으로 선택하며, 없거나 알 수 없는 값이면 THREAD_POOL 을 사용한다.
+ * <p>
+ * VIRTUAL_THREAD 모드에서 가상 스레드가 synchronized 블록 안에서 블로킹하면 carrier 스레드에 고정(pinning)되어, 그동안 그 carrier 에서 다른
+ * 가상 스레드를 실행하지 못한다. 따라서 요청을 처리하는 코드는 공유 상태를 synchronized 대신 {@link java.util.concurrent.locks.ReentrantLock}
+ * 으로 잠그고, 내부에서 synchronized 로 I/O 하는 클래스(DataOutputStream, BufferedReader)를 사용하지 않는다.
+ */
+public enum ExecutionMode {
+    THREAD_POOL("pool"), // 블로킹 소켓 + 고정 크기 스레드 풀 (연결 당 스레드 1개)
+    VIRTUAL_THREAD("virtual"), // 블로킹 소켓 + 연결 당 가상 스레드 1개 (Java 21 이상)
+    NIO("nio"), // Selector 기반 이벤트 루프 (논블로킹 소켓)
+    ;
+
+    public final String name;
+
+    ExecutionMode(String name) {
+        this.name = name;
+    }
+
+    public static ExecutionMode from(String name) {
+        return Arrays.stream(values())
+                .filter(mode -> mode.name.equalsIgnoreCase(name))
+                .findAny()
+                .orElse(THREAD_POOL);
+    }
+}
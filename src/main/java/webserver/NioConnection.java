@@ -0,0 +1,341 @@
+package webserver;
+
+import static utils.HttpRequestConverter.*;
+import static utils.HttpResponseConverter.*;
+import static webserver.ServerConfig.*;
+
+import http.HttpRequest;
+import http.HttpResponse;
+import http.HttpStatus;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.FileRegion;
+import utils.HttpRequestBuffer;
+import utils.HttpRequestFrame;
+import utils.RequestRejectedException;
+import utils.ResponseBuffer;
+
+/**
+ * 논블로킹 소켓 채널 하나의 상태. onReadable/onWritable/send/close 는 소유한 EventLoop 스레드에서만 호출된다.
+ * <p>
+ * Processor 가 만드는 동안 먼저 보내는 응답(chunked)은 보내지 못하고 쌓인 크기가 MAX_STREAM_PENDING_BYTES 를 넘으면, 이벤트 루프가 쌓인 응답을
+ * 모두 보낼 때까지 Processor 스레드를 기다리게 한다. 따라서 클라이언트가 느리게 읽어도 연결 하나가 쌓아 두는 메모리는 제한된다. 클라이언트가
+ * STREAM_WRITE_TIMEOUT_MILLIS 동안 읽지 않으면 연결을 닫는다.
+ */
+public class NioConnection {
+    private static final Logger logger = LoggerFactory.getLogger(NioConnection.class);
+    private final SocketChannel channel;
+    private final EventLoop eventLoop;
+    private final HttpRequestBuffer requestBuffer = new HttpRequestBuffer();
+    private final ArrayDeque<PendingWrite> pendingWrites = new ArrayDeque<>(); // 보낼 순서대로 (헤더 버퍼들, 파일 본문)
+    private final List<ResponseBuffer> pendingBuffers = new ArrayList<>(); // 전송이 끝나면 반납할 응답 버퍼
+    private SelectionKey key;
+    private int handledRequests = 0;
+    private boolean processing = false; // Processor 실행 중에는 유휴 시간 제한을 적용하지 않는다
+    private boolean streaming = false; // Processor 가 응답을 만드는 동안 먼저 보낸 부분을 쓰는 중 (다 보내도 응답이 끝난 것이 아니다)
+    private boolean keepAlive = true;
+    private HttpStatus rejection; // 제한을 넘은 요청에 보낼 응답 상태. 거절한 뒤에는 더 읽지 않는다
+    private long lastActiveMillis = System.currentTimeMillis();
+    private long streamedInFlight = 0; // pendingWrites 에 넣은, 먼저 보내는 응답의 크기 (이벤트 루프 스레드만 사용)
+    private final ReentrantLock streamLock = new ReentrantLock();
+    private final Condition streamDrained = streamLock.newCondition();
+    private long streamPendingBytes = 0; // Processor 가 넘겼지만 아직 보내지 못한 먼저 보내는 응답의 크기 (streamLock)
+
+    public NioConnection(SocketChannel channel, EventLoop eventLoop) {
+        this.channel = channel;
+        this.eventLoop = eventLoop;
+    }
+
+    public void setKey(SelectionKey key) {
+        this.key = key;
+    }
+
+    public void onReadable() throws IOException {
+        lastActiveMillis = System.currentTimeMillis();
+
+        /* 요청 버퍼(BufferPool 에서 빌린 버퍼)로 바로 읽는다 */
+        int read = 0;
+        try {
+            do {
+                read = requestBuffer.readFrom(channel);
+            } while (read > 0);
+        } catch (RequestRejectedException e) {
+            reject(e);
+        }
+        if (read == -1) { // 클라이언트가 연결을 닫음
+            close();
+            return;
+        }
+
+        dispatchBufferedRequests();
+    }
+
+    public void onWritable() throws IOException {
+        /* 파이프라이닝된 요청들의 응답을 gathering write 한 번으로 보내고, 파일 본문은 transferTo 로 보낸다 */
+        while (!pendingWrites.isEmpty()) {
+            if (!pendingWrites.peek().writeTo(channel)) {
+                key.interestOps(SelectionKey.OP_WRITE); // 소켓 송신 버퍼가 가득 참 -> 쓰기 가능해지면 이어서 쓴다
+                return;
+            }
+            pendingWrites.poll();
+        }
+        releaseResponses();
+        drainStream();
+        if (streaming) { // 나머지 응답은 Processor 가 마저 만든 뒤 보낸다
+            key.interestOps(0);
+            return;
+        }
+
+        /* 응답 전송 완료: keep-alive 면 이미 받은 다음 요청을 처리하거나 기다리고, 아니면 연결 종료 */
+        if (!keepAlive) {
+            close();
+            return;
+        }
+        processing = false;
+        lastActiveMillis = System.currentTimeMillis();
+        if (!dispatchBufferedRequests()) {
+            key.interestOps(SelectionKey.OP_READ);
+        }
+    }
+
+    /**
+     * 요청을 기다리는 유휴 시간이 keep-alive 제한을 넘었으면 연결을 닫는다.
+     */
+    public void closeIfIdle(long nowMillis) {
+        if (!processing && nowMillis - lastActiveMillis > KEEP_ALIVE_TIMEOUT_MILLIS) {
+            logger.debug("[NIO CONNECTION] keep-alive timeout. close connection.");
+            close();
+        }
+    }
+
+    public void close() {
+        if (key != null) {
+            key.cancel();
+        }
+        requestBuffer.release();
+        releaseResponses();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.debug("[NIO CONNECTION] close fail: {}", e.getMessage());
+        }
+        drainStream(); // 기다리는 Processor 스레드를 깨운다
+    }
+
+    /**
+     * 버퍼에 쌓인 완전한 요청을 모두 꺼내 Processor 실행을 넘긴다. 응답을 보낼 때까지 읽기를 멈추며, 한 번에 하나의 묶음만 처리해 응답 순서를
+     * 보장한다.
+     *
+     * @return 처리를 넘긴 요청이 있으면 true
+     */
+    private boolean dispatchBufferedRequests() throws IOException {
+        if (processing) {
+            return false;
+        }
+        List<HttpRequestFrame> rawRequests = new ArrayList<>();
+        try {
+            Optional<HttpRequestFrame> rawRequest;
+            while (rejection == null && (rawRequest = requestBuffer.nextRequest()).isPresent()) {
+                rawRequests.add(rawRequest.get());
+            }
+        } catch (RequestRejectedException e) {
+            reject(e);
+        }
+        if (rawRequests.isEmpty() && rejection == null) {
+            /* 'Expect: 100-continue' 요청은 본문을 받기 전에 헤더만으로 확인해 100 Continue 를 보내거나 거절한다 */
+            Optional<HttpRequestFrame> expectation = requestBuffer.nextExpectation();
+            if (expectation.isEmpty()) {
+                return false;
+            }
+            HttpStatus status = RequestDispatcher.checkExpectation(convertToHttpRequest(expectation.get()));
+            if (status == HttpStatus.STATUS_CONTINUE) {
+                sendContinue();
+                return true;
+            }
+            rejection = status;
+        }
+
+        key.interestOps(0);
+        processing = true;
+        int firstHandled = handledRequests + 1;
+        handledRequests += rawRequests.size();
+        HttpStatus rejectionStatus = rejection;
+        eventLoop.dispatch(() -> process(rawRequests, firstHandled, rejectionStatus));
+        return true;
+    }
+
+    private void sendContinue() throws IOException {
+        pendingWrites.add(new PendingWrite(new ByteBuffer[]{ByteBuffer.wrap(RequestDispatcher.CONTINUE_RESPONSE)}, null));
+        onWritable();
+    }
+
+    private void reject(RequestRejectedException e) {
+        logger.debug("[NIO CONNECTION] reject request. {} {}", e.getStatus().code, e.getMessage());
+        rejection = e.getStatus();
+    }
+
+    /**
+     * Processor 실행용 스레드에서 호출된다. 요청을 받은 순서대로 처리해 응답을 메모리에 모은 뒤 이벤트 루프 스레드로 넘겨 한 번에 전송한다. 연결을 닫는
+     * 응답 뒤의 요청은 처리하지 않는다. 거절한 요청이 있으면 앞의 요청들의 응답 뒤에 거절 응답을 보내고 연결을 닫는다.
+     */
+    private void process(List<HttpRequestFrame> rawRequests, int firstHandled, HttpStatus rejection) {
+        List<ResponseBuffer> responses = new ArrayList<>();
+        boolean keepAliveResponse = true;
+        for (int i = 0; i < rawRequests.size() && keepAliveResponse; i++) {
+            ResponseBuffer responseBuffer = new ResponseBuffer();
+            responseBuffer.setStreamSink(segment -> stream(responses, segment));
+            responses.add(responseBuffer);
+            try {
+                HttpRequest request = convertToHttpRequest(rawRequests.get(i));
+                keepAliveResponse = request.isKeepAlive() && firstHandled + i < MAX_KEEP_ALIVE_REQUESTS;
+                HttpResponse response = convertToHttpResponse(responseBuffer).setKeepAlive(keepAliveResponse);
+
+                RequestDispatcher.dispatch(request, response);
+            } catch (RuntimeException e) {
+                logger.error("[NIO CONNECTION ERROR] {}", e.getMessage());
+                keepAliveResponse = false; // 응답 상태를 알 수 없으므로 연결을 닫는다
+            }
+        }
+
+        if (rejection != null && keepAliveResponse) {
+            ResponseBuffer responseBuffer = new ResponseBuffer();
+            responses.add(responseBuffer);
+            RequestDispatcher.reject(rejection, convertToHttpResponse(responseBuffer));
+        }
+        boolean finalKeepAlive = keepAliveResponse && rejection == null;
+        eventLoop.execute(() -> send(responses, finalKeepAlive, true, 0));
+    }
+
+    /**
+     * Processor 실행용 스레드에서 호출된다. 만들고 있는 응답(responses 의 마지막)의 앞부분을 먼저 보낸다. 이미 끝난 앞의 요청들의 응답도 순서대로
+     * 함께 넘기고 목록에서 뺀다. 보내지 못하고 쌓인 크기가 제한을 넘으면 모두 보낼 때까지 기다린다.
+     */
+    private void stream(List<ResponseBuffer> responses, ResponseBuffer segment) {
+        List<ResponseBuffer> completed = responses.subList(0, responses.size() - 1);
+        List<ResponseBuffer> ready = new ArrayList<>(completed);
+        completed.clear();
+        ready.add(segment);
+        if (!channel.isOpen()) { // 연결을 닫았으면 나머지 응답은 버린다
+            ready.forEach(ResponseBuffer::release);
+            return;
+        }
+
+        long bytes = ready.stream().mapToLong(ResponseBuffer::size).sum();
+        streamLock.lock();
+        try {
+            streamPendingBytes += bytes;
+        } finally {
+            streamLock.unlock();
+        }
+        eventLoop.execute(() -> send(ready, true, false, bytes));
+        awaitStreamDrained();
+    }
+
+    private void awaitStreamDrained() {
+        long remainingNanos = TimeUnit.MILLISECONDS.toNanos(STREAM_WRITE_TIMEOUT_MILLIS);
+        streamLock.lock();
+        try {
+            while (streamPendingBytes > MAX_STREAM_PENDING_BYTES && channel.isOpen()) {
+                if (remainingNanos <= 0) {
+                    logger.debug("[NIO CONNECTION] client does not read streamed response. close connection.");
+                    eventLoop.execute(this::close);
+                    return;
+                }
+                remainingNanos = streamDrained.awaitNanos(remainingNanos);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            streamLock.unlock();
+        }
+    }
+
+    /**
+     * 이벤트 루프 스레드에서 호출된다. 쌓인 응답을 모두 보냈으므로(또는 연결을 닫았으므로) 기다리는 Processor 스레드를 깨운다.
+     */
+    private void drainStream() {
+        if (streamedInFlight == 0 && channel.isOpen()) {
+            return;
+        }
+        streamLock.lock();
+        try {
+            streamPendingBytes -= streamedInFlight;
+            streamedInFlight = 0;
+            streamDrained.signalAll();
+        } finally {
+            streamLock.unlock();
+        }
+    }
+
+    private void releaseResponses() {
+        pendingWrites.clear();
+        pendingBuffers.forEach(ResponseBuffer::release);
+        pendingBuffers.clear();
+    }
+
+    /**
+     * @param complete      false 면 만들고 있는 응답의 앞부분이다. 모두 보낸 뒤에도 다음 요청을 읽지 않고 나머지를 기다린다.
+     * @param streamedBytes 앞부분을 보내는 경우 {@link #stream} 에서 센 크기. 모두 보내면 기다리는 Processor 스레드를 깨운다
+     */
+    private void send(List<ResponseBuffer> responses, boolean keepAlive, boolean complete, long streamedBytes) {
+        streamedInFlight += streamedBytes;
+        if (!channel.isOpen()) {
+            responses.forEach(ResponseBuffer::release);
+            drainStream();
+            return;
+        }
+        this.streaming = !complete;
+        if (complete) {
+            this.keepAlive = keepAlive;
+        }
+        List<ByteBuffer> byteBuffers = new ArrayList<>();
+        for (ResponseBuffer response : responses) {
+            byteBuffers.addAll(List.of(response.toByteBuffers()));
+            if (response.fileRegion() != null) { // 파일 본문 앞까지 모은 버퍼를 먼저 보낸다
+                pendingWrites.add(new PendingWrite(byteBuffers.toArray(new ByteBuffer[0]), response.fileRegion()));
+                byteBuffers.clear();
+            }
+        }
+        pendingWrites.add(new PendingWrite(byteBuffers.toArray(new ByteBuffer[0]), null));
+        pendingBuffers.addAll(responses);
+        try {
+            onWritable();
+        } catch (IOException e) {
+            logger.debug("[NIO CONNECTION] write fail: {}", e.getMessage());
+            close();
+        }
+    }
+
+    /**
+     * 한 번에 보낼 버퍼들과 그 뒤에 보낼 파일 본문. 파일은 응답 버퍼가 닫으므로 여기서는 닫지 않는다.
+     */
+    private record PendingWrite(ByteBuffer[] buffers, FileRegion file) {
+        /**
+         * @return 모두 보냈으면 true, 소켓 송신 버퍼가 가득 차 남았으면 false
+         */
+        boolean writeTo(SocketChannel channel) throws IOException {
+            if (buffers.length > 0 && buffers[buffers.length - 1].hasRemaining()) {
+                channel.write(buffers);
+                if (buffers[buffers.length - 1].hasRemaining()) {
+                    return false;
+                }
+            }
+            if (file != null && !file.isDone()) {
+                file.transferTo(channel);
+                return file.isDone();
+            }
+            return true;
+        }
+    }
+}
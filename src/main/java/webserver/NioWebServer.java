@@ -0,0 +1,74 @@
+package webserver;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Selector 기반 논블로킹 웹 서버. 소수의 이벤트 루프 스레드가 accept/read/write 를 처리하므로 유휴 연결이 스레드를 점유하지 않는다. 첫 번째 이벤트 루프가
+ * accept 를 함께 맡고, 새 연결은 라운드 로빈으로 이벤트 루프에 분배한다.
+ */
+public class NioWebServer implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(NioWebServer.class);
+    private final int port;
+    private final EventLoop[] eventLoops;
+    private final Thread[] loopThreads;
+    private final ExecutorService processorExecutor;
+    private final AtomicInteger nextLoopIndex = new AtomicInteger();
+    private ServerSocketChannel serverChannel;
+
+    public NioWebServer(int port, int eventLoopCount, ExecutorService processorExecutor) throws IOException {
+        this.port = port;
+        this.processorExecutor = processorExecutor;
+        this.eventLoops = new EventLoop[eventLoopCount];
+        this.loopThreads = new Thread[eventLoopCount];
+        for (int i = 0; i < eventLoopCount; i++) {
+            eventLoops[i] = new EventLoop(processorExecutor);
+        }
+    }
+
+    public void start() throws IOException {
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port));
+        serverChannel.configureBlocking(false);
+
+        for (int i = 0; i < eventLoops.length; i++) {
+            loopThreads[i] = new Thread(eventLoops[i], "event-loop-" + i);
+            loopThreads[i].start();
+        }
+        eventLoops[0].registerAcceptor(serverChannel, this::nextLoop);
+
+        logger.info("Web Application Server(NIO) started {} port. event loops = {}", getPort(), eventLoops.length);
+    }
+
+    /**
+     * 실제로 바인딩된 포트를 반환한다. 0번 포트로 시작하면 운영체제가 고른 포트를 반환한다.
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    public void awaitTermination() throws InterruptedException {
+        for (Thread loopThread : loopThreads) {
+            loopThread.join();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (EventLoop eventLoop : eventLoops) {
+            eventLoop.shutdown();
+        }
+        processorExecutor.shutdown();
+        serverChannel.close();
+    }
+
+    private EventLoop nextLoop() {
+        return eventLoops[Math.floorMod(nextLoopIndex.getAndIncrement(), eventLoops.length)];
+    }
+}
@@ -0,0 +1,72 @@
+package webserver;
+
+import static http.HttpStatus.STATUS_CONTINUE;
+import static http.HttpStatus.STATUS_NOT_FOUND;
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+import http.HttpRequest;
+import http.HttpResponse;
+import http.HttpStatus;
+import java.util.Optional;
+import web.Processor;
+import web.UriMapper;
+
+/**
+ * 변환이 끝난 HttpRequest를 처리할 Processor를 찾아 실행한다. 블로킹 모드(RequestHandler)와 논블로킹 모드(NioConnection)가 함께
+ * 사용한다.
+ */
+public class RequestDispatcher {
+    public static final byte[] CONTINUE_RESPONSE = "HTTP/1.1 100 Continue\r\n\r\n".getBytes(ISO_8859_1);
+
+    public static void dispatch(HttpRequest request, HttpResponse response) {
+        // HttpRequest를 처리할 Processor 찾기
+        Optional<Processor> optionalProcessor = findProcessor(request.getPath());
+
+        // Processor가 존재하면 로직 실행, 없으면 404 status 반환
+        try {
+            optionalProcessor.ifPresentOrElse(processor -> processor.process(request, response),
+                    () -> responseEmpty(response));
+        } finally {
+            // Processor 가 옮기지 않은 multipart 임시 파일 정리
+            request.deleteTemporaryFiles();
+        }
+    }
+
+    /**
+     * 'Expect: 100-continue' 요청을 본문을 받기 전에 확인한다. 처리할 Processor 가 없으면 404, 있으면 Processor 에게 헤더 확인을 맡긴다.
+     * (Content-Length 가 제한을 넘는 요청은 헤더를 받을 때 이미 413 으로 거절했다)
+     *
+     * @return 본문을 받아도 되면 STATUS_CONTINUE, 아니면 거절할 응답 상태
+     */
+    public static HttpStatus checkExpectation(HttpRequest header) {
+        return findProcessor(header.getPath())
+                .map(processor -> processor.checkExpectation(header))
+                .orElse(STATUS_NOT_FOUND);
+    }
+
+    public static Optional<Processor> findProcessor(String uri) {
+        return UriMapper.getInstance().getProcessor(uri);
+    }
+
+    /**
+     * 요청을 끝까지 받지 않고 거절할 때의 응답. 거절한 요청의 나머지를 읽지 않으므로 연결을 닫는다.
+     */
+    public static void reject(HttpStatus status, HttpResponse response) {
+        response.setHttpVersion("HTTP/1.1");
+        response.setStatusCode(status);
+        response.setKeepAlive(false);
+        response.setContentType("text/plain");
+        response.setCharset("utf-8");
+        response.setMessageBody(status.message);
+        response.flush();
+    }
+
+    private static void responseEmpty(HttpResponse response) {
+        response.setHttpVersion("HTTP/1.1");
+        response.setStatusCode(STATUS_NOT_FOUND);
+        response.setContentType("text/plain");
+        response.setCharset("utf-8");
+        response.setMessageBody("not found");
+        response.flush();
+    }
+}
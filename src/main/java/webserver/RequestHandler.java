@@ -1,36 +1,29 @@
 package webserver;
 
-import static http.HttpStatus.*;
 import static utils.HttpRequestConverter.*;
 import static utils.HttpResponseConverter.*;
+import static webserver.ServerConfig.*;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.Socket;
+import java.net.SocketTimeoutException;
 
 import http.HttpResponse;
 import http.HttpRequest;
+import http.HttpStatus;
 import web.Processor;
-import web.UriMapper;
 import java.util.Optional;
+import utils.HttpRequestBuffer;
+import utils.RequestRejectedException;
+import utils.ResponseBuffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class RequestHandler implements Runnable {
     private static final Logger logger = LoggerFactory.getLogger(RequestHandler.class);
     private final Socket connection;
-    private HttpRequest request;
-    private HttpResponse response;
-    private final Runnable responseEmpty = () -> {
-        response.setHttpVersion("HTTP/1.1");
-        response.setStatusCode(STATUS_NOT_FOUND);
-        response.setContentType("text/plain");
-        response.setCharset("utf-8");
-        response.setContentLength(0);
-        response.setMessageBody("not found");
-        response.flush();
-    };
 
     public RequestHandler(Socket connectionSocket) {
         this.connection = connectionSocket;
@@ -38,23 +31,97 @@ public class RequestHandler implements Runnable {
 
     public void run() {
         logger.debug("New Client Connect! Connected IP : {}, Port : {}", connection.getInetAddress(), connection.getPort());
-        try (InputStream in = connection.getInputStream(); OutputStream out = connection.getOutputStream()) {
+        // 연결 당 요청 버퍼와 응답 큐 (파이프라이닝된 요청의 남은 바이트와 아직 보내지 않은 응답을 보관)
+        HttpRequestBuffer requestBuffer = new HttpRequestBuffer();
+        ResponseQueue responseQueue = null;
+        try (connection; InputStream in = connection.getInputStream(); OutputStream out = connection.getOutputStream()) {
+            // 다음 요청을 기다리는 유휴 시간 제한
+            connection.setSoTimeout(KEEP_ALIVE_TIMEOUT_MILLIS);
+            responseQueue = new ResponseQueue(connection, out);
 
-            // request + response 분리
-            request = convertToHttpRequest(in);
-            response = convertToHttpResponse(out);
+            for (int handled = 1; ; handled++) {
+                Optional<HttpRequest> optionalRequest;
+                try {
+                    // 보낼 응답이 있는데 다음 요청을 받으려면 기다려야 하면 먼저 응답을 보낸다
+                    if (!requestBuffer.hasCompleteRequest()) {
+                        responseQueue.flush();
+                    }
 
-            // HttpRequest를 처리할 Processor 찾기
-            Optional<Processor> optionalProcessor = findProcessor(request.getPath());
+                    // request 읽기 (클라이언트가 연결을 닫았으면 종료, 제한을 넘은 요청은 본문을 받기 전에 거절하고 종료)
+                    optionalRequest = readHttpRequest(in, requestBuffer, expectationHandler(responseQueue));
+                } catch (RequestRejectedException e) {
+                    logger.debug("[REQUEST HANDLER] reject request. {} {}", e.getStatus().code, e.getMessage());
+                    responseQueue.add(rejectResponse(e));
+                    break;
+                }
+                if (optionalRequest.isEmpty()) {
+                    break;
+                }
+                HttpRequest request = optionalRequest.get();
 
-            // Processor가 존재하면 로직 실행, 없으면 404 status 반환
-            optionalProcessor.ifPresentOrElse(processor -> processor.process(request, response), responseEmpty);
-        } catch (IOException e) {
+                // 연결 유지 여부: 클라이언트 요청 + 연결 당 최대 요청 수
+                boolean keepAlive = request.isKeepAlive() && handled < MAX_KEEP_ALIVE_REQUESTS;
+                ResponseBuffer responseBuffer = new ResponseBuffer();
+                responseBuffer.setStreamSink(streamSink(responseQueue)); // chunked 응답은 만드는 동안 먼저 보낸다
+                HttpResponse response = convertToHttpResponse(responseBuffer).setKeepAlive(keepAlive);
+
+                // Processor 실행 (없으면 404 status 반환) 후 응답을 요청 순서대로 큐에 쌓는다
+                try {
+                    RequestDispatcher.dispatch(request, response);
+                } catch (RuntimeException e) {
+                    responseBuffer.release();
+                    throw e;
+                }
+                responseQueue.add(responseBuffer);
+
+                if (!keepAlive) {
+                    break;
+                }
+            }
+            responseQueue.flush();
+        } catch (SocketTimeoutException e) {
+            logger.debug("[REQUEST HANDLER] keep-alive timeout. close connection.");
+        } catch (IOException | RuntimeException e) {
             logger.error("[REQUEST HANDLER ERROR] {}", e.getMessage());
+        } finally {
+            // 빌린 버퍼 반납 (보내지 못한 응답 포함)
+            requestBuffer.release();
+            if (responseQueue != null) {
+                responseQueue.release();
+            }
         }
     }
 
+    /**
+     * 'Expect: 100-continue' 요청에 본문을 받기 전에 100 Continue 를 보내거나, 받지 않을 요청이면 거절해 본문을 보내지 않게 한다.
+     */
+    private static ExpectationHandler expectationHandler(ResponseQueue responseQueue) {
+        return header -> {
+            HttpStatus status = RequestDispatcher.checkExpectation(header);
+            if (status != HttpStatus.STATUS_CONTINUE) {
+                throw new RequestRejectedException(status, "expectation failed: " + header.getPath());
+            }
+            responseQueue.sendInterim(RequestDispatcher.CONTINUE_RESPONSE);
+        };
+    }
+
+    /**
+     * 응답을 마치기 전에 떼어 낸 앞부분을 앞의 요청들의 응답 뒤에 바로 보낸다.
+     */
+    private static ResponseBuffer.StreamSink streamSink(ResponseQueue responseQueue) {
+        return segment -> {
+            responseQueue.add(segment);
+            responseQueue.flush();
+        };
+    }
+
+    private static ResponseBuffer rejectResponse(RequestRejectedException e) {
+        ResponseBuffer responseBuffer = new ResponseBuffer();
+        RequestDispatcher.reject(e.getStatus(), convertToHttpResponse(responseBuffer));
+        return responseBuffer;
+    }
+
     public Optional<Processor> findProcessor(String uri) {
-        return UriMapper.getInstance().getProcessor(uri);
+        return RequestDispatcher.findProcessor(uri);
     }
 }
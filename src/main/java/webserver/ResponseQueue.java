@@ -0,0 +1,107 @@
+package webserver;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import utils.FileRegion;
+import utils.ResponseBuffer;
+
+/**
+ * 파이프라이닝된 요청들의 응답을 요청 순서대로 모았다가 한 번에 전송한다. 소켓에 채널이 있으면 모은 응답을 gathering write 한 번으로 보내고, 없으면
+ * 스트림에 이어 쓴 뒤 한 번만 flush 한다. 파일 본문은 힙에 읽지 않고 transferTo 로 보낸다. 응답 버퍼는 전송한 뒤 반납한다. 연결 당 하나씩 만들어
+ * 한 스레드에서만 사용한다.
+ */
+public class ResponseQueue {
+    private static final int MAX_PENDING_BYTES = 64 * 1024; // 64KB 이상 모이면 다음 요청을 기다리지 않고 보낸다
+    private final SocketChannel channel;
+    private final OutputStream out;
+    private final List<ResponseBuffer> pending = new ArrayList<>();
+    private long pendingBytes = 0;
+
+    public ResponseQueue(Socket connection, OutputStream out) {
+        this.channel = connection.getChannel();
+        this.out = out;
+    }
+
+    /**
+     * 응답 하나를 큐에 추가한다. 쌓인 응답이 MAX_PENDING_BYTES 를 넘으면 바로 전송한다.
+     */
+    public void add(ResponseBuffer response) throws IOException {
+        pending.add(response);
+        pendingBytes += response.size();
+        if (pendingBytes >= MAX_PENDING_BYTES) {
+            flush();
+        }
+    }
+
+    public boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    /**
+     * 1xx 중간 응답을 바로 보낸다. 앞의 요청들의 응답이 먼저 가도록 쌓인 응답부터 보낸다.
+     */
+    public void sendInterim(byte[] response) throws IOException {
+        flush();
+        out.write(response);
+        out.flush();
+    }
+
+    public void flush() throws IOException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        try {
+            if (channel != null) {
+                writeGathering();
+            } else {
+                for (ResponseBuffer response : pending) {
+                    response.writeTo(out);
+                }
+                out.flush();
+            }
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * 보내지 않은 응답을 버리고 버퍼를 반납한다.
+     */
+    public void release() {
+        for (ResponseBuffer response : pending) {
+            response.release();
+        }
+        pending.clear();
+        pendingBytes = 0;
+    }
+
+    /**
+     * 파일 본문이 없는 응답들은 모아서 gathering write 한 번으로 보낸다. 파일 본문이 있으면 헤더까지 보낸 뒤 transferTo 로 파일을 보낸다.
+     */
+    private void writeGathering() throws IOException {
+        List<ByteBuffer> buffers = new ArrayList<>();
+        for (ResponseBuffer response : pending) {
+            buffers.addAll(List.of(response.toByteBuffers()));
+            FileRegion file = response.fileRegion();
+            if (file != null) {
+                writeFully(buffers);
+                buffers.clear();
+                file.transferAll(channel);
+            }
+        }
+        writeFully(buffers);
+    }
+
+    private void writeFully(List<ByteBuffer> buffers) throws IOException {
+        ByteBuffer[] byteBuffers = buffers.toArray(new ByteBuffer[0]);
+        /* 블로킹 채널이어도 한 번에 모두 쓰지 못할 수 있으므로 남은 바이트가 없을 때까지 반복한다 */
+        while (byteBuffers.length > 0 && byteBuffers[byteBuffers.length - 1].hasRemaining()) {
+            channel.write(byteBuffers);
+        }
+    }
+}
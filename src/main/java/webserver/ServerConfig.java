@@ -0,0 +1,16 @@
+package webserver;
+
+/**
+ * 연결 처리에 관한 설정 값. JVM 시스템 프로퍼티로 바꿀 수 있다. (ex. {@code -Dserver.keepAlive.timeout=10000})
+ */
+public final class ServerConfig {
+    /* keep-alive: 다음 요청을 기다리는 최대 유휴 시간(ms), 연결 하나에서 처리할 최대 요청 수 */
+    public static final int KEEP_ALIVE_TIMEOUT_MILLIS = Integer.getInteger("server.keepAlive.timeout", 5_000);
+    public static final int MAX_KEEP_ALIVE_REQUESTS = Integer.getInteger("server.keepAlive.maxRequests", 100);
+    /* 만드는 동안 먼저 보내는 응답(chunked): 보내지 못하고 쌓아 둘 최대 크기, 클라이언트가 읽기를 기다리는 최대 시간(ms) */
+    public static final int MAX_STREAM_PENDING_BYTES = Integer.getInteger("server.stream.maxPendingBytes", 256 * 1024);
+    public static final int STREAM_WRITE_TIMEOUT_MILLIS = Integer.getInteger("server.stream.writeTimeout", 30_000);
+
+    private ServerConfig() {
+    }
+}
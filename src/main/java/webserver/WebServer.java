@@ -1,17 +1,24 @@
 package webserver;
 
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.nio.channels.ServerSocketChannel;
 
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import utils.AssetIndex;
 
 public class WebServer {
     private static final Logger logger = LoggerFactory.getLogger(WebServer.class);
     private static final int DEFAULT_PORT = 8080;
+    private static final int DEFAULT_THREAD_POOL_SIZE = 10;
+    private static final int DEFAULT_EVENT_LOOP_SIZE = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
 
     public static void main(String args[]) throws Exception {
         int port = 0;
@@ -21,20 +28,74 @@ public class WebServer {
             port = Integer.parseInt(args[0]);
         }
 
-        // ThreadPool 생성
-        ExecutorService executor = Executors.newFixedThreadPool(10);
+        // 실행 모드 선택: 두 번째 인자 (pool | virtual | nio)
+        ExecutionMode mode = ExecutionMode.THREAD_POOL;
+        if (args != null && args.length > 1) {
+            mode = ExecutionMode.from(args[1]);
+        }
+
+        // 정적 파일과 템플릿 색인을 만들고 정적 파일을 미리 읽어 둔다
+        AssetIndex.initialize();
+
+        if (mode == ExecutionMode.NIO) {
+            startNioServer(port);
+            return;
+        }
+
+        // 연결을 처리할 Executor 생성 (고정 크기 스레드 풀 또는 연결 당 가상 스레드)
+        ExecutorService executor = createExecutor(mode);
 
         // 서버소켓을 생성한다. 웹서버는 기본적으로 8080번 포트를 사용한다.
-        try (ServerSocket listenSocket = new ServerSocket(port)) {
-            logger.info("Web Application Server started {} port.", port);
-
-            // 클라이언트가 연결될때까지 대기한다.
-            Socket connection;
-            while ((connection = listenSocket.accept()) != null) {
-                CompletableFuture.runAsync(new RequestHandler(connection), executor);
-            }
+        // 채널에서 얻은 서버소켓을 사용해야 연결 소켓도 채널을 가지므로 응답을 gathering write 로 보낼 수 있다.
+        try (ServerSocket listenSocket = ServerSocketChannel.open().bind(new InetSocketAddress(port)).socket()) {
+            logger.info("Web Application Server started {} port. mode = {}", port, mode.name);
+            serve(listenSocket, executor);
         } finally {
             executor.shutdown(); // 서버 종료 시 스레드 풀 종료
         }
     }
+
+    /**
+     * 서버 소켓이 닫힐 때까지 연결을 받아 RequestHandler 를 executor 에서 실행한다.
+     */
+    public static void serve(ServerSocket listenSocket, ExecutorService executor) throws IOException {
+        // 클라이언트가 연결될때까지 대기한다.
+        Socket connection;
+        while ((connection = listenSocket.accept()) != null) {
+            CompletableFuture.runAsync(new RequestHandler(connection), executor);
+        }
+    }
+
+    /**
+     * 블로킹 모드의 연결 처리용 Executor 를 생성한다. VIRTUAL_THREAD 모드는 실행 중인 JVM 이 가상 스레드를 지원하지 않으면(Java 21 미만) 연결 당
+     * 플랫폼 스레드를 만드는 Executor 로 대체한다.
+     */
+    public static ExecutorService createExecutor(ExecutionMode mode) {
+        if (mode == ExecutionMode.VIRTUAL_THREAD) {
+            return newVirtualThreadPerTaskExecutor();
+        }
+        return Executors.newFixedThreadPool(DEFAULT_THREAD_POOL_SIZE);
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        // 컴파일 대상(Java 17)에는 가상 스레드 API 가 없으므로 실행 시점에 찾는다
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            logger.warn("[WEB SERVER] virtual threads are not supported on Java {}. use thread per connection.",
+                    Runtime.version().feature());
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    private static void startNioServer(int port) throws Exception {
+        // 이벤트 루프는 I/O 만 처리하고, Processor 는 별도 스레드 풀에서 실행한다
+        ExecutorService processorExecutor = Executors.newFixedThreadPool(DEFAULT_THREAD_POOL_SIZE);
+
+        try (NioWebServer server = new NioWebServer(port, DEFAULT_EVENT_LOOP_SIZE, processorExecutor)) {
+            server.start();
+            server.awaitTermination();
+        }
+    }
 }
@@ -6,12 +6,17 @@ import http.HttpRequest.HttpMethod;
 import http.HttpRequest.HttpRequestUri;
 import http.HttpRequest.HttpVersion;
 import http.HttpRequest.MultiPart;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 class HttpRequestTest {
 
@@ -58,4 +63,50 @@ class HttpRequestTest {
         // then
         assertThat(findPart.partBody()).isEqualTo("yelly".getBytes(StandardCharsets.UTF_8));
     }
-}
\ No newline at end of file
+
+    @DisplayName("파라미터는 처음 사용할 때 한 번만 파싱한다")
+    @Test
+    void getParameter_ParseOnce() {
+        // given
+        AtomicInteger parseCount = new AtomicInteger();
+        HttpRequest request = new HttpRequestBuilder()
+                .setMethod(HttpMethod.POST)
+                .setRequestURI(new HttpRequestUri("/user/create"))
+                .setHttpVersion(new HttpVersion("HTTP/1.1"))
+                .setParameter(() -> {
+                    parseCount.incrementAndGet();
+                    return Map.of("id", "yelly");
+                })
+                .build();
+
+        // when
+        int countBeforeAccess = parseCount.get();
+        String first = request.getParameter("id");
+        String second = request.getParameter("id");
+
+        // then
+        assertThat(countBeforeAccess).isZero();
+        assertThat(first).isEqualTo("yelly");
+        assertThat(second).isEqualTo("yelly");
+        assertThat(parseCount.get()).isEqualTo(1);
+    }
+
+    @DisplayName("받는 동안 나눈 파트는 처리기가 읽지 않았어도 임시 파일을 지운다")
+    @Test
+    void deleteTemporaryFiles_StreamedPartNotRead_Delete(@TempDir Path tempDir) throws IOException {
+        // given
+        Path file = Files.createTempFile(tempDir, "upload-", ".part");
+        HttpRequest request = new HttpRequestBuilder()
+                .setMethod(HttpMethod.POST)
+                .setRequestURI(new HttpRequestUri("/article"))
+                .setHttpVersion(new HttpVersion("HTTP/1.1"))
+                .setParts(List.of(new MultiPart("image", "a.png", "image/png", null, file)))
+                .build();
+
+        // when
+        request.deleteTemporaryFiles();
+
+        // then
+        assertThat(file).doesNotExist();
+    }
+}
@@ -1,17 +1,20 @@
 package http;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.*;
 
 import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.io.IOException;
+import java.time.Instant;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import utils.ResponseBuffer;
 
 class HttpResponseTest {
+    private static final String DATE_HEADER = "Date: [A-Z][a-z]{2}, \\d{2} [A-Z][a-z]{2} \\d{4} \\d{2}:\\d{2}:\\d{2} GMT\r\n";
 
     private ByteArrayOutputStream byteArrayOutputStream;
 
@@ -36,22 +39,21 @@ class HttpResponseTest {
                 .setContentLength(100)
                 .setLocation("/myLocation.html")
                 .addCookie(cookie)
-                .setLastModified(
-                        LocalDateTime.parse(
-                                "2024-03-13 13:00:12",
-                                DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")))
+                .setETag("\"1a-2b\"")
+                .setLastModified(ResponseHeaders.formatHttpDate(Instant.parse("2024-03-13T13:00:12Z")))
                 .setMessageBody("Hi");
 
         // then
-        assertThat(byteArrayOutputStream.toString()).isEqualTo(
+        assertThat(withoutDate(byteArrayOutputStream.toString())).isEqualTo(
                 "HTTP/1.1 200 OK\r\n"
                         + "Content-Type: text/html; charset=utf-8\r\n"
                         + "Content-Length: 100\r\n"
                         + "Location: /myLocation.html\r\n"
                         + "Set-Cookie: myCookie=myValue; Path=/index.html;\s\r\n"
-                        + "Last-Modified: 2024-03-13T13:00:12\r\n"
+                        + "ETag: \"1a-2b\"\r\n"
+                        + "Last-Modified: Wed, 13 Mar 2024 13:00:12 GMT\r\n"
                         + "\r\n"
-                        + "Hi\r\n"
+                        + "Hi"
         );
     }
 
@@ -72,4 +74,60 @@ class HttpResponseTest {
         assertThat(byteArrayOutputStream.toString())
                 .isEqualTo("Set-Cookie: myCookie=myValue1; myCookie=myValue2; Path=/; \r\n");
     }
-}
\ No newline at end of file
+
+    @DisplayName("ResponseBuffer 에 쓰면 작은 응답의 상태 줄, 헤더, 본문을 버퍼 하나에 모은다")
+    @Test
+    void setMessageBody_ResponseBuffer_OneBuffer() throws IOException {
+        // given
+        ResponseBuffer responseBuffer = new ResponseBuffer();
+        HttpResponse response = new HttpResponse(responseBuffer).setKeepAlive(true);
+
+        // when
+        response.setHttpVersion("HTTP/1.1")
+                .setStatusCode(HttpStatus.STATUS_NOT_FOUND)
+                .setContentType("text/plain")
+                .setCharset("utf-8")
+                .setMessageBody("not found");
+
+        // then
+        assertThat(responseBuffer.toByteBuffers()).hasSize(1);
+        assertThat(withoutDate(new String(responseBuffer.toByteArray(), UTF_8))).isEqualTo(
+                "HTTP/1.1 404 Not Found\r\n"
+                        + "Content-Type: text/plain; charset=utf-8\r\n"
+                        + "Content-Length: 9\r\n"
+                        + "Connection: keep-alive\r\n"
+                        + "\r\n"
+                        + "not found");
+        responseBuffer.release();
+    }
+
+    @DisplayName("HTTP/1.1 이 아닌 버전은 상태 줄을 만들어 쓴다")
+    @Test
+    void setStatusCode_OtherVersion_WriteVersion() {
+        // given
+        HttpResponse response = new HttpResponse(byteArrayOutputStream);
+
+        // when
+        response.setHttpVersion("HTTP/1.0").setStatusCode(HttpStatus.STATUS_FOUND);
+
+        // then
+        assertThat(withoutDate(byteArrayOutputStream.toString())).isEqualTo("HTTP/1.0 302 Found\r\n");
+    }
+
+    @DisplayName("상태 줄 바로 뒤에 Date 헤더를 쓴다")
+    @Test
+    void setStatusCode_WriteDateHeader() {
+        // given
+        HttpResponse response = new HttpResponse(byteArrayOutputStream);
+
+        // when
+        response.setHttpVersion("HTTP/1.1").setStatusCode(HttpStatus.STATUS_OK);
+
+        // then
+        assertThat(byteArrayOutputStream.toString()).matches("HTTP/1\\.1 200 OK\r\n" + DATE_HEADER);
+    }
+
+    private static String withoutDate(String response) {
+        return response.replaceFirst(DATE_HEADER, "");
+    }
+}
@@ -0,0 +1,42 @@
+package http;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Instant;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ResponseHeadersTest {
+
+    @DisplayName("Date 헤더를 RFC 7231 IMF-fixdate 형식으로 만든다")
+    @Test
+    void formatDateHeader() {
+        // when
+        byte[] dateHeader = ResponseHeaders.formatDateHeader(Instant.parse("1994-11-06T08:49:37Z"));
+
+        // then
+        assertThat(new String(dateHeader, ISO_8859_1)).isEqualTo("Date: Sun, 06 Nov 1994 08:49:37 GMT\r\n");
+    }
+
+    @DisplayName("현재 시각의 Date 헤더를 돌려준다")
+    @Test
+    void dateHeader() {
+        // when
+        byte[] dateHeader = ResponseHeaders.dateHeader();
+
+        // then
+        assertThat(new String(dateHeader, ISO_8859_1)).startsWith("Date: ").endsWith(" GMT\r\n");
+    }
+
+    @DisplayName("상태마다 미리 만들어 둔 HTTP/1.1 상태 줄을 돌려준다")
+    @Test
+    void statusLine() {
+        // when
+        byte[] statusLine = ResponseHeaders.statusLine(HttpStatus.STATUS_NOT_FOUND);
+
+        // then
+        assertThat(new String(statusLine, ISO_8859_1)).isEqualTo("HTTP/1.1 404 Not Found\r\n");
+        assertThat(ResponseHeaders.statusLine(HttpStatus.STATUS_NOT_FOUND)).isSameAs(statusLine);
+    }
+}
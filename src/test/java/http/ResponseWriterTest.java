@@ -0,0 +1,92 @@
+package http;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ResponseWriterTest {
+
+    private ByteArrayOutputStream byteArrayOutputStream;
+    private HttpResponse response;
+
+    @BeforeEach
+    void setUp() {
+        byteArrayOutputStream = new ByteArrayOutputStream();
+        response = new HttpResponse(byteArrayOutputStream);
+        response.setHttpVersion("HTTP/1.1").setStatusCode(HttpStatus.STATUS_OK);
+    }
+
+    @DisplayName("작은 본문은 모아 두었다가 Content-Length 로 보낸다")
+    @Test
+    void close_SmallBody_ContentLength() {
+        // when
+        try (ResponseWriter writer = new ResponseWriter(response, true)) {
+            writer.write("<html>").write("</html>");
+        }
+
+        // then
+        assertThat(withoutDate(byteArrayOutputStream.toString(UTF_8))).isEqualTo(
+                "HTTP/1.1 200 OK\r\n"
+                        + "Content-Length: 13\r\n"
+                        + "\r\n"
+                        + "<html></html>");
+    }
+
+    @DisplayName("청크 크기를 넘는 본문은 chunked 로 바꿔 모인 만큼씩 청크로 쓴다")
+    @Test
+    void write_LargeBody_Chunked() {
+        // given
+        String row = "<tr><td>user</td></tr>".repeat(1000);
+
+        // when
+        try (ResponseWriter writer = new ResponseWriter(response, true)) {
+            writer.write(row).write("end");
+        }
+
+        // then
+        String written = withoutDate(byteArrayOutputStream.toString(UTF_8));
+        String header = "HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\n";
+        assertThat(written).startsWith(header).doesNotContain("Content-Length").endsWith("end\r\n0\r\n\r\n");
+        assertThat(dechunk(written.substring(header.length()))).isEqualTo(row + "end");
+    }
+
+    @DisplayName("HTTP/1.0 요청에는 본문이 커도 chunked 로 보내지 않는다")
+    @Test
+    void write_ChunkedNotAllowed_ContentLength() {
+        // given
+        String row = "<tr><td>user</td></tr>".repeat(1000);
+
+        // when
+        try (ResponseWriter writer = new ResponseWriter(response, false)) {
+            writer.write(row);
+        }
+
+        // then
+        assertThat(byteArrayOutputStream.toString(UTF_8))
+                .contains("Content-Length: " + row.length() + "\r\n")
+                .doesNotContain("chunked")
+                .endsWith(row);
+    }
+
+    private static String withoutDate(String response) {
+        return response.replaceFirst("Date: [^\r]*\r\n", "");
+    }
+
+    private static String dechunk(String chunked) {
+        StringBuilder body = new StringBuilder();
+        int position = 0;
+        while (true) {
+            int lineEnd = chunked.indexOf("\r\n", position);
+            int size = Integer.parseInt(chunked.substring(position, lineEnd), 16);
+            if (size == 0) {
+                return body.toString();
+            }
+            body.append(chunked, lineEnd + 2, lineEnd + 2 + size);
+            position = lineEnd + 2 + size + 2;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package utils;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class AsciiStringTest {
+
+    @DisplayName("바이트 배열의 일부를 복사하지 않고 가리키며, 대소문자를 무시하고 상수와 비교할 수 있다")
+    @Test
+    void view_CompareIgnoreCase() {
+        // given
+        byte[] received = "Connection: KEEP-ALIVE\r\n".getBytes(ISO_8859_1);
+
+        // when
+        AsciiString name = new AsciiString(received, 0, 10);
+        AsciiString value = new AsciiString(received, 12, 10);
+
+        // then
+        assertThat(name.contentEqualsIgnoreCase(HttpHeaderNames.CONNECTION)).isTrue();
+        assertThat(value.contentEqualsIgnoreCase(HttpHeaderValues.KEEP_ALIVE)).isTrue();
+        assertThat(value.contentEquals(HttpHeaderValues.KEEP_ALIVE)).isFalse();
+        assertThat(value.toString()).isEqualTo("KEEP-ALIVE");
+    }
+
+    @DisplayName("대소문자만 다른 값은 hashCode 가 같고, equals 는 대소문자를 구분한다")
+    @Test
+    void hashCode_IgnoreCase() {
+        // given
+        AsciiString lowerCase = AsciiString.of("content-type");
+        AsciiString mixedCase = new AsciiString("xContent-Type".getBytes(ISO_8859_1), 1, 12);
+
+        // when & then
+        assertThat(lowerCase.hashCode()).isEqualTo(mixedCase.hashCode());
+        assertThat(lowerCase).isNotEqualTo(mixedCase);
+        assertThat(HttpHeaderNames.CONTENT_TYPE).isEqualTo(mixedCase);
+    }
+
+    @DisplayName("요청 바이트의 헤더 이름과 같은 상수를 찾을 수 있다")
+    @Test
+    void find_KnownHeaderName_ReturnConstant() {
+        // given
+        byte[] received = "transfer-encoding".getBytes(ISO_8859_1);
+
+        // when & then
+        assertThat(HttpHeaderNames.find(received, 0, received.length)).isSameAs(HttpHeaderNames.TRANSFER_ENCODING);
+        assertThat(HttpHeaderNames.find(received, 0, 8)).isNull();
+    }
+}
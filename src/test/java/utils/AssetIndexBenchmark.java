@@ -0,0 +1,75 @@
+package utils;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * 시작할 때 색인을 만들고 정적 파일을 미리 읽어 두는 데 걸리는 시간과, 요청마다 경로를 만들어 찾는 방식과 색인으로 찾는 방식의 시간을 비교한다. 일반 테스트에서는
+ * 실행되지 않는다.
+ * <pre>
+ * gradle test --tests utils.AssetIndexBenchmark -Dbenchmark=true -Dbenchmark.lookups=1000000
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class AssetIndexBenchmark {
+    private static final int BUILDS = Integer.getInteger("benchmark.builds", 20);
+    private static final int LOOKUPS = Integer.getInteger("benchmark.lookups", 1_000_000);
+    private static final Path STATIC_ROOT = Path.of(ResourceHandler.BASE_PATH + ResourceHandler.STATIC_PATH);
+    private static final Path TEMPLATE_ROOT = Path.of(ResourceHandler.BASE_PATH + ResourceHandler.TEMPLATE_PATH);
+    private static final String[] REQUEST_PATHS = {"/", "/main.css", "/global.css", "/img/like.svg", "/registration"};
+
+    @DisplayName("시작할 때 색인을 만들고 미리 읽어 두는 시간과 요청 경로로 파일을 찾는 시간을 잰다")
+    @Test
+    void startup_and_lookup() {
+        // when: 시작
+        long buildStart = System.nanoTime();
+        AssetIndex assetIndex = null;
+        for (int i = 0; i < BUILDS; i++) {
+            assetIndex = AssetIndex.build(STATIC_ROOT, TEMPLATE_ROOT);
+        }
+        long buildMicros = (System.nanoTime() - buildStart) / 1000 / BUILDS;
+
+        StaticFileCache staticFileCache = new StaticFileCache(32 * 1024 * 1024, 1024 * 1024);
+        long warmUpStart = System.nanoTime();
+        int preloaded = assetIndex.warmUp(staticFileCache);
+        long warmUpMicros = (System.nanoTime() - warmUpStart) / 1000;
+        staticFileCache.close();
+
+        // when: 요청 경로로 찾기
+        long found = 0;
+        long resolveStart = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            found += Files.exists(resolve(REQUEST_PATHS[i % REQUEST_PATHS.length])) ? 1 : 0;
+        }
+        long resolveNanos = (System.nanoTime() - resolveStart) / LOOKUPS;
+
+        long indexStart = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            found += assetIndex.find(REQUEST_PATHS[i % REQUEST_PATHS.length]) != null ? 1 : 0;
+        }
+        long indexNanos = (System.nanoTime() - indexStart) / LOOKUPS;
+
+        // then
+        System.out.printf("build index: %d us, warm-up: %d files in %d us%n", buildMicros, preloaded, warmUpMicros);
+        System.out.printf("lookup: resolve path + stat %d ns/op, index %d ns/op%n", resolveNanos, indexNanos);
+        assertThat(found).isEqualTo(2L * LOOKUPS);
+    }
+
+    /* 색인이 없을 때 StaticHtmlProcessor.getFilePath 처럼 경로를 만들어 찾는다 */
+    private static Path resolve(String requestPath) {
+        String extension = ResourceHandler.getExtension(requestPath);
+        if (ResourceHandler.FILE_EXTENSION_MAP.containsKey(extension)) {
+            return Path.of(STATIC_ROOT + requestPath);
+        }
+        if (requestPath.equals("/")) {
+            return Path.of(STATIC_ROOT + File.separator + ResourceHandler.INDEX_HTML);
+        }
+        return Path.of(STATIC_ROOT + requestPath + File.separator + ResourceHandler.INDEX_HTML);
+    }
+}
@@ -0,0 +1,96 @@
+package utils;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AssetIndexTest {
+
+    @TempDir
+    Path tempDirectory;
+
+    private AssetIndex assetIndex;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path staticRoot = Files.createDirectories(tempDirectory.resolve("static"));
+        Files.writeString(staticRoot.resolve("index.html"), "<html></html>");
+        Files.writeString(staticRoot.resolve("main.css"), "body {}");
+        Files.createDirectories(staticRoot.resolve("img"));
+        Files.writeString(staticRoot.resolve("img/like.svg"), "<svg></svg>");
+        Files.createDirectories(staticRoot.resolve("registration"));
+        Files.writeString(staticRoot.resolve("registration/index.html"), "<form></form>");
+
+        Path templateRoot = Files.createDirectories(tempDirectory.resolve("templates"));
+        Files.writeString(templateRoot.resolve("index.html"), "<html>{{user}}</html>");
+        Files.createDirectories(templateRoot.resolve("user"));
+        Files.writeString(templateRoot.resolve("user/user-list.html"), "<table></table>");
+
+        assetIndex = AssetIndex.build(staticRoot, templateRoot);
+    }
+
+    @DisplayName("정적 파일을 요청 경로로 찾고, 크기, Content-Type, ETag 를 미리 알 수 있다")
+    @Test
+    void find() {
+        // when
+        AssetIndex.Asset css = assetIndex.find("/main.css");
+        AssetIndex.Asset svg = assetIndex.find("/img/like.svg");
+
+        // then
+        assertThat(css.file()).isEqualTo(tempDirectory.resolve("static/main.css"));
+        assertThat(css.contentType()).isEqualTo("text/css");
+        assertThat(css.validator().size()).isEqualTo(7);
+        assertThat(css.validator().etag()).isNotEmpty();
+        assertThat(svg.contentType()).isEqualTo("image/svg+xml");
+    }
+
+    @DisplayName("'index.html' 이 있는 디렉토리는 디렉토리 경로로도 찾는다")
+    @Test
+    void find_Directory() {
+        // then
+        Path registration = tempDirectory.resolve("static/registration/index.html");
+        assertThat(assetIndex.find("/").file()).isEqualTo(tempDirectory.resolve("static/index.html"));
+        assertThat(assetIndex.find("/registration").file()).isEqualTo(registration);
+        assertThat(assetIndex.find("/registration/").file()).isEqualTo(registration);
+        assertThat(assetIndex.find("/registration").contentType()).isEqualTo("text/html");
+    }
+
+    @DisplayName("색인에 없는 경로는 null 을 반환한다")
+    @Test
+    void find_NotIndexed() {
+        assertThat(assetIndex.find("/media/user/image.png")).isNull();
+        assertThat(assetIndex.find("/img")).isNull();
+    }
+
+    @DisplayName("템플릿을 파일 이름이나 'index.html' 이 있는 디렉토리 이름으로 찾는다")
+    @Test
+    void findTemplate() {
+        // then
+        assertThat(assetIndex.findTemplate("/")).isEqualTo(tempDirectory.resolve("templates/index.html"));
+        assertThat(assetIndex.findTemplate("/index.html")).isEqualTo(tempDirectory.resolve("templates/index.html"));
+        assertThat(assetIndex.findTemplate("/user/user-list.html"))
+                .isEqualTo(tempDirectory.resolve("templates/user/user-list.html"));
+        assertThat(assetIndex.findTemplate("/index")).isNull();
+    }
+
+    @DisplayName("캐시할 수 있는 정적 파일을 캐시에 미리 읽어 둔다")
+    @Test
+    void warmUp() {
+        // given
+        StaticFileCache staticFileCache = new StaticFileCache(1024, 1024);
+
+        // when
+        int preloaded = assetIndex.warmUp(staticFileCache);
+
+        // then
+        assertThat(preloaded).isEqualTo(4);
+        assertThat(staticFileCache.get(tempDirectory.resolve("static/main.css"))).isNotNull();
+        staticFileCache.close();
+    }
+}
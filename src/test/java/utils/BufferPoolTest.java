@@ -0,0 +1,55 @@
+package utils;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BufferPoolTest {
+    private final BufferPool bufferPool = BufferPool.getInstance();
+
+    @DisplayName("반납한 버퍼는 같은 스레드에서 다시 빌려 쓴다")
+    @Test
+    void acquire_AfterRelease_ReuseBuffer() {
+        // given
+        byte[] first = bufferPool.acquire();
+        bufferPool.release(first);
+
+        // when
+        byte[] second = bufferPool.acquire();
+        bufferPool.release(second);
+
+        // then
+        assertThat(second).isSameAs(first).hasSize(BufferPool.BUFFER_SIZE);
+    }
+
+    @DisplayName("반납하지 않은 버퍼 수와 빌려 간 위치를 확인할 수 있다")
+    @Test
+    void outstanding_NotReleased_CountAndTrackLeak() {
+        // given
+        int before = bufferPool.outstanding();
+
+        // when
+        byte[] buffer = bufferPool.acquire();
+        int whileBorrowed = bufferPool.outstanding();
+        int leaksWhileBorrowed = bufferPool.leaks().size();
+        bufferPool.release(buffer);
+
+        // then
+        assertThat(whileBorrowed).isEqualTo(before + 1);
+        assertThat(leaksWhileBorrowed).isEqualTo(before + 1); // 테스트에서는 누수 검사가 켜져 있다
+        assertThat(bufferPool.outstanding()).isEqualTo(before);
+    }
+
+    @DisplayName("이미 반납한 버퍼를 다시 반납하면 예외가 발생한다")
+    @Test
+    void release_Twice_ThrowException() {
+        // given
+        byte[] buffer = bufferPool.acquire();
+        bufferPool.release(buffer);
+
+        // when & then
+        assertThatThrownBy(() -> bufferPool.release(buffer))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,56 @@
+package utils;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ByteRangeTest {
+
+    @DisplayName("시작-끝, 시작-, -마지막 길이 형식의 구간을 파일 크기에 맞춰 해석한다")
+    @Test
+    void parse() {
+        // when
+        List<ByteRange> ranges = ByteRange.parse("bytes=0-99, 900-, -50", 1000);
+
+        // then
+        assertThat(ranges).containsExactly(
+                new ByteRange(0, 99), new ByteRange(900, 999), new ByteRange(950, 999));
+        assertThat(ranges.get(0).length()).isEqualTo(100);
+    }
+
+    @DisplayName("파일 크기를 넘는 끝 위치는 파일 끝으로 줄이고, 파일 밖에서 시작하는 구간은 뺀다")
+    @Test
+    void parse_OutOfFile() {
+        assertThat(ByteRange.parse("bytes=500-5000", 1000)).containsExactly(new ByteRange(500, 999));
+        assertThat(ByteRange.parse("bytes=-5000", 1000)).containsExactly(new ByteRange(0, 999));
+        assertThat(ByteRange.parse("bytes=0-9,1000-1999", 1000)).containsExactly(new ByteRange(0, 9));
+    }
+
+    @DisplayName("파일 안의 구간이 하나도 없으면 빈 목록을 반환한다 (416)")
+    @Test
+    void parse_Unsatisfiable() {
+        assertThat(ByteRange.parse("bytes=1000-", 1000)).isEmpty();
+        assertThat(ByteRange.parse("bytes=-0", 1000)).isEmpty();
+        assertThat(ByteRange.parse("bytes=0-", 0)).isEmpty();
+    }
+
+    @DisplayName("형식이 잘못되었거나 bytes 단위가 아니면 null 을 반환한다")
+    @Test
+    void parse_Invalid() {
+        assertThat(ByteRange.parse("items=0-9", 1000)).isNull();
+        assertThat(ByteRange.parse("bytes=9-0", 1000)).isNull();
+        assertThat(ByteRange.parse("bytes=a-9", 1000)).isNull();
+        assertThat(ByteRange.parse("bytes=+1-9", 1000)).isNull();
+        assertThat(ByteRange.parse("bytes=10", 1000)).isNull();
+        assertThat(ByteRange.parse("bytes=", 1000)).isNull();
+    }
+
+    @DisplayName("구간이 너무 많거나 겹친 구간의 합이 파일보다 크면 null 을 반환해 전체를 보내게 한다")
+    @Test
+    void parse_TooManyRanges() {
+        assertThat(ByteRange.parse("bytes=" + "0-0,".repeat(17), 1000)).isNull();
+        assertThat(ByteRange.parse("bytes=0-,0-", 1000)).isNull();
+    }
+}
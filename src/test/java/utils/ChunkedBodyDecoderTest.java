@@ -0,0 +1,92 @@
+package utils;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.assertj.core.api.Assertions.*;
+
+import http.HttpStatus;
+import java.io.IOException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ChunkedBodyDecoderTest {
+
+    @DisplayName("청크 크기 줄, 청크 확장, 트레일러를 걷어내고 데이터만 앞으로 당겨 쓴다")
+    @Test
+    void decode_ChunkedBody_DataOnly() throws IOException {
+        // given
+        String body = "7\r\nid=test\r\n"
+                + "a;ext=1\r\n&name=neon\r\n"
+                + "0\r\n"
+                + "X-Trailer: ignored\r\n"
+                + "\r\n";
+        String next = "GET /index.html HTTP/1.1\r\n\r\n";
+        byte[] buffer = (body + next).getBytes(ISO_8859_1);
+        ChunkedBodyDecoder decoder = new ChunkedBodyDecoder();
+
+        // when
+        int consumed = decoder.decode(buffer, 0, buffer.length, 0);
+
+        // then: 마지막 청크와 트레일러 뒤의 다음 요청은 소비하지 않는다
+        assertThat(decoder.isComplete()).isTrue();
+        assertThat(consumed).isEqualTo(body.length());
+        assertThat(new String(buffer, 0, decoder.decodedLength(), ISO_8859_1)).isEqualTo("id=test&name=neon");
+    }
+
+    @DisplayName("본문을 한 바이트씩 나눠 받아도 한 번에 받은 것과 같은 데이터로 푼다")
+    @Test
+    void decode_ByteByByte_SameData() throws IOException {
+        // given
+        byte[] buffer = "3\r\nabc\r\n1F\r\n0123456789012345678901234567890\r\n0\r\n\r\n".getBytes(ISO_8859_1);
+        ChunkedBodyDecoder decoder = new ChunkedBodyDecoder();
+
+        // when
+        int decoded = 0;
+        for (int i = 0; i < buffer.length; i++) {
+            decoder.decode(buffer, i, i + 1, decoded);
+            decoded += decoder.decodedLength();
+        }
+
+        // then
+        assertThat(decoder.isComplete()).isTrue();
+        assertThat(new String(buffer, 0, decoded, ISO_8859_1)).isEqualTo("abc0123456789012345678901234567890");
+    }
+
+    @DisplayName("청크 크기가 16진수가 아니면 예외가 발생한다")
+    @Test
+    void decode_InvalidChunkSize_ThrowException() {
+        // given
+        byte[] buffer = "zz\r\nabc\r\n0\r\n\r\n".getBytes(ISO_8859_1);
+        ChunkedBodyDecoder decoder = new ChunkedBodyDecoder();
+
+        // when & then
+        assertThatThrownBy(() -> decoder.decode(buffer, 0, buffer.length, 0))
+                .isInstanceOfSatisfying(RequestRejectedException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.STATUS_BAD_REQUEST));
+    }
+
+    @DisplayName("청크 데이터 뒤에 CRLF 가 없으면 400 으로 거절한다")
+    @Test
+    void decode_MissingCrlf_BadRequest() {
+        // given
+        byte[] buffer = "3\r\nabcX\r\n0\r\n\r\n".getBytes(ISO_8859_1);
+        ChunkedBodyDecoder decoder = new ChunkedBodyDecoder();
+
+        // when & then
+        assertThatThrownBy(() -> decoder.decode(buffer, 0, buffer.length, 0))
+                .isInstanceOfSatisfying(RequestRejectedException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.STATUS_BAD_REQUEST));
+    }
+
+    @DisplayName("청크 크기의 합이 본문 크기 제한을 넘으면 데이터를 받기 전에 413 으로 거절한다")
+    @Test
+    void decode_ChunkOverLimit_PayloadTooLarge() {
+        // given
+        byte[] buffer = "a\r\n0123456789\r\n7\r\n".getBytes(ISO_8859_1);
+        ChunkedBodyDecoder decoder = new ChunkedBodyDecoder(16);
+
+        // when & then
+        assertThatThrownBy(() -> decoder.decode(buffer, 0, buffer.length, 0))
+                .isInstanceOfSatisfying(RequestRejectedException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.STATUS_PAYLOAD_TOO_LARGE));
+    }
+}
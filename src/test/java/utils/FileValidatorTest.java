@@ -0,0 +1,142 @@
+package utils;
+
+import static org.assertj.core.api.Assertions.*;
+
+import http.ResponseHeaders;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileValidatorTest {
+    private static final Instant MODIFIED = Instant.parse("2024-03-13T13:00:12Z");
+
+    @TempDir
+    Path tempDirectory;
+
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.writeString(tempDirectory.resolve("main.css"), "body {}");
+        Files.setLastModifiedTime(file, FileTime.from(MODIFIED));
+    }
+
+    @DisplayName("수정 시각과 크기로 ETag 와 RFC 7231 형식의 Last-Modified 를 만든다")
+    @Test
+    void of() {
+        // when
+        FileValidator validator = FileValidator.of(file);
+
+        // then
+        assertThat(validator.etag()).isEqualTo("\"7-" + Long.toHexString(MODIFIED.toEpochMilli()) + "\"");
+        assertThat(validator.lastModified()).isEqualTo("Wed, 13 Mar 2024 13:00:12 GMT");
+    }
+
+    @DisplayName("파일이 바뀌지 않으면 캐시한 검증자를 그대로 쓰고, 바뀌면 다시 만든다")
+    @Test
+    void of_Cached() throws IOException {
+        // given
+        FileValidator first = FileValidator.of(file);
+
+        // when
+        FileValidator same = FileValidator.of(file);
+        Files.writeString(file, "body { margin: 0; }");
+        FileValidator changed = FileValidator.of(file);
+
+        // then
+        assertThat(same).isSameAs(first);
+        assertThat(changed.etag()).isNotEqualTo(first.etag());
+    }
+
+    @DisplayName("파일이 없으면 null 을 반환한다")
+    @Test
+    void of_NotExists() {
+        assertThat(FileValidator.of(tempDirectory.resolve("none.css"))).isNull();
+    }
+
+    @DisplayName("If-None-Match 의 태그 중 하나가 ETag 와 같으면(약한 비교) 수정되지 않은 것이다")
+    @Test
+    void isNotModified_IfNoneMatch() {
+        // given
+        FileValidator validator = FileValidator.of(file);
+
+        // then
+        assertThat(validator.isNotModified(validator.etag(), "")).isTrue();
+        assertThat(validator.isNotModified("\"other\", W/" + validator.etag(), "")).isTrue();
+        assertThat(validator.isNotModified("*", "")).isTrue();
+        assertThat(validator.isNotModified("\"other\"", "")).isFalse();
+    }
+
+    @DisplayName("If-None-Match 가 있으면 If-Modified-Since 는 보지 않는다")
+    @Test
+    void isNotModified_IfNoneMatchFirst() {
+        // given
+        FileValidator validator = FileValidator.of(file);
+
+        // then
+        assertThat(validator.isNotModified("\"other\"", validator.lastModified())).isFalse();
+    }
+
+    @DisplayName("If-Modified-Since 이후에 수정되지 않았으면 수정되지 않은 것이다")
+    @Test
+    void isNotModified_IfModifiedSince() {
+        // given
+        FileValidator validator = FileValidator.of(file);
+
+        // then
+        assertThat(validator.isNotModified("", validator.lastModified())).isTrue();
+        assertThat(validator.isNotModified("", ResponseHeaders.formatHttpDate(MODIFIED.plusSeconds(60)))).isTrue();
+        assertThat(validator.isNotModified("", ResponseHeaders.formatHttpDate(MODIFIED.minusSeconds(1)))).isFalse();
+        assertThat(validator.isNotModified("", "yesterday")).isFalse();
+        assertThat(validator.isNotModified("", "")).isFalse();
+    }
+
+    @DisplayName("If-Range 는 ETag 나 Last-Modified 가 정확히 같을 때만 맞는다")
+    @Test
+    void matchesIfRange() {
+        // given
+        FileValidator validator = FileValidator.of(file);
+
+        // then
+        assertThat(validator.matchesIfRange("")).isTrue();
+        assertThat(validator.matchesIfRange(validator.etag())).isTrue();
+        assertThat(validator.matchesIfRange(validator.lastModified())).isTrue();
+        assertThat(validator.matchesIfRange("W/" + validator.etag())).isFalse();
+        assertThat(validator.matchesIfRange(ResponseHeaders.formatHttpDate(MODIFIED.plusSeconds(60)))).isFalse();
+    }
+
+    @DisplayName("지금과 같은 초에 바뀐 파일의 Last-Modified 는 약한 검증자이므로 If-Range 에 맞지 않는다")
+    @Test
+    void matchesIfRange_ModifiedInCurrentSecond() {
+        // given
+        FileValidator validator = FileValidator.of(file);
+        long modifiedMillis = MODIFIED.toEpochMilli();
+
+        // then
+        assertThat(validator.matchesIfRange(validator.lastModified(), modifiedMillis + 999)).isFalse();
+        assertThat(validator.matchesIfRange(validator.lastModified(), modifiedMillis + 1000)).isTrue();
+        assertThat(validator.matchesIfRange(validator.etag(), modifiedMillis)).isTrue();
+    }
+
+    @DisplayName("검증자 캐시는 최대 개수를 넘으면 가장 오래 사용하지 않은 경로부터 뺀다")
+    @Test
+    void of_EvictEldest() throws IOException {
+        // given
+        Path directory = Files.createDirectories(tempDirectory.resolve("many"));
+        int maxEntries = Integer.getInteger("server.validatorCache.maxEntries", 10_000);
+
+        // when
+        for (int i = 0; i <= maxEntries; i++) {
+            FileValidator.of(Files.createFile(directory.resolve(i + ".png")));
+        }
+
+        // then
+        assertThat(FileValidator.cachedFiles()).isEqualTo(maxEntries);
+    }
+}
@@ -0,0 +1,83 @@
+package utils;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * 메인 페이지를 요청마다 템플릿 문자열에서 indexOf/replace/insert 로 만드는 방식과, 컴파일한 템플릿에 값을 넣어 렌더링하는 방식의 시간을 비교한다.
+ * 일반 테스트에서는 실행되지 않는다.
+ * <pre>
+ * gradle test --tests utils.HtmlTemplateBenchmark -Dbenchmark=true -Dbenchmark.renders=100000
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class HtmlTemplateBenchmark {
+    private static final int RENDERS = Integer.getInteger("benchmark.renders", 100_000);
+    private static final String USER = "<p class=\"comment__item__user__nickname\"> javajigi </p>";
+    private static final String PHOTO = "<img class=\"post__img\" src=\"/media/javajigi/photo.png\"/>";
+    private static final String ARTICLE = "게시글 본문 ".repeat(50);
+
+    @DisplayName("메인 페이지를 문자열 치환과 컴파일한 템플릿으로 만드는 시간을 잰다")
+    @Test
+    void render_index() {
+        // given
+        String html = ResourceHandler.readTemplate("/index.html");
+        HtmlTemplate template = HtmlTemplate.compile(html);
+        Map<String, byte[]> values = Map.of("user", USER.getBytes(UTF_8), "photo", PHOTO.getBytes(UTF_8),
+                "article", ARTICLE.getBytes(UTF_8));
+        BodyBuffer body = new BodyBuffer();
+
+        // when: 요청마다 템플릿 전체를 복사하고 자리를 찾아 바꾼 뒤 인코딩한다
+        long checksum = 0;
+        long replaceStart = System.nanoTime();
+        for (int i = 0; i < RENDERS; i++) {
+            StringBuilder page = new StringBuilder(html);
+            changeHtml(page, "<!-- target user -->", "<!-- end user -->", USER);
+            changeHtml(page, "<!-- target photo -->", "<!-- end photo -->", PHOTO);
+            changeHtml(page, "<!-- target article -->", "<!-- end article -->", ARTICLE);
+            checksum += page.toString().getBytes(UTF_8).length;
+        }
+        long replaceNanos = (System.nanoTime() - replaceStart) / RENDERS;
+
+        // when: 컴파일한 조각과 값을 버퍼에 쓴다
+        long renderStart = System.nanoTime();
+        for (int i = 0; i < RENDERS; i++) {
+            body.length = 0;
+            template.render(values, body);
+            checksum -= body.length;
+        }
+        long renderNanos = (System.nanoTime() - renderStart) / RENDERS;
+
+        // then
+        System.out.printf("index page (%d bytes): replace %d ns/op, compiled template %d ns/op%n",
+                template.length(values), replaceNanos, renderNanos);
+        assertThat(checksum).isZero();
+    }
+
+    /* 템플릿 엔진 이전의 DynamicHtmlProcessor.changeHtml */
+    private static void changeHtml(StringBuilder page, String start, String end, String content) {
+        page.replace(page.indexOf(start) + start.length(), page.indexOf(end), "");
+        page.insert(page.indexOf(start), content);
+    }
+
+    /* 응답 버퍼처럼 받은 바이트를 이어 쓴다 */
+    private static final class BodyBuffer implements HtmlTemplate.Sink {
+        private byte[] bytes = new byte[16 * 1024];
+        private int length = 0;
+
+        @Override
+        public void write(byte[] source, int offset, int count) {
+            if (length + count > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(length + count, bytes.length * 2));
+            }
+            System.arraycopy(source, offset, bytes, length, count);
+            length += count;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package utils;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class HtmlTemplateTest {
+    private static final String HTML = """
+            <ul>
+            <!-- target user --><a href="/login">로그인</a><!-- end user -->
+            </ul>
+            <!-- target article --><p>게시글이 없습니다</p><!-- end article -->""";
+
+    @DisplayName("값을 준 자리는 감싼 내용을 지우고 시작 주석 앞에 값을 쓴다")
+    @Test
+    void render() {
+        // given
+        HtmlTemplate template = HtmlTemplate.compile(HTML);
+
+        // when
+        String rendered = render(template, Map.of("user", bytes("<p>javajigi</p>"), "article", bytes("안녕하세요")));
+
+        // then
+        assertThat(rendered).isEqualTo("""
+                <ul>
+                <p>javajigi</p><!-- target user --><!-- end user -->
+                </ul>
+                안녕하세요<!-- target article --><!-- end article -->""");
+    }
+
+    @DisplayName("값을 주지 않은 자리는 템플릿 그대로 쓴다")
+    @Test
+    void render_WithoutValue() {
+        // given
+        HtmlTemplate template = HtmlTemplate.compile(HTML);
+
+        // when
+        String rendered = render(template, Map.of("article", bytes("안녕하세요")));
+
+        // then
+        assertThat(rendered).startsWith("<ul>\n<!-- target user --><a href=\"/login\">로그인</a><!-- end user -->\n")
+                .endsWith("안녕하세요<!-- target article --><!-- end article -->");
+        assertThat(render(template, Map.of())).isEqualTo(HTML);
+    }
+
+    @DisplayName("본문 길이는 렌더링한 바이트 수와 같다")
+    @Test
+    void length() {
+        // given
+        HtmlTemplate template = HtmlTemplate.compile(HTML);
+        Map<String, byte[]> values = Map.of("user", bytes("<p>자바지기</p>"));
+
+        // when
+        long length = template.length(values);
+
+        // then
+        assertThat(length).isEqualTo(render(template, values).getBytes(UTF_8).length);
+        assertThat(template.length(Map.of())).isEqualTo(HTML.getBytes(UTF_8).length);
+    }
+
+    @DisplayName("끝 주석이 없는 시작 주석은 고정된 텍스트로 쓴다")
+    @Test
+    void compile_WithoutEndMarker() {
+        // given
+        String html = "<div><!-- target user --></div><!-- target list -->x<!-- end list -->";
+
+        // when
+        String rendered = render(HtmlTemplate.compile(html), Map.of("user", bytes("a"), "list", bytes("b")));
+
+        // then
+        assertThat(rendered).isEqualTo("<div><!-- target user --></div>b<!-- target list --><!-- end list -->");
+    }
+
+    @DisplayName("스트리밍하는 자리는 그 자리를 쓸 차례에 직접 쓴다")
+    @Test
+    void render_StreamedSlot() {
+        // given
+        HtmlTemplate template = HtmlTemplate.compile(HTML);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // when
+        template.render(Map.of("user", bytes("u")), out::write, "article", () -> out.writeBytes(bytes("<tr></tr>")));
+
+        // then
+        assertThat(out.toString(UTF_8)).isEqualTo("""
+                <ul>
+                u<!-- target user --><!-- end user -->
+                </ul>
+                <tr></tr><!-- target article --><!-- end article -->""");
+    }
+
+    private static String render(HtmlTemplate template, Map<String, byte[]> values) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        template.render(values, out::write);
+        return out.toString(UTF_8);
+    }
+
+    private static byte[] bytes(String string) {
+        return string.getBytes(UTF_8);
+    }
+}
@@ -0,0 +1,262 @@
+package utils;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.assertj.core.api.Assertions.*;
+
+import http.HttpStatus;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Optional;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class HttpRequestBufferTest {
+
+    @DisplayName("한 번에 받은 요청 2개를 하나씩 잘라낸다")
+    @Test
+    void nextRequest_PipelinedRequests_SplitEachRequest() throws IOException {
+        // given
+        String first = "GET /index.html HTTP/1.1\r\nHost: localhost\r\n\r\n";
+        String second = "POST /login HTTP/1.1\r\nContent-Length: 7\r\n\r\nid=test";
+        HttpRequestBuffer requestBuffer = bufferOf(first + second);
+
+        // when
+        Optional<HttpRequestFrame> firstRequest = requestBuffer.nextRequest();
+        Optional<HttpRequestFrame> secondRequest = requestBuffer.nextRequest();
+
+        // then
+        assertThat(firstRequest).map(HttpRequestBufferTest::asString).contains(first);
+        assertThat(secondRequest).map(HttpRequestBufferTest::asString).contains(second);
+        assertThat(requestBuffer.isEmpty()).isTrue();
+    }
+
+    @DisplayName("받은 바이트를 모두 요청으로 잘라내면 빌린 버퍼를 반납한다")
+    @Test
+    void nextRequest_AllBytesSplit_ReleaseBuffer() throws IOException {
+        // given
+        int before = BufferPool.getInstance().outstanding();
+        HttpRequestBuffer requestBuffer = bufferOf("GET /index.html HTTP/1.1\r\n\r\nGET /reset.css HTTP/1.1\r\n");
+
+        // when
+        int whileReceiving = BufferPool.getInstance().outstanding();
+        requestBuffer.nextRequest();
+        append(requestBuffer, "\r\n");
+        requestBuffer.nextRequest();
+
+        // then
+        assertThat(whileReceiving).isEqualTo(before + 1);
+        assertThat(BufferPool.getInstance().outstanding()).isEqualTo(before);
+    }
+
+    @DisplayName("Content-Length 만큼의 본문을 모두 받기 전에는 요청을 잘라내지 않는다")
+    @Test
+    void nextRequest_BodyNotReceived_ReturnEmpty() throws IOException {
+        // given
+        HttpRequestBuffer requestBuffer = bufferOf("POST /login HTTP/1.1\r\nContent-Length: 7\r\n\r\nid=");
+
+        // when
+        boolean completeBeforeBody = requestBuffer.hasCompleteRequest();
+        append(requestBuffer, "test");
+
+        // then
+        assertThat(completeBeforeBody).isFalse();
+        assertThat(requestBuffer.nextRequest()).map(HttpRequestBufferTest::asString)
+                .hasValueSatisfying(request -> assertThat(request).endsWith("\r\n\r\nid=test"));
+    }
+
+    @DisplayName("Content-Length 가 없는 multipart 요청은 받는 대로 파트로 나누고 여러 번에 나눠 받은 종료 경계까지 잘라낸다")
+    @Test
+    void nextRequest_MultiPartBoundarySplitAcrossReads_SplitAtLastBoundary() throws IOException {
+        // given
+        String header = "POST /article HTTP/1.1\r\n"
+                + "Content-Type: multipart/form-data; boundary=----WebKitFormBoundaryesErKWzx2VMAbwfJ\r\n"
+                + "\r\n";
+        String request = header
+                + "------WebKitFormBoundaryesErKWzx2VMAbwfJ\r\n"
+                + "Content-Disposition: form-data; name=\"article-body\"\r\n"
+                + "\r\n"
+                + "test text\r\n"
+                + "------WebKitFormBoundaryesErKWzx2VMAbwfJ--\r\n";
+        String next = "GET /index.html HTTP/1.1\r\n\r\n";
+        HttpRequestBuffer requestBuffer = new HttpRequestBuffer();
+
+        // when: 종료 경계 중간에서 끊어 받는 경우
+        int split = request.length() - 10;
+        append(requestBuffer, request.substring(0, split));
+        boolean completeBeforeBoundary = requestBuffer.hasCompleteRequest();
+        append(requestBuffer, request.substring(split) + next);
+        HttpRequestFrame multiPartRequest = requestBuffer.nextRequest().orElseThrow();
+
+        // then
+        assertThat(completeBeforeBoundary).isFalse();
+        assertThat(asString(multiPartRequest)).isEqualTo(header); // 본문은 받는 동안 소비했다
+        assertThat(multiPartRequest.parts()).hasSize(1);
+        assertThat(multiPartRequest.parts().get(0).name()).isEqualTo("article-body");
+        assertThat(multiPartRequest.parts().get(0).partBody()).isEqualTo("test text".getBytes(ISO_8859_1));
+        assertThat(requestBuffer.nextRequest()).map(HttpRequestBufferTest::asString).contains(next);
+    }
+
+    @DisplayName("chunked 본문은 마지막 청크까지 받은 뒤 헤더와 풀어낸 본문으로 잘라낸다")
+    @Test
+    void nextRequest_ChunkedBody_SplitWithDecodedBody() throws IOException {
+        // given
+        String header = "POST /user/create HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n";
+        String next = "GET /index.html HTTP/1.1\r\n\r\n";
+        HttpRequestBuffer requestBuffer = new HttpRequestBuffer();
+
+        // when: 청크 크기 줄 중간에서 끊어 받는 경우
+        append(requestBuffer, header + "7\r\nuserId=\r\n");
+        boolean completeBeforeLastChunk = requestBuffer.hasCompleteRequest();
+        append(requestBuffer, "4\r\ntest\r\n0\r");
+        append(requestBuffer, "\n\r\n" + next);
+
+        // then
+        assertThat(completeBeforeLastChunk).isFalse();
+        assertThat(requestBuffer.nextRequest()).map(HttpRequestBufferTest::asString).contains(header + "userId=test");
+        assertThat(requestBuffer.nextRequest()).map(HttpRequestBufferTest::asString).contains(next);
+    }
+
+    @DisplayName("chunked multipart 본문은 풀어낸 데이터를 받는 대로 파트로 나눈다")
+    @Test
+    void nextRequest_ChunkedMultiPart_DecodeParts() throws IOException {
+        // given
+        String header = "POST /article HTTP/1.1\r\n"
+                + "Content-Type: multipart/form-data; boundary=----WebKitFormBoundaryesErKWzx2VMAbwfJ\r\n"
+                + "Transfer-Encoding: chunked\r\n"
+                + "\r\n";
+        String body = "------WebKitFormBoundaryesErKWzx2VMAbwfJ\r\n"
+                + "Content-Disposition: form-data; name=\"article-body\"\r\n"
+                + "\r\n"
+                + "test text\r\n"
+                + "------WebKitFormBoundaryesErKWzx2VMAbwfJ--\r\n";
+        int split = body.length() / 2;
+        String chunked = Integer.toHexString(split) + "\r\n" + body.substring(0, split) + "\r\n"
+                + Integer.toHexString(body.length() - split) + "\r\n" + body.substring(split) + "\r\n"
+                + "0\r\n\r\n";
+        HttpRequestBuffer requestBuffer = new HttpRequestBuffer();
+
+        // when
+        for (int i = 0; i < chunked.length(); i += 16) {
+            append(requestBuffer, (i == 0 ? header : "") + chunked.substring(i, Math.min(i + 16, chunked.length())));
+        }
+        HttpRequestFrame multiPartRequest = requestBuffer.nextRequest().orElseThrow();
+
+        // then
+        assertThat(asString(multiPartRequest)).isEqualTo(header);
+        assertThat(multiPartRequest.parts()).hasSize(1);
+        assertThat(multiPartRequest.parts().get(0).partBody()).isEqualTo("test text".getBytes(ISO_8859_1));
+        assertThat(requestBuffer.isEmpty()).isTrue();
+    }
+
+    @DisplayName("버퍼보다 큰 요청도 여러 번 읽어서 하나의 요청으로 잘라낸다")
+    @Test
+    void readFrom_LargeBody_SplitOneRequest() throws IOException {
+        // given
+        int bodySize = 1024 * 1024;
+        String header = "POST /upload HTTP/1.1\r\nContent-Length: " + bodySize + "\r\n\r\n";
+        byte[] request = new byte[header.length() + bodySize];
+        System.arraycopy(header.getBytes(ISO_8859_1), 0, request, 0, header.length());
+        ByteArrayInputStream in = new ByteArrayInputStream(request);
+        HttpRequestBuffer requestBuffer = new HttpRequestBuffer();
+
+        // when
+        Optional<HttpRequestFrame> rawRequest;
+        while ((rawRequest = requestBuffer.nextRequest()).isEmpty()) {
+            assertThat(requestBuffer.readFrom(in)).isNotEqualTo(-1);
+        }
+
+        // then
+        assertThat(rawRequest.get().bytes()).hasSize(request.length);
+        assertThat(requestBuffer.isEmpty()).isTrue();
+    }
+
+    @DisplayName("'Expect: 100-continue' 요청은 본문을 받기 전에 헤더만 한 번 잘라내고, 본문을 받으면 요청 전체를 잘라낸다")
+    @Test
+    void nextExpectation_ExpectContinue_ReturnHeaderOnce() throws IOException {
+        // given
+        String header = "POST /login HTTP/1.1\r\nExpect: 100-continue\r\nContent-Length: 7\r\n\r\n";
+        HttpRequestBuffer requestBuffer = bufferOf(header);
+
+        // when
+        Optional<HttpRequestFrame> expectation = requestBuffer.nextExpectation();
+        Optional<HttpRequestFrame> again = requestBuffer.nextExpectation();
+        append(requestBuffer, "id=test");
+
+        // then
+        assertThat(expectation).map(HttpRequestBufferTest::asString).contains(header);
+        assertThat(again).isEmpty();
+        assertThat(requestBuffer.nextRequest()).map(HttpRequestBufferTest::asString).contains(header + "id=test");
+    }
+
+    @DisplayName("요청 라인이 제한보다 길면 헤더를 끝까지 받기 전에 414 로 거절한다")
+    @Test
+    void append_RequestLineTooLong_Reject414() {
+        // given
+        HttpRequestBuffer requestBuffer = new HttpRequestBuffer();
+        String uri = "/" + "a".repeat(RequestLimits.MAX_REQUEST_LINE_SIZE);
+
+        // when & then
+        assertThatThrownBy(() -> append(requestBuffer, "GET " + uri))
+                .isInstanceOfSatisfying(RequestRejectedException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.STATUS_URI_TOO_LONG));
+        requestBuffer.release();
+    }
+
+    @DisplayName("헤더 수가 제한을 넘으면 431 로 거절한다")
+    @Test
+    void append_TooManyHeaders_Reject431() {
+        // given
+        HttpRequestBuffer requestBuffer = new HttpRequestBuffer();
+        String headers = "X-Test: 1\r\n".repeat(RequestLimits.MAX_HEADER_COUNT + 1);
+
+        // when & then
+        assertThatThrownBy(() -> append(requestBuffer, "GET /index.html HTTP/1.1\r\n" + headers))
+                .isInstanceOfSatisfying(RequestRejectedException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.STATUS_REQUEST_HEADER_FIELDS_TOO_LARGE));
+        requestBuffer.release();
+    }
+
+    @DisplayName("헤더 영역이 제한보다 크면 헤더 끝을 받기 전에 431 로 거절한다")
+    @Test
+    void append_HeaderTooLarge_Reject431() {
+        // given
+        HttpRequestBuffer requestBuffer = new HttpRequestBuffer();
+        String cookie = "Cookie: sid=" + "a".repeat(RequestLimits.MAX_HEADER_SIZE);
+
+        // when & then
+        assertThatThrownBy(() -> append(requestBuffer, "GET /index.html HTTP/1.1\r\n" + cookie))
+                .isInstanceOfSatisfying(RequestRejectedException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.STATUS_REQUEST_HEADER_FIELDS_TOO_LARGE));
+        requestBuffer.release();
+    }
+
+    @DisplayName("Content-Length 가 제한보다 크면 본문을 받기 전에 413 으로 거절한다")
+    @Test
+    void append_ContentLengthTooLarge_Reject413BeforeBody() {
+        // given
+        HttpRequestBuffer requestBuffer = new HttpRequestBuffer();
+        long contentLength = RequestLimits.MAX_BODY_SIZE + 1;
+
+        // when & then
+        assertThatThrownBy(() -> append(requestBuffer,
+                "POST /upload HTTP/1.1\r\nContent-Length: " + contentLength + "\r\n\r\n"))
+                .isInstanceOfSatisfying(RequestRejectedException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.STATUS_PAYLOAD_TOO_LARGE));
+        requestBuffer.release();
+    }
+
+    private static String asString(HttpRequestFrame frame) {
+        return new String(frame.bytes(), ISO_8859_1);
+    }
+
+    private static HttpRequestBuffer bufferOf(String received) throws IOException {
+        HttpRequestBuffer requestBuffer = new HttpRequestBuffer();
+        append(requestBuffer, received);
+        return requestBuffer;
+    }
+
+    private static void append(HttpRequestBuffer requestBuffer, String received) throws IOException {
+        byte[] bytes = received.getBytes(ISO_8859_1);
+        requestBuffer.append(bytes, 0, bytes.length);
+    }
+}
@@ -1,12 +1,20 @@
 package utils;
 
 import static http.HttpRequest.*;
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.*;
 
 import http.HttpRequest;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -17,6 +25,9 @@ class HttpRequestConverterTest {
 
     @AfterEach
     void close() {
+        if (inputStream == null) {
+            return;
+        }
         try {
             inputStream.close();
         } catch (IOException e) {
@@ -91,4 +102,70 @@ class HttpRequestConverterTest {
         assertThat(httpRequest.getParameter("username")).isEqualTo("testName");
         assertThat(httpRequest.getParameter("email")).isEqualTo("test@test.com");
     }
-}
\ No newline at end of file
+
+    @DisplayName("여러 스레드에서 동시에 변환해도 요청끼리 결과가 섞이지 않는다")
+    @Test
+    void convert_concurrently() throws Exception {
+        // given
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            int id = i;
+            tasks.add(() -> {
+                String request = "GET /page" + id + "?id=" + id + " HTTP/1.1\r\nHost: host" + id + "\r\n\r\n";
+                HttpRequest httpRequest = HttpRequestConverter.convertToHttpRequest(request.getBytes(UTF_8));
+                return httpRequest.getPath().equals("/page" + id)
+                        && httpRequest.getParameter("id").equals(String.valueOf(id))
+                        && httpRequest.getHeader("Host").equals("host" + id);
+            });
+        }
+
+        // when
+        List<Future<Boolean>> results;
+        try {
+            results = executor.invokeAll(tasks);
+        } finally {
+            executor.shutdown();
+        }
+
+        // then
+        for (Future<Boolean> result : results) {
+            assertThat(result.get()).isTrue();
+        }
+    }
+
+    @DisplayName("본문이 큰 multipart 요청도 파트를 모두 나눠 변환한다")
+    @Test
+    void convert_large_multipart() {
+        // given
+        byte[] image = new byte[2 * 1024 * 1024]; // 공유 파싱 스레드 풀에 넘기는 기준(1MB)보다 큰 본문
+        for (int i = 0; i < image.length; i++) {
+            image[i] = (byte) i;
+        }
+        String boundary = "----WebKitFormBoundaryesErKWzx2VMAbwfJ";
+        String head = "POST /article HTTP/1.1\r\n"
+                + "Content-Type: multipart/form-data; boundary=" + boundary + "\r\n"
+                + "\r\n"
+                + "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"article-body\"\r\n"
+                + "\r\n"
+                + "test text\r\n"
+                + "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"photo\"; filename=\"large.png\"\r\n"
+                + "Content-Type: image/png\r\n"
+                + "\r\n";
+        String tail = "\r\n--" + boundary + "--\r\n";
+        byte[] request = new byte[head.length() + image.length + tail.length()];
+        System.arraycopy(head.getBytes(ISO_8859_1), 0, request, 0, head.length());
+        System.arraycopy(image, 0, request, head.length(), image.length);
+        System.arraycopy(tail.getBytes(ISO_8859_1), 0, request, head.length() + image.length, tail.length());
+
+        // when
+        HttpRequest httpRequest = HttpRequestConverter.convertToHttpRequest(request);
+
+        // then
+        assertThat(httpRequest.getPart("article-body").partBody()).isEqualTo("test text".getBytes(UTF_8));
+        assertThat(httpRequest.getPart("photo").submittedFileName()).isEqualTo("large.png");
+        assertThat(httpRequest.getPart("photo").partBody()).isEqualTo(image);
+    }
+}
@@ -1,19 +1,16 @@
 package utils;
 
 import static org.assertj.core.api.Assertions.*;
-import static utils.HttpRequestParser.*;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
-import http.HttpRequest.HttpMethod;
-import http.HttpRequest.HttpRequestUri;
-import http.HttpRequest.HttpVersion;
 import http.HttpRequest.MultiPart;
-import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
-class HttpRequestParserTest {
+class HttpRequestDecoderTest {
 
     @DisplayName("\"GET /home.html HTTP/1.1\nHost: developer.mozilla.org\"를 파싱하면 request line을 추출할 수 있다.")
     @Test
@@ -22,27 +19,22 @@ class HttpRequestParserTest {
         String requestHeader = "GET /home.html HTTP/1.1\nHost: developer.mozilla.org";
 
         // when
-        String requestLine = parseRequestLine(requestHeader);
-        HttpMethod httpMethod = parseMethod(requestLine);
-        HttpRequestUri httpRequestUri = parseUri(requestLine);
-        HttpVersion httpVersion = parseVersion(requestLine);
+        HttpRequestDecoder decoder = decode(requestHeader);
 
         // then
-        assertThat(requestLine).isEqualTo("GET /home.html HTTP/1.1");
-        assertThat(httpMethod).isEqualTo(HttpMethod.GET);
-        assertThat(httpRequestUri).isEqualTo(new HttpRequestUri("/home.html"));
-        assertThat(httpVersion).isEqualTo(new HttpVersion("HTTP/1.1"));
-
+        assertThat(decoder.method()).isEqualTo("GET");
+        assertThat(decoder.uri()).isEqualTo("/home.html");
+        assertThat(decoder.version()).isEqualTo("HTTP/1.1");
     }
 
     @DisplayName("'/index.html?name=str&id=str2&money=123'에서 쿼리파라미터를 추출하면 name=str, id=str2, money=123 3개 이다")
     @Test
     void parse_query_params() {
         // given
-        String requestHeader = "/index.html?name=str&id=str2&money=123";
+        String requestHeader = "GET /index.html?name=str&id=str2&money=123 HTTP/1.1\r\n\r\n";
 
         // when
-        Map<String, String> params = parseParams(requestHeader);
+        Map<String, String> params = decode(requestHeader).parameters(requestHeader.length());
 
         // then
         assertThat(params.size()).isEqualTo(3);
@@ -78,8 +70,8 @@ class HttpRequestParserTest {
                 Cookie: Idea-fcd223d4=b6a3f2fa-6bf3-46d9-9244-dc44850cb75f; JSESSIONID=98B78C0DDB07A7320453FE9FB565C7F3; Idea-fcd223d5=56a54692-c173-433b-b8a0-65b80db19507\r\n\r\n
                 """;
 
-        // then
-        Map<String, String> headerMap = parseHeader(headers);
+        // when
+        Map<String, String> headerMap = decode(headers).headers();
 
         // then
         assertThat(headerMap.size()).isEqualTo(18);
@@ -109,11 +101,12 @@ class HttpRequestParserTest {
     @Test
     void parse_cookie() {
         // given
-        String allCookie = "Cookie: MyCookie=Idea-fcd223d4=b6a3f2fa-6bf3-46d9-9244-dc44850cb75f; "
-                + "JSESSIONID=98B78C0DDB07A7320453FE9FB565C7F3;";
+        String allCookie = "GET / HTTP/1.1\r\n"
+                + "Cookie: MyCookie=Idea-fcd223d4=b6a3f2fa-6bf3-46d9-9244-dc44850cb75f; "
+                + "JSESSIONID=98B78C0DDB07A7320453FE9FB565C7F3;\r\n\r\n";
 
         // when
-        Map<String, String> cookieMap = parseParams(allCookie);
+        Map<String, String> cookieMap = decode(allCookie).cookies();
 
         // then
         assertThat(cookieMap.size()).isEqualTo(2);
@@ -121,6 +114,38 @@ class HttpRequestParserTest {
                 .containsEntry("JSESSIONID", "98B78C0DDB07A7320453FE9FB565C7F3");
     }
 
+    @DisplayName("헤더 맵을 만들지 않고 이름의 대소문자와 관계없이 헤더 하나의 값을 찾을 수 있다")
+    @Test
+    void header_IgnoreCase_FindValue() {
+        // given
+        HttpRequestDecoder decoder = decode("GET / HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n");
+
+        // when & then
+        assertThat(decoder.header(AsciiString.of("connection")).toString()).isEqualTo("close");
+        assertThat(decoder.header(HttpHeaderNames.HOST).toString()).isEqualTo("localhost");
+        assertThat(decoder.header(HttpHeaderNames.ACCEPT)).isSameAs(AsciiString.EMPTY);
+    }
+
+    @DisplayName("요청을 다른 배열로 옮겨 이어서 파싱하면 찾아 둔 헤더 값도 옮긴 배열에서 다시 찾는다")
+    @Test
+    void header_BufferMoved_FindValueInNewBuffer() {
+        // given
+        byte[] request = "POST / HTTP/1.1\r\nExpect: 100-continue\r\nContent-Length: 1\r\n\r\n".getBytes(UTF_8);
+        HttpRequestDecoder decoder = new HttpRequestDecoder();
+        decoder.decode(request, 0, request.length);
+        decoder.header(HttpHeaderNames.EXPECT);
+
+        // when: 앞을 비우고 옮긴 배열로 이어서 파싱하고, 옮기기 전의 배열은 다른 요청이 쓴다
+        byte[] moved = new byte[request.length + 8];
+        System.arraycopy(request, 0, moved, 8, request.length);
+        decoder.decode(moved, 8, moved.length);
+        Arrays.fill(request, (byte) 'x');
+
+        // then
+        assertThat(decoder.header(HttpHeaderNames.EXPECT).toString()).isEqualTo("100-continue");
+        assertThat(decoder.expectsContinue()).isTrue();
+    }
+
     @DisplayName("Content-Length가 100 일 경우 해당 값을 파싱할 수 있다")
     @Test
     void parseContentLength_WhenContentLengthExists_ReturnContentLength() {
@@ -132,7 +157,7 @@ class HttpRequestParserTest {
                 + "This is the request body.";
 
         // when
-        int contentLength = parseContentLength(httpMessage);
+        int contentLength = decode(httpMessage).contentLength();
 
         // then
         assertThat(contentLength).isEqualTo(100);
@@ -147,7 +172,7 @@ class HttpRequestParserTest {
                 + "\r\n";
 
         // when
-        int contentLength = parseContentLength(httpMessage);
+        int contentLength = decode(httpMessage).contentLength();
 
         // then
         assertThat(contentLength).isZero();
@@ -164,7 +189,8 @@ class HttpRequestParserTest {
                 + "This is the request body.";
 
         // when
-        String requestBody = parseRequestBody(httpMessage);
+        HttpRequestDecoder decoder = decode(httpMessage);
+        String requestBody = httpMessage.substring(decoder.bodyStart());
 
         // then
         assertThat(requestBody).isEqualTo("This is the request body.");
@@ -179,10 +205,11 @@ class HttpRequestParserTest {
                 + "\r\n";
 
         // when
-        String requestBody = parseRequestBody(httpMessage);
+        HttpRequestDecoder decoder = decode(httpMessage);
 
         // then
-        assertThat(requestBody).isEmpty();
+        assertThat(decoder.bodyStart()).isEqualTo(httpMessage.length());
+        assertThat(decoder.parameters(httpMessage.length())).isEmpty();
     }
 
     @DisplayName("multipart/form-data가 존재하면 MultiPart 리스트를 반환한다")
@@ -206,7 +233,8 @@ class HttpRequestParserTest {
                 + "------WebKitFormBoundaryesErKWzx2VMAbwfJ--\r\n";
 
         // when
-        List<MultiPart> multiParts = parseMultiPart(httpMessage);
+        byte[] bytes = httpMessage.getBytes(UTF_8);
+        List<MultiPart> multiParts = decode(bytes).parts(bytes.length);
 
         // then
         assertThat(multiParts).hasSize(2);
@@ -222,7 +250,7 @@ class HttpRequestParserTest {
         assertThat(imageMultiPart.name()).isEqualTo("photo");
         assertThat(imageMultiPart.submittedFileName()).isEqualTo("example.png");
         assertThat(imageMultiPart.contentType()).isEqualTo("image/png");
-        assertThat(imageMultiPart.partBody()).isEqualTo("�PNG".getBytes(StandardCharsets.ISO_8859_1));
+        assertThat(imageMultiPart.partBody()).isEqualTo("�PNG".getBytes(UTF_8));
     }
 
     @DisplayName("multipart/form-data가 존재하지 않을 때 빈 리스트를 반환한다")
@@ -234,9 +262,62 @@ class HttpRequestParserTest {
                 + "\r\n";
 
         // when
-        List<MultiPart> multiParts = parseMultiPart(httpMessage);
+        List<MultiPart> multiParts = decode(httpMessage).parts(httpMessage.length());
 
         // then
         assertThat(multiParts).isEmpty();
     }
+
+    @DisplayName("POST 본문의 폼 파라미터는 '&' 로 나눈 뒤 각각 URL 디코딩한다")
+    @Test
+    void parameters_FormBody_DecodeEachPair() {
+        // given
+        String httpMessage = "POST /registration?from=main HTTP/1.1\r\n"
+                + "Content-Length: 39\r\n"
+                + "\r\n"
+                + "name=hello+world&memo=a%26b&email=a%40b";
+
+        // when
+        Map<String, String> params = decode(httpMessage).parameters(httpMessage.length());
+
+        // then
+        assertThat(params).containsEntry("from", "main")
+                .containsEntry("name", "hello world")
+                .containsEntry("memo", "a&b")
+                .containsEntry("email", "a@b");
+    }
+
+    @DisplayName("요청을 나눠 받아도 이어서 파싱하면 한 번에 받은 것과 같은 결과를 얻는다")
+    @Test
+    void decode_Incrementally_SameResult() {
+        // given
+        byte[] request = ("GET /index.html HTTP/1.1\r\n"
+                + "Host: localhost:8080\r\n"
+                + "Content-Length: 0\r\n"
+                + "\r\n").getBytes(UTF_8);
+        HttpRequestDecoder decoder = new HttpRequestDecoder();
+
+        // when: 한 바이트씩 받는 경우
+        boolean headerComplete = false;
+        for (int end = 1; end <= request.length; end++) {
+            headerComplete = decoder.decode(request, 0, end);
+            assertThat(headerComplete).isEqualTo(end == request.length);
+        }
+
+        // then
+        assertThat(headerComplete).isTrue();
+        assertThat(decoder.uri()).isEqualTo("/index.html");
+        assertThat(decoder.headers()).containsEntry("Host", "localhost:8080").containsEntry("Content-Length", "0");
+        assertThat(decoder.bodyStart()).isEqualTo(request.length);
+    }
+
+    private static HttpRequestDecoder decode(String httpMessage) {
+        return decode(httpMessage.getBytes(UTF_8));
+    }
+
+    private static HttpRequestDecoder decode(byte[] httpMessage) {
+        HttpRequestDecoder decoder = new HttpRequestDecoder();
+        decoder.decode(httpMessage, 0, httpMessage.length);
+        return decoder;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,114 @@
+package utils;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MappedFileStoreTest {
+
+    @TempDir
+    Path tempDirectory;
+
+    private MappedFileStore mappedFileStore;
+
+    @BeforeEach
+    void setUp() {
+        mappedFileStore = new MappedFileStore(10, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        mappedFileStore.close();
+    }
+
+    @DisplayName("파일을 매핑해 구간을 빌려 줄 수 있고, 같은 파일은 다시 매핑하지 않는다")
+    @Test
+    void acquire() throws IOException {
+        // given
+        Path file = Files.writeString(tempDirectory.resolve("image.png"), "0123456789abcdef");
+
+        // when
+        MappedRegion whole = mappedFileStore.acquire(file, FileValidator.of(file));
+        MappedRegion range = mappedFileStore.acquire(file, FileValidator.of(file), 10, 6);
+
+        // then
+        assertThat(UTF_8.decode(whole.buffer()).toString()).isEqualTo("0123456789abcdef");
+        assertThat(UTF_8.decode(range.buffer()).toString()).isEqualTo("abcdef");
+        assertThat(range.count()).isEqualTo(6);
+        assertThat(mappedFileStore.size()).isEqualTo(16);
+        whole.close();
+        range.close();
+    }
+
+    @DisplayName("최소 크기보다 작거나 전체 크기보다 큰 파일은 매핑하지 않는다")
+    @Test
+    void acquire_NotMappable() throws IOException {
+        // given
+        Path small = Files.write(tempDirectory.resolve("small.png"), new byte[9]);
+        Path large = Files.write(tempDirectory.resolve("large.png"), new byte[101]);
+
+        // then
+        assertThat(mappedFileStore.acquire(small, FileValidator.of(small))).isNull();
+        assertThat(mappedFileStore.acquire(large, FileValidator.of(large))).isNull();
+        assertThat(mappedFileStore.size()).isZero();
+    }
+
+    @DisplayName("전체 크기를 넘으면 가장 오래 사용하지 않은 파일을 빼지만, 빌려 간 구간은 반납할 때까지 읽을 수 있다")
+    @Test
+    void acquire_EvictKeepBorrowedRegion() throws IOException {
+        // given
+        Path first = Files.write(tempDirectory.resolve("first.png"), filled((byte) 1, 60));
+        Path second = Files.write(tempDirectory.resolve("second.png"), filled((byte) 2, 60));
+        MappedRegion borrowed = mappedFileStore.acquire(first, FileValidator.of(first));
+
+        // when
+        MappedRegion other = mappedFileStore.acquire(second, FileValidator.of(second));
+
+        // then
+        assertThat(mappedFileStore.size()).isEqualTo(60);
+        ByteBuffer buffer = borrowed.buffer();
+        assertThat(buffer.remaining()).isEqualTo(60);
+        assertThat(buffer.get(59)).isEqualTo((byte) 1);
+        borrowed.close();
+        other.close();
+    }
+
+    @DisplayName("파일이 바뀌면 새로 매핑하고, 지워지면 뺀다")
+    @Test
+    void acquire_ChangedOrDeleted() throws IOException {
+        // given
+        Path file = Files.writeString(tempDirectory.resolve("image.png"), "0123456789");
+        mappedFileStore.acquire(file, FileValidator.of(file)).close();
+
+        // when: 업로드처럼 새 파일로 바꾼다
+        Path uploaded = Files.writeString(tempDirectory.resolve("upload.tmp"), "changed-image");
+        Files.move(uploaded, file, StandardCopyOption.REPLACE_EXISTING);
+        MappedRegion changed = mappedFileStore.acquire(file, FileValidator.of(file));
+
+        // then
+        assertThat(UTF_8.decode(changed.buffer()).toString()).isEqualTo("changed-image");
+        assertThat(mappedFileStore.size()).isEqualTo(13);
+        changed.close();
+
+        Files.delete(file);
+        mappedFileStore.invalidate(file);
+        assertThat(mappedFileStore.size()).isZero();
+    }
+
+    private static byte[] filled(byte value, int length) {
+        byte[] bytes = new byte[length];
+        Arrays.fill(bytes, value);
+        return bytes;
+    }
+}
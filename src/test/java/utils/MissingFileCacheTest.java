@@ -0,0 +1,70 @@
+package utils;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class MissingFileCacheTest {
+
+    @DisplayName("없다고 기억한 경로만 없는 경로로 찾는다")
+    @Test
+    void add() {
+        // given
+        MissingFileCache missingFileCache = new MissingFileCache(100, 60_000);
+
+        // when
+        missingFileCache.add("/favicon.ico");
+
+        // then
+        assertThat(missingFileCache.isMissing("/favicon.ico")).isTrue();
+        assertThat(missingFileCache.isMissing("/index.html")).isFalse();
+    }
+
+    @DisplayName("TTL 이 지난 경로는 잊는다")
+    @Test
+    void isMissing_Expired() throws InterruptedException {
+        // given
+        MissingFileCache missingFileCache = new MissingFileCache(100, 10);
+        missingFileCache.add("/favicon.ico");
+
+        // when
+        Thread.sleep(30);
+
+        // then
+        assertThat(missingFileCache.isMissing("/favicon.ico")).isFalse();
+        assertThat(missingFileCache.size()).isZero();
+    }
+
+    @DisplayName("최대 개수를 넘으면 가장 먼저 기억한 경로부터 잊는다")
+    @Test
+    void add_EvictEldest() {
+        // given
+        MissingFileCache missingFileCache = new MissingFileCache(2, 60_000);
+
+        // when
+        missingFileCache.add("/a.png");
+        missingFileCache.add("/b.png");
+        missingFileCache.add("/c.png");
+
+        // then
+        assertThat(missingFileCache.size()).isEqualTo(2);
+        assertThat(missingFileCache.isMissing("/a.png")).isFalse();
+        assertThat(missingFileCache.isMissing("/b.png")).isTrue();
+        assertThat(missingFileCache.isMissing("/c.png")).isTrue();
+    }
+
+    @DisplayName("파일을 만든 경로는 바로 잊는다")
+    @Test
+    void invalidate() {
+        // given
+        MissingFileCache missingFileCache = new MissingFileCache(100, 60_000);
+        missingFileCache.add("/media/user/photo.png");
+
+        // when
+        missingFileCache.invalidate("/media/user/photo.png");
+
+        // then
+        assertThat(missingFileCache.isMissing("/media/user/photo.png")).isFalse();
+    }
+}
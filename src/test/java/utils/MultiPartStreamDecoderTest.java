@@ -0,0 +1,175 @@
+package utils;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.assertj.core.api.Assertions.*;
+
+import http.HttpRequest.MultiPart;
+import http.HttpStatus;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MultiPartStreamDecoderTest {
+    private static final String BOUNDARY = "----WebKitFormBoundaryesErKWzx2VMAbwfJ";
+    private static final int MEMORY_THRESHOLD = 1024;
+
+    @TempDir
+    Path tempDirectory;
+
+    @DisplayName("텍스트 파트는 메모리에, 기준보다 큰 파일 파트는 임시 파일에 보관한다")
+    @Test
+    void decode_LargeFilePart_WriteToTempFile() throws IOException {
+        // given
+        byte[] image = new byte[MEMORY_THRESHOLD * 10];
+        for (int i = 0; i < image.length; i++) {
+            image[i] = (byte) i;
+        }
+        byte[] body = multiPartBody(image);
+        MultiPartStreamDecoder decoder = new MultiPartStreamDecoder(BOUNDARY, tempDirectory, MEMORY_THRESHOLD);
+
+        // when
+        int consumed = decoder.decode(body, 0, body.length);
+
+        // then
+        assertThat(decoder.isComplete()).isTrue();
+        assertThat(consumed).isEqualTo(body.length);
+
+        List<MultiPart> parts = decoder.parts();
+        assertThat(parts).hasSize(2);
+        assertThat(parts.get(0).name()).isEqualTo("article-body");
+        assertThat(parts.get(0).isInFile()).isFalse();
+        assertThat(parts.get(0).partBody()).isEqualTo("test text".getBytes(ISO_8859_1));
+
+        MultiPart photo = parts.get(1);
+        assertThat(photo.submittedFileName()).isEqualTo("example.png");
+        assertThat(photo.contentType()).isEqualTo("image/png");
+        assertThat(photo.isInFile()).isTrue();
+        assertThat(photo.file().getParent()).isEqualTo(tempDirectory);
+        assertThat(Files.readAllBytes(photo.file())).isEqualTo(image);
+    }
+
+    @DisplayName("본문을 한 바이트씩 나눠 받아도 한 번에 받은 것과 같은 파트로 나눈다")
+    @Test
+    void decode_ByteByByte_SameParts() throws IOException {
+        // given
+        byte[] image = "small image".getBytes(ISO_8859_1);
+        byte[] body = multiPartBody(image);
+        MultiPartStreamDecoder decoder = new MultiPartStreamDecoder(BOUNDARY, tempDirectory, MEMORY_THRESHOLD);
+
+        // when: 소비하지 않은 바이트는 남겨 두었다가 다음 바이트와 함께 다시 넘긴다
+        int consumed = 0;
+        for (int received = 1; received <= body.length; received++) {
+            consumed += decoder.decode(body, consumed, received - consumed);
+        }
+
+        // then
+        assertThat(decoder.isComplete()).isTrue();
+        assertThat(decoder.parts()).hasSize(2);
+        assertThat(decoder.parts().get(1).isInFile()).isFalse();
+        assertThat(decoder.parts().get(1).partBody()).isEqualTo(image);
+    }
+
+    @DisplayName("파일을 선택하지 않은 파일 파트는 파일 이름이 없는 빈 파트다")
+    @Test
+    void decode_EmptyFileName_NoSubmittedFile() throws IOException {
+        // given
+        byte[] body = ("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"photo\"; filename=\"\"\r\n"
+                + "Content-Type: application/octet-stream\r\n"
+                + "\r\n"
+                + "\r\n"
+                + "--" + BOUNDARY + "--\r\n").getBytes(ISO_8859_1);
+        MultiPartStreamDecoder decoder = new MultiPartStreamDecoder(BOUNDARY, tempDirectory, MEMORY_THRESHOLD);
+
+        // when
+        decoder.decode(body, 0, body.length);
+
+        // then
+        MultiPart photo = decoder.parts().get(0);
+        assertThat(photo.submittedFileName()).isNull();
+        assertThat(photo.contentType()).isNull();
+        assertThat(photo.isEmpty()).isTrue();
+    }
+
+    @DisplayName("본문을 끝까지 받지 못하고 멈추면 쓰던 임시 파일을 지운다")
+    @Test
+    void abort_DeleteTempFileOfUnfinishedPart() throws IOException {
+        // given
+        byte[] body = multiPartBody(new byte[MEMORY_THRESHOLD * 4]);
+        MultiPartStreamDecoder decoder = new MultiPartStreamDecoder(BOUNDARY, tempDirectory, MEMORY_THRESHOLD);
+        decoder.decode(body, 0, body.length - 100); // 파일 파트 중간까지만 받음
+
+        // when
+        List<MultiPart> parts = decoder.abort();
+
+        // then
+        assertThat(parts).hasSize(1);
+        try (var files = Files.list(tempDirectory)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @DisplayName("파트 하나가 제한보다 크면 413 으로 거절하고 쓰던 임시 파일을 지운다")
+    @Test
+    void decode_PartTooLarge_Reject413() throws IOException {
+        // given
+        byte[] body = multiPartBody(new byte[MEMORY_THRESHOLD * 4]);
+        MultiPartStreamDecoder decoder = new MultiPartStreamDecoder(BOUNDARY, tempDirectory, MEMORY_THRESHOLD,
+                MEMORY_THRESHOLD * 2);
+
+        // when
+        assertThatThrownBy(() -> decoder.decode(body, 0, body.length))
+                .isInstanceOfSatisfying(RequestRejectedException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.STATUS_PAYLOAD_TOO_LARGE));
+        decoder.abort();
+
+        // then
+        try (var files = Files.list(tempDirectory)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @DisplayName("파트 헤더가 제한보다 길면 431 로 거절하고, 끝까지 받은 파트만 남긴다")
+    @Test
+    void decode_PartHeaderTooLarge_Reject431() throws IOException {
+        // given
+        byte[] body = multiPartBody(new byte[MEMORY_THRESHOLD * 4]);
+        byte[] longHeader = ("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"" + "a".repeat(9000))
+                .getBytes(ISO_8859_1);
+        int closeDelimiter = body.length - (BOUNDARY.length() + 6); // "--boundary--\r\n" 대신 긴 헤더를 보낸다
+        byte[] request = new byte[closeDelimiter + longHeader.length];
+        System.arraycopy(body, 0, request, 0, closeDelimiter);
+        System.arraycopy(longHeader, 0, request, closeDelimiter, longHeader.length);
+        MultiPartStreamDecoder decoder = new MultiPartStreamDecoder(BOUNDARY, tempDirectory, MEMORY_THRESHOLD);
+
+        // when
+        assertThatThrownBy(() -> decoder.decode(request, 0, request.length))
+                .isInstanceOfSatisfying(RequestRejectedException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.STATUS_REQUEST_HEADER_FIELDS_TOO_LARGE));
+        List<MultiPart> parts = decoder.abort();
+
+        // then
+        assertThat(parts).extracting(MultiPart::name).containsExactly("article-body", "photo");
+        assertThat(parts.get(1).isInFile()).isTrue();
+    }
+
+    private static byte[] multiPartBody(byte[] image) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.write(("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"article-body\"\r\n"
+                + "\r\n"
+                + "test text\r\n"
+                + "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"photo\"; filename=\"example.png\"\r\n"
+                + "Content-Type: image/png\r\n"
+                + "\r\n").getBytes(ISO_8859_1));
+        body.write(image);
+        body.write(("\r\n--" + BOUNDARY + "--\r\n").getBytes(ISO_8859_1));
+        return body.toByteArray();
+    }
+}
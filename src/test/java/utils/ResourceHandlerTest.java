@@ -6,7 +6,11 @@ import http.HttpRequest.MultiPart;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -182,4 +186,32 @@ class ResourceHandlerTest {
         // then
         assertThat(new File("./src/main/resources/media/test/test 전용 파일.png").exists()).isTrue();
     }
-}
\ No newline at end of file
+
+    @DisplayName("같은 이름으로 작은 이미지를 다시 저장해도 매핑해 둔 이전 파일은 줄어들지 않고, 임시 파일을 남기지 않는다")
+    @Test
+    void saveImage_replace_mapped_file() throws IOException {
+        // given
+        ResourceHandler.createDirectory("./src/main/resources/media", "test");
+        Path savedFile = Path.of("./src/main/resources/media/test/test 전용 파일.png");
+        byte[] oldBytes = new byte[256 * 1024];
+        Arrays.fill(oldBytes, (byte) 'o');
+        Files.write(savedFile, oldBytes);
+        MappedFileStore mappedFileStore = new MappedFileStore(1, 1024 * 1024);
+        MappedRegion region = mappedFileStore.acquire(savedFile, FileValidator.of(savedFile));
+
+        // when
+        MultiPart multiPart = new MultiPart("photo", "test 전용 파일.png", "image/png", "new".getBytes());
+        ResourceHandler.saveImage(multiPart, "/media/test/test 전용 파일.png");
+
+        // then
+        byte[] mapped = new byte[(int) region.count()];
+        region.buffer().get(mapped);
+        assertThat(mapped).isEqualTo(oldBytes);
+        assertThat(Files.readAllBytes(savedFile)).isEqualTo("new".getBytes());
+        try (Stream<Path> files = Files.list(savedFile.getParent())) {
+            assertThat(files).containsExactly(savedFile);
+        }
+        region.close();
+        mappedFileStore.close();
+    }
+}
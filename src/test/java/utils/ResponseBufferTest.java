@@ -0,0 +1,214 @@
+package utils;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ResponseBufferTest {
+    private final BufferPool bufferPool = BufferPool.getInstance();
+
+    @TempDir
+    Path tempDirectory;
+
+    @DisplayName("버퍼 크기보다 큰 응답은 버퍼를 더 빌려 이어 쓰고, 복사하지 않고 ByteBuffer 로 꺼낼 수 있다")
+    @Test
+    void write_LargerThanBuffer_SpanBuffers() throws IOException {
+        // given
+        int before = bufferPool.outstanding();
+        byte[] body = new byte[BufferPool.BUFFER_SIZE * 2 + 100];
+        for (int i = 0; i < body.length; i++) {
+            body[i] = (byte) i;
+        }
+        ResponseBuffer responseBuffer = new ResponseBuffer();
+
+        // when
+        responseBuffer.writeString("HTTP/1.1 200 OK\r\n\r\n");
+        responseBuffer.write(body);
+
+        // then
+        ByteBuffer[] byteBuffers = responseBuffer.toByteBuffers();
+        assertThat(byteBuffers).hasSize(3);
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        for (ByteBuffer byteBuffer : byteBuffers) {
+            written.write(byteBuffer.array(), byteBuffer.position(), byteBuffer.remaining());
+        }
+        assertThat(written.toByteArray()).isEqualTo(responseBuffer.toByteArray());
+        assertThat(responseBuffer.size()).isEqualTo(19 + body.length);
+        assertThat(bufferPool.outstanding()).isEqualTo(before + 3);
+
+        responseBuffer.release();
+        assertThat(bufferPool.outstanding()).isEqualTo(before);
+    }
+
+    @DisplayName("ASCII 가 아닌 문자가 있는 문자열은 UTF-8 로 쓴다")
+    @Test
+    void writeString_NonAscii_WriteUtf8() throws IOException {
+        // given
+        ResponseBuffer responseBuffer = new ResponseBuffer();
+
+        // when
+        responseBuffer.writeString("Location: /글쓰기\r\n");
+
+        // then
+        assertThat(new String(responseBuffer.toByteArray(), UTF_8)).isEqualTo("Location: /글쓰기\r\n");
+        responseBuffer.release();
+    }
+
+    @DisplayName("작은 본문은 헤더와 같은 버퍼에 복사하고, 큰 본문은 복사하지 않고 헤더 뒤에 이어 붙인다")
+    @Test
+    void writeBody_SmallCopyLargeAttach() throws IOException {
+        // given
+        byte[] smallBody = "Hi".getBytes(UTF_8);
+        byte[] largeBody = new byte[BufferPool.BUFFER_SIZE];
+        ResponseBuffer small = new ResponseBuffer();
+        ResponseBuffer large = new ResponseBuffer();
+
+        // when
+        small.writeString("HTTP/1.1 200 OK\r\n\r\n");
+        small.writeBody(smallBody);
+        large.writeString("HTTP/1.1 200 OK\r\n\r\n");
+        large.writeBody(largeBody);
+
+        // then
+        assertThat(small.toByteBuffers()).hasSize(1);
+        assertThat(new String(small.toByteArray(), UTF_8)).isEqualTo("HTTP/1.1 200 OK\r\n\r\nHi");
+        ByteBuffer[] byteBuffers = large.toByteBuffers();
+        assertThat(byteBuffers).hasSize(2);
+        assertThat(byteBuffers[1].array()).isSameAs(largeBody);
+        assertThat(large.size()).isEqualTo(19 + largeBody.length);
+        assertThatThrownBy(() -> large.write('a')).isInstanceOf(IllegalStateException.class);
+        small.release();
+        large.release();
+    }
+
+    @DisplayName("버퍼에 들어가는 작은 파일은 바로 읽어 들이고, 큰 파일은 읽지 않고 헤더 뒤에 붙여 둔다")
+    @Test
+    void writeFile_SmallReadLargeAttach() throws IOException {
+        // given
+        Path smallFile = Files.writeString(tempDirectory.resolve("small.html"), "<html></html>");
+        Path largeFile = Files.write(tempDirectory.resolve("large.png"), new byte[BufferPool.BUFFER_SIZE * 2]);
+        ResponseBuffer small = new ResponseBuffer();
+        ResponseBuffer large = new ResponseBuffer();
+
+        // when
+        small.writeString("HTTP/1.1 200 OK\r\n\r\n");
+        small.writeFile(FileChannel.open(smallFile));
+        large.writeString("HTTP/1.1 200 OK\r\n\r\n");
+        large.writeFile(FileChannel.open(largeFile));
+
+        // then
+        assertThat(small.fileRegion()).isNull();
+        assertThat(new String(small.toByteArray(), UTF_8)).isEqualTo("HTTP/1.1 200 OK\r\n\r\n<html></html>");
+        assertThat(large.fileRegion()).isNotNull();
+        assertThat(large.toByteBuffers()).hasSize(1); // 헤더만 담긴 버퍼
+        assertThat(large.size()).isEqualTo(19 + BufferPool.BUFFER_SIZE * 2);
+        small.release();
+        large.release();
+    }
+
+    @DisplayName("stream 하면 지금까지 쓴 내용을 떼어 보내고, 비워진 버퍼에 이어서 쓸 수 있다")
+    @Test
+    void stream_SendWrittenAndContinue() throws IOException {
+        // given
+        List<ResponseBuffer> segments = new ArrayList<>();
+        ResponseBuffer responseBuffer = new ResponseBuffer();
+        responseBuffer.setStreamSink(segments::add);
+
+        // when
+        responseBuffer.writeString("first");
+        responseBuffer.stream();
+        responseBuffer.writeString("second");
+
+        // then
+        assertThat(segments).hasSize(1);
+        assertThat(new String(segments.get(0).toByteArray(), UTF_8)).isEqualTo("first");
+        assertThat(new String(responseBuffer.toByteArray(), UTF_8)).isEqualTo("second");
+        segments.get(0).release();
+        responseBuffer.release();
+    }
+
+    @DisplayName("파일 구간은 구간 시작 위치부터 읽거나 보낸다")
+    @Test
+    void writeFile_Range() throws IOException {
+        // given
+        byte[] content = new byte[BufferPool.BUFFER_SIZE * 3];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        Path file = Files.write(tempDirectory.resolve("range.png"), content);
+        ResponseBuffer small = new ResponseBuffer();
+        ResponseBuffer large = new ResponseBuffer();
+
+        // when
+        small.writeString("\r\n");
+        small.writeFile(FileChannel.open(file), 100, 50);
+        large.writeString("\r\n");
+        large.writeFile(FileChannel.open(file), 1000, BufferPool.BUFFER_SIZE * 2);
+
+        // then
+        assertThat(small.fileRegion()).isNull();
+        assertThat(Arrays.copyOfRange(small.toByteArray(), 2, 52)).isEqualTo(Arrays.copyOfRange(content, 100, 150));
+        assertThat(large.fileRegion().count()).isEqualTo(BufferPool.BUFFER_SIZE * 2);
+        assertThat(Arrays.copyOfRange(large.toByteArray(), 2, 2 + BufferPool.BUFFER_SIZE * 2))
+                .isEqualTo(Arrays.copyOfRange(content, 1000, 1000 + BufferPool.BUFFER_SIZE * 2));
+        small.release();
+        large.release();
+    }
+
+    @DisplayName("stream 하면 붙여 둔 파일도 함께 떼어 보내므로, 파일 뒤에 이어서 쓸 수 있다")
+    @Test
+    void stream_WithFile_ContinueAfterFile() throws IOException {
+        // given
+        Path file = Files.write(tempDirectory.resolve("part.png"), new byte[BufferPool.BUFFER_SIZE * 2]);
+        List<ResponseBuffer> segments = new ArrayList<>();
+        ResponseBuffer responseBuffer = new ResponseBuffer();
+        responseBuffer.setStreamSink(segments::add);
+
+        // when
+        responseBuffer.writeString("--part\r\n\r\n");
+        responseBuffer.writeFile(FileChannel.open(file));
+        responseBuffer.stream();
+        responseBuffer.writeString("\r\n--part--\r\n");
+
+        // then
+        assertThat(segments).hasSize(1);
+        assertThat(segments.get(0).fileRegion()).isNotNull();
+        assertThat(segments.get(0).size()).isEqualTo(10 + BufferPool.BUFFER_SIZE * 2);
+        assertThat(responseBuffer.fileRegion()).isNull();
+        assertThat(new String(responseBuffer.toByteArray(), UTF_8)).isEqualTo("\r\n--part--\r\n");
+        segments.get(0).release();
+        responseBuffer.release();
+    }
+
+    @DisplayName("메모리 매핑한 구간은 복사하지 않고 헤더 버퍼 뒤에 붙이고, 반납할 때 구간도 반납한다")
+    @Test
+    void writeBody_MappedRegion() throws IOException {
+        // given
+        List<String> released = new ArrayList<>();
+        MappedRegion region = new MappedRegion(ByteBuffer.wrap("mapped".getBytes(UTF_8)), () -> released.add("region"));
+        ResponseBuffer responseBuffer = new ResponseBuffer();
+
+        // when
+        responseBuffer.writeString("HTTP/1.1 200 OK\r\n\r\n");
+        responseBuffer.writeBody(region);
+
+        // then
+        assertThat(responseBuffer.toByteBuffers()).hasSize(2);
+        assertThat(new String(responseBuffer.toByteArray(), UTF_8)).isEqualTo("HTTP/1.1 200 OK\r\n\r\nmapped");
+        assertThatThrownBy(() -> responseBuffer.write('x')).isInstanceOf(IllegalStateException.class);
+        responseBuffer.release();
+        assertThat(released).containsExactly("region");
+    }
+}
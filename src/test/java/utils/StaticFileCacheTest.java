@@ -0,0 +1,99 @@
+package utils;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class StaticFileCacheTest {
+
+    @TempDir
+    Path tempDirectory;
+
+    private StaticFileCache staticFileCache;
+
+    @BeforeEach
+    void setUp() {
+        staticFileCache = new StaticFileCache(100, 60);
+    }
+
+    @AfterEach
+    void tearDown() {
+        staticFileCache.close();
+    }
+
+    @DisplayName("읽어 들인 파일의 내용, Content-Type, 검증자를 캐시에서 찾을 수 있다")
+    @Test
+    void load() throws IOException {
+        // given
+        Path file = Files.writeString(tempDirectory.resolve("main.css"), "body {}");
+
+        // when
+        StaticFileCache.Entry loaded = staticFileCache.load(file);
+
+        // then
+        StaticFileCache.Entry cached = staticFileCache.get(file);
+        assertThat(cached).isSameAs(loaded);
+        assertThat(cached.content()).isEqualTo("body {}".getBytes());
+        assertThat(cached.contentType()).isEqualTo("text/css");
+        assertThat(cached.validator().size()).isEqualTo(7);
+        assertThat(staticFileCache.size()).isEqualTo(7);
+    }
+
+    @DisplayName("파일 하나의 최대 크기보다 큰 파일이나 없는 파일은 캐시하지 않는다")
+    @Test
+    void load_NotCacheable() throws IOException {
+        // given
+        Path large = Files.write(tempDirectory.resolve("large.png"), new byte[61]);
+
+        // then
+        assertThat(staticFileCache.load(large)).isNull();
+        assertThat(staticFileCache.load(tempDirectory.resolve("none.png"))).isNull();
+        assertThat(staticFileCache.size()).isZero();
+    }
+
+    @DisplayName("전체 크기를 넘으면 가장 오래 사용하지 않은 파일부터 뺀다")
+    @Test
+    void load_EvictLeastRecentlyUsed() throws IOException {
+        // given
+        Path first = Files.write(tempDirectory.resolve("first.png"), new byte[40]);
+        Path second = Files.write(tempDirectory.resolve("second.png"), new byte[40]);
+        Path third = Files.write(tempDirectory.resolve("third.png"), new byte[40]);
+        staticFileCache.load(first);
+        staticFileCache.load(second);
+        staticFileCache.get(first);
+
+        // when
+        staticFileCache.load(third);
+
+        // then
+        assertThat(staticFileCache.get(first)).isNotNull();
+        assertThat(staticFileCache.get(second)).isNull();
+        assertThat(staticFileCache.get(third)).isNotNull();
+        assertThat(staticFileCache.size()).isEqualTo(80);
+    }
+
+    @DisplayName("캐시한 파일이 바뀌면 캐시에서 뺀다")
+    @Test
+    void invalidate_OnChange() throws IOException, InterruptedException {
+        // given
+        Path file = Files.writeString(tempDirectory.resolve("index.html"), "<html></html>");
+        staticFileCache.load(file);
+
+        // when
+        Files.writeString(file, "<html>changed</html>");
+
+        // then
+        long deadline = System.currentTimeMillis() + 5000;
+        while (staticFileCache.get(file) != null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(staticFileCache.get(file)).isNull();
+    }
+}
@@ -0,0 +1,63 @@
+package utils;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TemplateCacheTest {
+
+    @TempDir
+    Path tempDirectory;
+
+    @DisplayName("템플릿은 한 번만 읽어 컴파일하고, 같은 경로는 컴파일한 템플릿을 함께 쓴다")
+    @Test
+    void get() throws IOException {
+        // given
+        TemplateCache templateCache = new TemplateCache();
+        Path file = Files.writeString(tempDirectory.resolve("index.html"), "<!-- target user --><!-- end user -->");
+
+        // when
+        HtmlTemplate first = templateCache.get(file);
+        Files.writeString(file, "changed");
+        HtmlTemplate second = templateCache.get(file);
+
+        // then
+        assertThat(second).isSameAs(first);
+        assertThat(templateCache.size()).isEqualTo(1);
+    }
+
+    @DisplayName("템플릿 이름은 'templates/' 아래의 파일로 찾는다")
+    @Test
+    void get_TemplateName() {
+        // given
+        TemplateCache templateCache = new TemplateCache();
+
+        // when
+        HtmlTemplate byDirectory = templateCache.get("/");
+        HtmlTemplate byFile = templateCache.get("/index.html");
+
+        // then
+        assertThat(byDirectory).isSameAs(byFile);
+        assertThat(byFile.length(Map.of())).isGreaterThan(0);
+    }
+
+    @DisplayName("읽을 수 없는 템플릿은 빈 템플릿을 반환하고 캐시하지 않는다")
+    @Test
+    void get_NotExist() {
+        // given
+        TemplateCache templateCache = new TemplateCache();
+
+        // when
+        HtmlTemplate template = templateCache.get(tempDirectory.resolve("not_exist.html"));
+
+        // then
+        assertThat(template.length(Map.of())).isZero();
+        assertThat(templateCache.size()).isZero();
+    }
+}
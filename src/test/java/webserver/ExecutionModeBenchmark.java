@@ -0,0 +1,129 @@
+package webserver;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * 느린 클라이언트 수천 개가 동시에 접속할 때 실행 모드별 처리 시간을 비교한다. 일반 테스트에서는 실행되지 않는다.
+ * <pre>
+ * gradle test --tests webserver.ExecutionModeBenchmark -Dbenchmark=true -Dbenchmark.clients=2000 -Dbenchmark.delay=200
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ExecutionModeBenchmark {
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 2000);
+    private static final int CLIENT_DELAY_MILLIS = Integer.getInteger("benchmark.delay", 200);
+
+    @DisplayName("느린 클라이언트가 동시에 접속할 때 플랫폼 스레드 풀과 가상 스레드 모드의 처리 시간을 비교한다")
+    @Test
+    void compare_thread_pool_and_virtual_thread() throws Exception {
+        // when
+        Result threadPool = run(ExecutionMode.THREAD_POOL);
+        Result virtualThread = run(ExecutionMode.VIRTUAL_THREAD);
+
+        // then
+        System.out.println(threadPool);
+        System.out.println(virtualThread);
+        assertThat(threadPool.failures()).isZero();
+        assertThat(virtualThread.failures()).isZero();
+    }
+
+    private Result run(ExecutionMode mode) throws Exception {
+        ExecutorService serverExecutor = WebServer.createExecutor(mode);
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(CLIENTS);
+
+        try (ServerSocket listenSocket = new ServerSocket(0, CLIENTS)) {
+            Thread acceptor = new Thread(() -> {
+                try {
+                    WebServer.serve(listenSocket, serverExecutor);
+                } catch (IOException e) {
+                    // 서버 소켓이 닫히면 종료
+                }
+            });
+            acceptor.start();
+
+            List<Callable<Long>> clients = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                clients.add(() -> slowClient(listenSocket.getLocalPort()));
+            }
+
+            long start = System.nanoTime();
+            List<Future<Long>> futures = clientExecutor.invokeAll(clients);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+            return Result.of(mode, elapsedMillis, futures);
+        } finally {
+            clientExecutor.shutdownNow();
+            serverExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * 요청 라인을 보낸 뒤 잠시 멈췄다가 나머지 헤더를 보내는 클라이언트. 응답을 모두 받을 때까지 걸린 시간(ms)을 반환하고, 실패하면 -1 을 반환한다.
+     */
+    private long slowClient(int port) {
+        long start = System.nanoTime();
+        try (Socket socket = new Socket("localhost", port)) {
+            socket.setSoTimeout(120_000);
+            OutputStream out = socket.getOutputStream();
+            out.write("GET /index.html HTTP/1.1\r\n".getBytes(UTF_8));
+            out.flush();
+
+            Thread.sleep(CLIENT_DELAY_MILLIS);
+
+            out.write("Host: localhost\r\nConnection: close\r\n\r\n".getBytes(UTF_8));
+            out.flush();
+
+            InputStream in = socket.getInputStream();
+            String response = new String(in.readAllBytes(), UTF_8);
+            if (!response.startsWith("HTTP/1.1 200")) {
+                return -1;
+            }
+        } catch (IOException | InterruptedException e) {
+            return -1;
+        }
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private record Result(ExecutionMode mode, long elapsedMillis, long p50, long p99, long failures) {
+
+        static Result of(ExecutionMode mode, long elapsedMillis, List<Future<Long>> futures) throws Exception {
+            long[] latencies = new long[futures.size()];
+            for (int i = 0; i < futures.size(); i++) {
+                latencies[i] = futures.get(i).get();
+            }
+            long failures = Arrays.stream(latencies).filter(latency -> latency < 0).count();
+            long[] success = Arrays.stream(latencies).filter(latency -> latency >= 0).sorted().toArray();
+            return new Result(mode, elapsedMillis, percentile(success, 50), percentile(success, 99), failures);
+        }
+
+        private static long percentile(long[] sorted, int percent) {
+            if (sorted.length == 0) {
+                return -1;
+            }
+            return sorted[Math.min(sorted.length - 1, sorted.length * percent / 100)];
+        }
+
+        @Override
+        public String toString() {
+            return String.format("[BENCHMARK] mode=%s clients=%d delay=%dms total=%dms p50=%dms p99=%dms failures=%d",
+                    mode.name, CLIENTS, CLIENT_DELAY_MILLIS, elapsedMillis, p50, p99, failures);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package webserver;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import utils.BufferPool;
+
+/**
+ * 테스트용 HTTP 클라이언트. 하나의 연결에서 요청을 여러 번 보내고 Content-Length (또는 chunked) 로 응답을 하나씩 나눠 읽는다.
+ */
+class HttpTestClient implements Closeable {
+    private static final Pattern CONTENT_LENGTH = Pattern.compile("(?i)Content-Length: (\\d+)");
+    private static final Pattern CHUNKED = Pattern.compile("(?i)Transfer-Encoding: chunked");
+    private final Socket socket;
+    private final InputStream in;
+    private final OutputStream out;
+
+    HttpTestClient(int port) throws IOException {
+        this.socket = new Socket("localhost", port);
+        this.socket.setSoTimeout(5000);
+        this.in = socket.getInputStream();
+        this.out = socket.getOutputStream();
+    }
+
+    void send(String request) throws IOException {
+        out.write(request.getBytes(UTF_8));
+        out.flush();
+    }
+
+    /**
+     * 응답 하나(헤더 + Content-Length 만큼의 본문)를 읽는다. chunked 응답은 청크를 풀어낸 본문을 붙여 반환한다.
+     */
+    String readResponse() throws IOException {
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        while (!header.toString(UTF_8).endsWith("\r\n\r\n")) {
+            int read = in.read();
+            if (read == -1) {
+                return header.toString(UTF_8);
+            }
+            header.write(read);
+        }
+
+        if (CHUNKED.matcher(header.toString(UTF_8)).find()) {
+            return header.toString(UTF_8) + readChunkedBody();
+        }
+        Matcher matcher = CONTENT_LENGTH.matcher(header.toString(UTF_8));
+        int contentLength = matcher.find() ? Integer.parseInt(matcher.group(1)) : 0;
+        byte[] body = in.readNBytes(contentLength);
+        return header.toString(UTF_8) + new String(body, UTF_8);
+    }
+
+    private String readChunkedBody() throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        int size;
+        while ((size = Integer.parseInt(readLine(), 16)) > 0) {
+            body.write(in.readNBytes(size));
+            readLine(); // 청크 뒤의 CRLF
+        }
+        readLine(); // 마지막 청크 뒤의 빈 줄
+        return body.toString(UTF_8);
+    }
+
+    private String readLine() throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int read;
+        while ((read = in.read()) != '\n' && read != -1) {
+            if (read != '\r') {
+                line.write(read);
+            }
+        }
+        return line.toString(UTF_8);
+    }
+
+    /**
+     * 응답에서 헤더 값을 찾는다.
+     */
+    static String header(String response, String name) {
+        int start = response.indexOf(name + ": ") + name.length() + 2;
+        return response.substring(start, response.indexOf("\r\n", start));
+    }
+
+    /**
+     * 서버가 연결을 닫았는지 확인한다.
+     */
+    boolean isClosedByServer() throws IOException {
+        return in.read() == -1;
+    }
+
+    /**
+     * 서버가 빌려 간 버퍼를 모두 반납할 때까지 기다린다. 서버 스레드는 연결을 닫은 뒤 버퍼를 반납하므로 잠시 기다린다.
+     *
+     * @return 반납하지 않은 버퍼 수
+     */
+    static int awaitBuffersReleased() throws InterruptedException {
+        BufferPool bufferPool = BufferPool.getInstance();
+        long deadline = System.currentTimeMillis() + 3000;
+        while (bufferPool.outstanding() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        return bufferPool.outstanding();
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
@@ -0,0 +1,389 @@
+package webserver;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.*;
+
+import db.Database;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import session.SessionManager;
+
+class NioWebServerTest {
+
+    private NioWebServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new NioWebServer(0, 2, Executors.newFixedThreadPool(2));
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.close();
+    }
+
+    @DisplayName("NIO 모드에서 GET /index.html 요청을 보내면 200 OK 응답을 받는다")
+    @Test
+    void get_static_file() throws IOException {
+        // given
+        String request = "GET /index.html HTTP/1.1\r\n"
+                + "Host: localhost\r\n"
+                + "Connection: close\r\n"
+                + "\r\n";
+
+        // when
+        String response = send(request);
+
+        // then
+        assertThat(response).startsWith("HTTP/1.1 200 OK\r\n");
+        assertThat(response).contains("Content-Type: text/html");
+    }
+
+    @DisplayName("NIO 모드에서 존재하지 않는 경로를 요청하면 404 Not Found 응답을 받는다")
+    @Test
+    void get_not_found() throws IOException {
+        // given
+        String request = "GET /not-found HTTP/1.1\r\n"
+                + "Host: localhost\r\n"
+                + "Connection: close\r\n"
+                + "\r\n";
+
+        // when
+        String response = send(request);
+
+        // then
+        assertThat(response).startsWith("HTTP/1.1 404 Not Found\r\n");
+    }
+
+    @DisplayName("NIO 모드의 keep-alive 연결에서는 하나의 연결로 요청 2개를 연달아 처리할 수 있다")
+    @Test
+    void keep_alive() throws IOException {
+        try (HttpTestClient client = new HttpTestClient(server.getPort())) {
+            // when
+            client.send("GET /index.html HTTP/1.1\r\nHost: localhost\r\n\r\n");
+            String first = client.readResponse();
+
+            client.send("GET /global.css HTTP/1.1\r\nHost: localhost\r\n\r\n");
+            String second = client.readResponse();
+
+            // then
+            assertThat(first).startsWith("HTTP/1.1 200 OK\r\n").contains("Connection: keep-alive\r\n");
+            assertThat(second).startsWith("HTTP/1.1 200 OK\r\n").contains("Content-Type: text/css");
+        }
+    }
+
+    @DisplayName("NIO 모드에서 파이프라이닝된 요청들을 한 번에 보내면 요청 순서대로 응답을 받는다")
+    @Test
+    void pipelining() throws IOException {
+        try (HttpTestClient client = new HttpTestClient(server.getPort())) {
+            // when
+            client.send("GET /index.html HTTP/1.1\r\nHost: localhost\r\n\r\n"
+                    + "GET /global.css HTTP/1.1\r\nHost: localhost\r\n\r\n"
+                    + "GET /not-found HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n");
+            String first = client.readResponse();
+            String second = client.readResponse();
+            String third = client.readResponse();
+
+            // then
+            assertThat(first).startsWith("HTTP/1.1 200 OK\r\n").contains("Content-Type: text/html");
+            assertThat(second).startsWith("HTTP/1.1 200 OK\r\n").contains("Content-Type: text/css");
+            assertThat(third).startsWith("HTTP/1.1 404 Not Found\r\n").contains("Connection: close\r\n");
+            assertThat(client.isClosedByServer()).isTrue();
+        }
+    }
+
+    private String send(String request) throws IOException {
+        try (Socket socket = new Socket("localhost", server.getPort())) {
+            socket.setSoTimeout(5000);
+            OutputStream out = socket.getOutputStream();
+            out.write(request.getBytes(UTF_8));
+            out.flush();
+
+            InputStream in = socket.getInputStream();
+            return new String(in.readAllBytes(), UTF_8);
+        }
+    }
+
+    @DisplayName("NIO 모드에서 Content-Length 가 제한보다 큰 요청은 본문을 받기 전에 413 으로 응답하고 연결을 닫는다")
+    @Test
+    void reject_payload_too_large() throws IOException {
+        try (HttpTestClient client = new HttpTestClient(server.getPort())) {
+            // when: 앞의 요청은 처리하고, 본문 없이 헤더만 보낸 큰 요청은 거절한다
+            client.send("GET /index.html HTTP/1.1\r\nHost: localhost\r\n\r\n"
+                    + "POST /registration HTTP/1.1\r\nHost: localhost\r\nContent-Length: 1073741824\r\n\r\n");
+            String first = client.readResponse();
+            String rejected = client.readResponse();
+
+            // then
+            assertThat(first).startsWith("HTTP/1.1 200");
+            assertThat(rejected).startsWith("HTTP/1.1 413").contains("Connection: close");
+            assertThat(client.isClosedByServer()).isTrue();
+        }
+    }
+
+    @DisplayName("NIO 모드에서 청크 헤더가 잘못된 chunked 요청은 400 으로 응답하고 연결을 닫는다")
+    @Test
+    void reject_malformed_chunked_body() throws IOException {
+        try (HttpTestClient client = new HttpTestClient(server.getPort())) {
+            // when
+            client.send("POST /registration HTTP/1.1\r\nHost: localhost\r\nTransfer-Encoding: chunked\r\n\r\n"
+                    + "zz\r\nid=a\r\n0\r\n\r\n");
+            String rejected = client.readResponse();
+
+            // then
+            assertThat(rejected).startsWith("HTTP/1.1 400 Bad Request\r\n").contains("Connection: close")
+                    .endsWith("\r\n\r\nBad Request");
+            assertThat(client.isClosedByServer()).isTrue();
+        }
+    }
+
+    @DisplayName("NIO 모드에서 multipart 파트 헤더가 제한보다 긴 요청은 431 로 응답하고 연결을 닫는다")
+    @Test
+    void reject_multipart_header_too_large() throws IOException {
+        try (HttpTestClient client = new HttpTestClient(server.getPort())) {
+            // when
+            String body = "------WebKitFormBoundaryesErKWzx2VMAbwfJ\r\n"
+                    + "Content-Disposition: form-data; name=\"" + "a".repeat(9000);
+            client.send("POST /registration HTTP/1.1\r\nHost: localhost\r\n"
+                    + "Content-Type: multipart/form-data; boundary=----WebKitFormBoundaryesErKWzx2VMAbwfJ\r\n"
+                    + "Content-Length: " + body.length() + "\r\n\r\n" + body);
+            String rejected = client.readResponse();
+
+            // then
+            assertThat(rejected).startsWith("HTTP/1.1 431 Request Header Fields Too Large\r\n")
+                    .contains("Connection: close");
+            assertThat(client.isClosedByServer()).isTrue();
+        }
+    }
+
+    @DisplayName("NIO 모드에서 'Expect: 100-continue' 요청에는 본문을 받기 전에 100 Continue 를 보내고, 본문을 받으면 요청을 처리한다")
+    @Test
+    void expect_continue() throws IOException {
+        try (HttpTestClient client = new HttpTestClient(server.getPort())) {
+            // when
+            String body = "id=expect&username=expect&email=expect%40test.com&password=1234";
+            client.send("POST /registration HTTP/1.1\r\nHost: localhost\r\nExpect: 100-continue\r\n"
+                    + "Content-Length: " + body.length() + "\r\n\r\n");
+            String interim = client.readResponse();
+            client.send(body);
+            String response = client.readResponse();
+
+            // then
+            assertThat(interim).isEqualTo("HTTP/1.1 100 Continue\r\n\r\n");
+            assertThat(response).startsWith("HTTP/1.1 302");
+        }
+    }
+
+    @DisplayName("NIO 모드에서 로그인하지 않은 게시글 업로드는 본문을 받기 전에 401 로 거절하고 연결을 닫는다")
+    @Test
+    void expect_continue_unauthorized() throws IOException {
+        try (HttpTestClient client = new HttpTestClient(server.getPort())) {
+            // when
+            client.send("POST /article HTTP/1.1\r\nHost: localhost\r\nExpect: 100-continue\r\n"
+                    + "Content-Type: multipart/form-data; boundary=----WebKitFormBoundaryesErKWzx2VMAbwfJ\r\n"
+                    + "Content-Length: 5000000\r\n\r\n");
+            String response = client.readResponse();
+
+            // then
+            assertThat(response).startsWith("HTTP/1.1 401").contains("Connection: close");
+            assertThat(client.isClosedByServer()).isTrue();
+        }
+    }
+
+    @DisplayName("NIO 모드에서 버퍼보다 큰 정적 파일은 transferTo 로 보내고, 이어서 다음 응답을 보낸다")
+    @Test
+    void get_large_static_file() throws IOException {
+        try (HttpTestClient client = new HttpTestClient(server.getPort())) {
+            // when
+            client.send("GET /img/signiture.svg HTTP/1.1\r\nHost: localhost\r\n\r\n"
+                    + "GET /index.html HTTP/1.1\r\nHost: localhost\r\n\r\n");
+            String first = client.readResponse();
+            String second = client.readResponse();
+
+            // then
+            String svg = Files.readString(Path.of("./src/main/resources/static/img/signiture.svg"));
+            assertThat(first).startsWith("HTTP/1.1 200 OK\r\n").endsWith("\r\n\r\n" + svg);
+            assertThat(second).startsWith("HTTP/1.1 200 OK\r\n").contains("Content-Type: text/html");
+        }
+    }
+
+    @DisplayName("NIO 모드에서 ETag 나 Last-Modified 가 같은 조건부 요청에는 본문 없이 304 로 응답하고, 이어서 다음 응답을 보낸다")
+    @Test
+    void conditional_get_not_modified() throws IOException {
+        try (HttpTestClient client = new HttpTestClient(server.getPort())) {
+            // given
+            client.send("GET /main.css HTTP/1.1\r\nHost: localhost\r\n\r\n");
+            String full = client.readResponse();
+            String etag = HttpTestClient.header(full, "ETag");
+            String lastModified = HttpTestClient.header(full, "Last-Modified");
+
+            // when
+            client.send("GET /main.css HTTP/1.1\r\nHost: localhost\r\nIf-None-Match: " + etag + "\r\n\r\n"
+                    + "GET /main.css HTTP/1.1\r\nHost: localhost\r\nIf-Modified-Since: " + lastModified + "\r\n\r\n"
+                    + "GET /main.css HTTP/1.1\r\nHost: localhost\r\nIf-None-Match: \"other\"\r\n\r\n");
+            String byEtag = client.readResponse();
+            String byDate = client.readResponse();
+            String changed = client.readResponse();
+
+            // then
+            assertThat(full).startsWith("HTTP/1.1 200 OK\r\n").contains("Content-Type: text/css");
+            assertThat(byEtag).startsWith("HTTP/1.1 304 Not Modified\r\n").contains("ETag: " + etag + "\r\n")
+                    .doesNotContain("Content-Length").endsWith("\r\n\r\n");
+            assertThat(byDate).startsWith("HTTP/1.1 304 Not Modified\r\n").contains("Last-Modified: " + lastModified);
+            assertThat(changed).startsWith("HTTP/1.1 200 OK\r\n").endsWith(full.substring(full.indexOf("\r\n\r\n")));
+        }
+    }
+
+    @DisplayName("NIO 모드에서 없는 정적 파일은 404 로 응답하고, 같은 연결로 다음 요청을 처리한다")
+    @Test
+    void missing_static_file() throws IOException {
+        try (HttpTestClient client = new HttpTestClient(server.getPort())) {
+            // when
+            client.send("GET /no-such-file.png HTTP/1.1\r\nHost: localhost\r\n\r\n"
+                    + "GET /no-such-file.png HTTP/1.1\r\nHost: localhost\r\n\r\n"
+                    + "GET /main.css HTTP/1.1\r\nHost: localhost\r\n\r\n");
+            String first = client.readResponse();
+            String cached = client.readResponse();
+            String next = client.readResponse();
+
+            // then
+            assertThat(first).startsWith("HTTP/1.1 404 Not Found\r\n").endsWith("\r\n\r\nnot found");
+            assertThat(cached).startsWith("HTTP/1.1 404 Not Found\r\n").endsWith("\r\n\r\nnot found");
+            assertThat(next).startsWith("HTTP/1.1 200 OK\r\n");
+        }
+    }
+
+    @DisplayName("NIO 모드에서 쿼리가 붙은 요청도 쿼리를 제외한 경로로 파일을 찾고, 같은 경로의 요청을 404 로 기억하지 않는다")
+    @Test
+    void static_file_with_query() throws IOException {
+        // given
+        Path directory = Files.createDirectories(Path.of("./src/main/resources/media/query-test"));
+        Path file = Files.write(directory.resolve("photo.png"), new byte[] {1, 2, 3});
+
+        try (HttpTestClient client = new HttpTestClient(server.getPort())) {
+            // when
+            client.send("GET /media/query-test/photo.png?v=1 HTTP/1.1\r\nHost: localhost\r\n\r\n"
+                    + "GET /media/query-test/photo.png HTTP/1.1\r\nHost: localhost\r\n\r\n");
+            String withQuery = client.readResponse();
+            String withoutQuery = client.readResponse();
+
+            // then
+            assertThat(withQuery).startsWith("HTTP/1.1 200 OK\r\n").contains("Content-Type: image/png");
+            assertThat(withoutQuery).startsWith("HTTP/1.1 200 OK\r\n").contains("Content-Type: image/png");
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    @DisplayName("NIO 모드에서 Range 요청에는 한 구간이나 여러 구간(multipart/byteranges)을 206 으로, 파일 밖의 구간은 416 으로 응답한다")
+    @Test
+    void range_request() throws IOException {
+        try (HttpTestClient client = new HttpTestClient(server.getPort())) {
+            // when
+            client.send("GET /img/signiture.svg HTTP/1.1\r\nHost: localhost\r\nRange: bytes=100-9099\r\n\r\n"
+                    + "GET /img/signiture.svg HTTP/1.1\r\nHost: localhost\r\nRange: bytes=0-9,-9000\r\n\r\n"
+                    + "GET /img/signiture.svg HTTP/1.1\r\nHost: localhost\r\nRange: bytes=20000-\r\n\r\n"
+                    + "GET /index.html HTTP/1.1\r\nHost: localhost\r\n\r\n");
+            String single = client.readResponse();
+            String multi = client.readResponse();
+            String unsatisfiable = client.readResponse();
+            String next = client.readResponse();
+
+            // then
+            String svg = Files.readString(Path.of("./src/main/resources/static/img/signiture.svg"));
+            String boundary = HttpTestClient.header(multi, "Content-Type").replace("multipart/byteranges; boundary=", "");
+            assertThat(single).startsWith("HTTP/1.1 206 Partial Content\r\n")
+                    .contains("Content-Range: bytes 100-9099/" + svg.length() + "\r\n")
+                    .endsWith("\r\n\r\n" + svg.substring(100, 9100));
+            assertThat(multi).startsWith("HTTP/1.1 206 Partial Content\r\n")
+                    .contains("Content-Range: bytes 0-9/" + svg.length() + "\r\n\r\n" + svg.substring(0, 10) + "\r\n")
+                    .endsWith(svg.substring(svg.length() - 9000) + "\r\n--" + boundary + "--\r\n");
+            assertThat(unsatisfiable).startsWith("HTTP/1.1 416 Range Not Satisfiable\r\n")
+                    .contains("Content-Range: bytes */" + svg.length() + "\r\n");
+            assertThat(next).startsWith("HTTP/1.1 200 OK\r\n").contains("Content-Type: text/html");
+        }
+    }
+
+    @DisplayName("NIO 모드에서 유저가 많은 유저 리스트 페이지는 chunked 로 만드는 동안 보내고, 이어서 다음 응답을 보낸다")
+    @Test
+    void get_user_list_chunked() throws IOException {
+        // given
+        SessionManager sessionManager = new SessionManager();
+        sessionManager.enroll("chunked-sid", new User("chunked", "1234", "chunked", "chunked@test.com"));
+        for (int i = 0; i < 2000; i++) {
+            Database.addUser(new User("user" + i, "1234", "name" + i, "user" + i + "@test.com"));
+        }
+
+        try (HttpTestClient client = new HttpTestClient(server.getPort())) {
+            // when
+            client.send("GET /user/list HTTP/1.1\r\nHost: localhost\r\nCookie: SID=chunked-sid\r\n\r\n"
+                    + "GET /index.html HTTP/1.1\r\nHost: localhost\r\n\r\n");
+            String userList = client.readResponse();
+            String index = client.readResponse();
+
+            // then
+            assertThat(userList).startsWith("HTTP/1.1 200 OK\r\n").contains("Transfer-Encoding: chunked\r\n")
+                    .contains("<td>user1999</td>").endsWith("</html>");
+            assertThat(index).startsWith("HTTP/1.1 200 OK\r\n");
+        } finally {
+            sessionManager.delete("chunked-sid");
+            Database.clear();
+        }
+    }
+
+    @DisplayName("NIO 모드에서 클라이언트가 읽지 않는 동안에는 먼저 보낼 응답을 쌓지 않고 기다렸다가, 읽기 시작하면 나머지를 이어서 보낸다")
+    @Test
+    void get_user_list_slow_reader() throws IOException, InterruptedException {
+        // given: 소켓 버퍼와 쌓아 둘 크기 제한보다 큰 페이지
+        SessionManager sessionManager = new SessionManager();
+        sessionManager.enroll("slow-sid", new User("slow", "1234", "slow", "slow@test.com"));
+        for (int i = 0; i < 30000; i++) {
+            Database.addUser(new User("user" + i, "1234", "name" + i, "user" + i + "@test.com"));
+        }
+
+        try (HttpTestClient client = new HttpTestClient(server.getPort())) {
+            // when
+            client.send("GET /user/list HTTP/1.1\r\nHost: localhost\r\nCookie: SID=slow-sid\r\n\r\n"
+                    + "GET /index.html HTTP/1.1\r\nHost: localhost\r\n\r\n");
+            Thread.sleep(300); // 읽지 않는다
+            String userList = client.readResponse();
+            String index = client.readResponse();
+
+            // then
+            assertThat(userList).startsWith("HTTP/1.1 200 OK\r\n").contains("<td>user29999</td>").endsWith("</html>");
+            assertThat(index).startsWith("HTTP/1.1 200 OK\r\n");
+        } finally {
+            sessionManager.delete("slow-sid");
+            Database.clear();
+        }
+    }
+
+    @DisplayName("NIO 모드에서 연결이 끝나면 요청과 응답에 빌려 쓴 버퍼를 모두 반납한다")
+    @Test
+    void release_buffers() throws IOException, InterruptedException {
+        try (HttpTestClient client = new HttpTestClient(server.getPort())) {
+            // when: 버퍼 크기보다 큰 요청 본문과 응답
+            client.send("POST /registration HTTP/1.1\r\nHost: localhost\r\nContent-Length: 10000\r\n\r\n"
+                    + "id=" + "a".repeat(9997)
+                    + "GET /index.html HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n");
+            client.readResponse();
+            client.readResponse();
+
+            // then
+            assertThat(client.isClosedByServer()).isTrue();
+        }
+        assertThat(HttpTestClient.awaitBuffersReleased()).isZero();
+    }
+}